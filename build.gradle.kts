@@ -3,6 +3,8 @@ plugins {
     id("org.springframework.boot") version "3.4.0"
     id("io.spring.dependency-management") version "1.1.6"
     id("org.hibernate.orm") version "6.6.2.Final"
+    // JMH benchmarki za hot pathove (src/jmh/java), pokrece se s ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.2"
     /* kasije cu korsiti za sada mi ne treba
     id("org.graalvm.buildtools.native") version "0.10.3"
 
@@ -37,6 +39,9 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     // https://mvnrepository.com/artifact/org.hibernate.orm/hibernate-jcache
     implementation ("org.hibernate.orm:hibernate-jcache:6.6.2.Final")
+    // ugradeni Lucene indeks za pretragu tecajeva (7.2.x je kompatibilan s ORM 6.6)
+    implementation("org.hibernate.search:hibernate-search-mapper-orm:7.2.1.Final")
+    implementation("org.hibernate.search:hibernate-search-backend-lucene:7.2.1.Final")
     implementation ("org.ehcache:ehcache:3.10.8")
     implementation ("org.springframework.boot:spring-boot-starter-cache")
     implementation ("com.github.ben-manes.caffeine:caffeine")
@@ -46,6 +51,12 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-configuration-processor")
     implementation ("com.google.guava:guava:32.1.2-jre")
     implementation("org.springframework.kafka:spring-kafka")
+    // binarni (Smile) format domenskih dogadaja na kafki, verzija iz jackson BOM-a
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    // histogrami latencije upita po fingerprintu (micrometer ga vec vuce tranzitivno, ovdje ga koristimo direktno)
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2")
+    // proxy nad DataSource-om za profiler SQL naredbi
+    implementation("net.ttddyy:datasource-proxy:1.10")
 
    // implementation("io.micrometer:micrometer-registry-kafka:1.11.3")
 
@@ -78,11 +89,13 @@ dependencies {
     compileOnly("org.projectlombok:lombok")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     developmentOnly("org.springframework.boot:spring-boot-docker-compose")
-    runtimeOnly("org.postgresql:postgresql")
+    // CopyManager za bulk import treba PgJDBC API u compile classpathu
+    implementation("org.postgresql:postgresql")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     // rate limiter i bucket4j
     implementation ("com.bucket4j:bucket4j-core:8.10.1")
+    implementation ("com.bucket4j:bucket4j-redis:8.10.1")
     runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     /* kasnije cu korsiti
@@ -91,6 +104,10 @@ dependencies {
 
      */
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    // JMH benchmark source set
+    jmh("org.openjdk.jmh:jmh-core:1.37")
+    jmhAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 hibernate {
@@ -99,6 +116,21 @@ hibernate {
     }
 }
 
+/* Benchmarki se vrte nad lokalnim postgresom iz compose.yaml (profil "jmh")
+ * rezultati idu u JSON da ih mozemo usporediti prije deploya, gc profiler daje alokacije po operaciji
+ */
+jmh {
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    timeUnit = "us"
+    benchmarkMode = listOf("thrpt", "sample")
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    jvmArgsAppend = listOf("-Dspring.profiles.active=jmh")
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
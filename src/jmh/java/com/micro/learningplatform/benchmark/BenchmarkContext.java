@@ -0,0 +1,105 @@
+package com.micro.learningplatform.benchmark;
+
+import com.micro.learningplatform.LearningPlatformApplication;
+import com.micro.learningplatform.models.Course;
+import com.micro.learningplatform.models.dto.courses.CreateCourseWithModulesRequest;
+import com.micro.learningplatform.models.dto.module.CreateModuleRequest;
+import com.micro.learningplatform.repositories.CourseRepository;
+import com.micro.learningplatform.services.CourseServiceImpl;
+import org.springframework.aop.framework.Advised;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/* Zajednicki bootstrap za benchmarke koji trebaju bazu
+ * -> dize spring kontekst s profilom "jmh" (bez web servera) nad lokalnim postgresom iz compose.yaml
+ * -> seeda katalog jednom po forku, tako da svi benchmarki citaju iste podatke
+ * -> vraca "goli" CourseServiceImpl bez cache proxyja da mjerimo stvarni put do baze, a ne Caffeine hit
+ */
+final class BenchmarkContext {
+
+    static final String SEARCH_TERM = "performance";
+
+    private static ConfigurableApplicationContext context;
+    private static List<UUID> courseIds;
+
+    private BenchmarkContext() {
+    }
+
+    static synchronized void start(int courseCount, int modulesPerCourse) {
+        if (context != null) {
+            return;
+        }
+        context = new SpringApplicationBuilder(LearningPlatformApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("jmh")
+                .run();
+        seed(courseCount, modulesPerCourse);
+        courseIds = context.getBean(CourseRepository.class)
+                .findAll(PageRequest.of(0, courseCount))
+                .map(Course::getId)
+                .getContent();
+    }
+
+    static synchronized void stop() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    static List<UUID> courseIds() {
+        return courseIds;
+    }
+
+    static CourseServiceImpl uncachedCourseService() {
+        CourseServiceImpl proxy = context.getBean(CourseServiceImpl.class);
+        try {
+            return proxy instanceof Advised advised
+                    ? (CourseServiceImpl) advised.getTargetSource().getTarget()
+                    : proxy;
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot unwrap CourseServiceImpl proxy", e);
+        }
+    }
+
+    // read-only transakcija oko poziva jer zaobilazimo @Transactional proxy
+    static TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static void seed(int courseCount, int modulesPerCourse) {
+        CourseServiceImpl courseService = context.getBean(CourseServiceImpl.class);
+        IntStream.range(0, courseCount)
+                .mapToObj(index -> courseRequest(index, modulesPerCourse))
+                .forEach(courseService::batchAddCourseWithModules);
+    }
+
+    private static CreateCourseWithModulesRequest courseRequest(int index, int modulesPerCourse) {
+        // svaki treci tecaj sadrzi pojam za pretragu da full-text i LIKE imaju realan broj pogodaka
+        String description = index % 3 == 0
+                ? "Course about " + SEARCH_TERM + " tuning and profiling number " + index
+                : "Generic course description number " + index;
+
+        List<CreateModuleRequest> modules = IntStream.rangeClosed(1, modulesPerCourse)
+                .mapToObj(m -> new CreateModuleRequest(
+                        "Module " + m + " of course " + index,
+                        "Module description " + m,
+                        m,
+                        (long) (15 + m),
+                        null,
+                        null))
+                .toList();
+
+        return new CreateCourseWithModulesRequest("Benchmark course " + index, description, "INTERMEDIATE", modules);
+    }
+}
@@ -0,0 +1,65 @@
+package com.micro.learningplatform.benchmark;
+
+import com.micro.learningplatform.models.Course;
+import com.micro.learningplatform.models.CourseModule;
+import com.micro.learningplatform.models.CourseStatistics;
+import com.micro.learningplatform.models.ModuleStatus;
+import com.micro.learningplatform.models.dto.DifficultyLevel;
+import com.micro.learningplatform.models.dto.courses.CourseResponseWithModules;
+import com.micro.learningplatform.shared.CourseMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/* In-memory benchmarki bez baze
+ * -> CourseMapper#toCourseWithModulesResponse (sortiranje i mapiranje modula)
+ * -> CourseStatistics#recalculate (tri prolaza kroz module + BigDecimal dijeljenje)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CourseMapperBenchmark {
+
+    @Param({"10", "100"})
+    int moduleCount;
+
+    private Course course;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        course = Course.create("Benchmark course", "In-memory course for mapper benchmarks");
+        course.setDifficultyLevel(DifficultyLevel.INTERMEDIATE);
+        for (int i = 1; i <= moduleCount; i++) {
+            course.addModule(module(i));
+        }
+    }
+
+    @Benchmark
+    public CourseResponseWithModules toCourseWithModulesResponse() {
+        return CourseMapper.toCourseWithModulesResponse(course);
+    }
+
+    @Benchmark
+    public CourseStatistics recalculateStatistics() {
+        course.getCourseStatistics().recalculate(course.getModules());
+        return course.getCourseStatistics();
+    }
+
+    // id postavljamo rucno jer equals/hashCode modula ovise o id-u, inace bi set sadrzavao samo jedan modul
+    private CourseModule module(int sequenceNumber) {
+        CourseModule module = new CourseModule(
+                UUID.randomUUID(),
+                null,
+                "Module " + sequenceNumber,
+                "Module description " + sequenceNumber,
+                sequenceNumber,
+                Duration.ofMinutes(15 + sequenceNumber),
+                sequenceNumber % 4 == 0 ? ModuleStatus.COMPLETED : ModuleStatus.DRAFT,
+                new HashSet<>());
+        module.setDifficultyLevel(DifficultyLevel.values()[sequenceNumber % DifficultyLevel.values().length]);
+        return module;
+    }
+}
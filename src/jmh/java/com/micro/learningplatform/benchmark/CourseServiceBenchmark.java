@@ -0,0 +1,104 @@
+package com.micro.learningplatform.benchmark;
+
+import com.micro.learningplatform.models.dto.CursorPage;
+import com.micro.learningplatform.models.dto.courses.CourseResponse;
+import com.micro.learningplatform.models.dto.courses.CourseResponseWithModules;
+import com.micro.learningplatform.models.dto.courses.CourseSearchResult;
+import com.micro.learningplatform.repositories.CourseSearchCriteria;
+import com.micro.learningplatform.services.CourseServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/* Benchmarki za read/search hot pathove CourseServiceImpl-a
+ * -> getCourse, getCourseWithModules, fullTextSearch (prva keyset stranica) i standardni search (LIKE)
+ * -> mjeri se put do baze (bez @Cacheable), svaki poziv u svojoj read-only transakciji kao i u servisu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CourseServiceBenchmark {
+
+    @Param("1000")
+    int courseCount;
+
+    @Param("10")
+    int modulesPerCourse;
+
+    private CourseServiceImpl courseService;
+    private TransactionTemplate transaction;
+    private List<UUID> courseIds;
+    private CourseSearchCriteria standardCriteria;
+    private final Pageable firstPage = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkContext.start(courseCount, modulesPerCourse);
+        courseService = BenchmarkContext.uncachedCourseService();
+        transaction = BenchmarkContext.readOnlyTransaction();
+        courseIds = BenchmarkContext.courseIds();
+
+        standardCriteria = CourseSearchCriteria.builder()
+                .searchTerm(BenchmarkContext.SEARCH_TERM)
+                .searchType(CourseSearchCriteria.SearchType.BASIC)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.stop();
+    }
+
+    // svaka dretva ima svoj kursor kroz seedane id-eve da ne mjerimo uvijek isti red
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        UUID next(List<UUID> ids) {
+            position = (position + 1) % ids.size();
+            return ids.get(position);
+        }
+    }
+
+    @Benchmark
+    public CourseResponse getCourse(Cursor cursor) {
+        UUID courseId = cursor.next(courseIds);
+        return transaction.execute(status -> courseService.getCourse(courseId));
+    }
+
+    @Benchmark
+    public CourseResponseWithModules getCourseWithModules(Cursor cursor) {
+        UUID courseId = cursor.next(courseIds);
+        return transaction.execute(status -> courseService.getCourseWithModules(courseId));
+    }
+
+    @Benchmark
+    public CursorPage<CourseSearchResult> searchFullText() {
+        return transaction.execute(status -> {
+            try {
+                return courseService.fullTextSearch(BenchmarkContext.SEARCH_TERM, null, firstPage.getPageSize());
+            } catch (Exception e) {
+                throw new IllegalStateException("Full-text search benchmark failed", e);
+            }
+        });
+    }
+
+    @Benchmark
+    public Page<?> searchStandard() {
+        return transaction.execute(status -> search(standardCriteria));
+    }
+
+    private Page<?> search(CourseSearchCriteria criteria) {
+        try {
+            return courseService.search(criteria, firstPage);
+        } catch (Exception e) {
+            throw new IllegalStateException("Search benchmark failed", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.micro.learningplatform.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.micro.learningplatform.event.DomainEvent;
+import com.micro.learningplatform.event.codec.EventCodec;
+import com.micro.learningplatform.event.codec.EventFormat;
+import com.micro.learningplatform.event.codec.JacksonEventCodec;
+import com.micro.learningplatform.event.course.CourseCreatedEvent;
+import com.micro.learningplatform.event.course.CourseModuleAddedEvent;
+import com.micro.learningplatform.event.course.CourseStatusChangedEvent;
+import com.micro.learningplatform.event.module.ModuleContentUpdatedEvent;
+import com.micro.learningplatform.event.module.ModuleStatusChangedEvent;
+import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.models.ModuleStatus;
+import com.micro.learningplatform.models.dto.module.ModuleData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/* Kodiranje domenskih dogadaja za outbox/kafku, bez baze
+ * -> legacyJsonString je stari put: writeValueAsString pa StringSerializer (String -> UTF-8 bajtovi)
+ * -> encode/decode mjere EventCodec za zadani format nad mjesavinom course i module dogadaja
+ * -> velicina payloada ide u rezultate kao sekundarni rezultat (PayloadSize, @AuxCounters) uz gc.alloc.rate.norm;
+ *    prosjek po dogadaju je payloadBytes / payloadEvents (samo thrpt, sample nacin aux brojace ne biljezi)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventCodecBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    EventFormat format;
+
+    private ObjectMapper objectMapper;
+    private EventCodec codec;
+    private List<DomainEvent> events;
+    private List<byte[]> encoded;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // isti mapper kao spring boot (JavaTimeModule, ISO datumi)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        codec = format == EventFormat.SMILE ? JacksonEventCodec.smile(objectMapper) : JacksonEventCodec.json(objectMapper);
+
+        UUID courseId = UUID.randomUUID();
+        UUID moduleId = UUID.randomUUID();
+        events = List.of(
+                new CourseCreatedEvent(courseId),
+                new CourseModuleAddedEvent(courseId, moduleId),
+                new CourseStatusChangedEvent(courseId, CourseStatus.DRAFT, CourseStatus.PUBLISHED),
+                new ModuleStatusChangedEvent(moduleId, ModuleStatus.DRAFT, ModuleStatus.PUBLISHED),
+                new ModuleContentUpdatedEvent(moduleId,
+                        new ModuleData("Indexes", "B-tree and GIN indexes in PostgreSQL", Duration.ofMinutes(45)),
+                        new ModuleData("Indexes and plans", "B-tree, GIN and reading EXPLAIN output", Duration.ofMinutes(60)))
+        );
+
+        encoded = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            encoded.add(codec.encode(event));
+        }
+    }
+
+    @Benchmark
+    public byte[] legacyJsonString(PayloadSize size) throws IOException {
+        return size.record(objectMapper.writeValueAsString(nextEvent()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize size) throws IOException {
+        return size.record(codec.encode(nextEvent()));
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        int index = nextIndex();
+        return codec.decode(encoded.get(index), events.get(index).getClass());
+    }
+
+    @Benchmark
+    public Object decodeTree() throws IOException {
+        return codec.decodeTree(encoded.get(nextIndex()));
+    }
+
+    // javna polja JMH prijavljuje kao zbroj po iteraciji
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+        public long payloadEvents;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+            payloadEvents = 0;
+        }
+
+        byte[] record(byte[] payload) {
+            payloadBytes += payload.length;
+            payloadEvents++;
+            return payload;
+        }
+    }
+
+    private DomainEvent nextEvent() {
+        return events.get(nextIndex());
+    }
+
+    private int nextIndex() {
+        next = next + 1 == events.size() ? 0 : next + 1;
+        return next;
+    }
+}
@@ -0,0 +1,60 @@
+package com.micro.learningplatform.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micro.learningplatform.cache.MonitoredCache;
+import com.micro.learningplatform.services.CacheMetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/* Trosak instrumentacije po citanju iz kesa
+ * -> raw* je goli CaffeineCache, monitored* isti kes kroz MonitoredCache
+ * -> s gc profilerom gc.alloc.rate.norm za monitoredTypedHit treba biti ~0 B/op
+ *    (get(key) vraca ValueWrapper koji alocira sam Spring CaffeineCache, ne instrumentacija)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MonitoredCacheBenchmark {
+
+    private Cache raw;
+    private Cache monitored;
+    private final UUID presentKey = UUID.randomUUID();
+    private final UUID missingKey = UUID.randomUUID();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        raw = new CaffeineCache("courses", Caffeine.newBuilder().maximumSize(1_000).build());
+        raw.put(presentKey, "cached-course");
+        monitored = new MonitoredCache(raw, "courses", new CacheMetricsService(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public Object rawTypedHit() {
+        return raw.get(presentKey, String.class);
+    }
+
+    @Benchmark
+    public Object monitoredTypedHit() {
+        return monitored.get(presentKey, String.class);
+    }
+
+    @Benchmark
+    public Object monitoredTypedMiss() {
+        return monitored.get(missingKey, String.class);
+    }
+
+    @Benchmark
+    public Object rawWrapperHit() {
+        return raw.get(presentKey);
+    }
+
+    @Benchmark
+    public Object monitoredWrapperHit() {
+        return monitored.get(presentKey);
+    }
+}
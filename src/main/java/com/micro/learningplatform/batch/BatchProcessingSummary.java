@@ -3,8 +3,8 @@ package com.micro.learningplatform.batch;
 import java.time.Duration;
 
 public record BatchProcessingSummary(
-        int successCount,
-        int failureCount,
+        long successCount,
+        long failureCount,
         Duration duration,
         double successRate,
         int errorCount
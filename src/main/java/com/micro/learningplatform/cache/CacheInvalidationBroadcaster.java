@@ -0,0 +1,106 @@
+package com.micro.learningplatform.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class CacheInvalidationBroadcaster implements MessageListener {
+
+    /* Sinkronizira L1 (Caffeine) keseve izmedu nodova preko redis pub/sub kanala
+     * 1. TwoLevelCache nakon evict/clear objavi poruku na kanal
+     * 2. svaki node (osim posiljatelja) evicta isti kljuc iz svog L1
+     *  -> L2 (redis) je zajednicki pa ga ne diramo ovdje
+     * 3. lokalni kesevi koji nisu spring Cache (AuthenticationCache) registriraju vlastiti handler za evict kljuca
+     */
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Consumer<CacheInvalidationMessage>> localCaches = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TwoLevelCacheProperties properties;
+    private final Counter published;
+    private final Counter received;
+
+    public CacheInvalidationBroadcaster(StringRedisTemplate redisTemplate,
+                                        ObjectMapper objectMapper,
+                                        TwoLevelCacheProperties properties,
+                                        MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.published = meterRegistry.counter("cache.invalidation", "direction", "published");
+        this.received = meterRegistry.counter("cache.invalidation", "direction", "received");
+    }
+
+    public void registerLocalCache(String cacheName, Cache localCache) {
+        localCaches.put(cacheName, invalidation -> {
+            if (invalidation.isClear()) {
+                localCache.clear();
+            } else {
+                localCache.evict(invalidation.key());
+            }
+        });
+    }
+
+    // clear se za ovakve keseve ne salje, handler dobiva samo kljuc
+    public void registerEvictionHandler(String cacheName, Consumer<String> evictKey) {
+        localCaches.put(cacheName, invalidation -> {
+            if (!invalidation.isClear()) {
+                evictKey.accept(invalidation.key());
+            }
+        });
+    }
+
+    public void broadcastEvict(String cacheName, String key) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    }
+
+    public void broadcastClear(String cacheName) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, null));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), CacheInvalidationMessage.class);
+            if (nodeId.equals(invalidation.nodeId())) {
+                return;
+            }
+            Consumer<CacheInvalidationMessage> localCache = localCaches.get(invalidation.cacheName());
+            if (localCache == null) {
+                return;
+            }
+            localCache.accept(invalidation);
+            received.increment();
+            log.debug("Applied remote cache invalidation: {}", invalidation);
+        } catch (Exception e) {
+            log.error("Failed to apply cache invalidation message", e);
+        }
+    }
+
+    private void publish(CacheInvalidationMessage invalidation) {
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(),
+                    objectMapper.writeValueAsString(invalidation));
+            published.increment();
+        } catch (Exception e) {
+            // lokalni L1 je vec evictan, ostali nodovi ce se uskladiti kroz L1 TTL
+            log.error("Failed to broadcast cache invalidation {}", invalidation, e);
+        }
+    }
+}
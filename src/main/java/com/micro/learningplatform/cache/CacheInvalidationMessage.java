@@ -0,0 +1,15 @@
+package com.micro.learningplatform.cache;
+
+/* Poruka koja se salje preko redis pub/sub kanala kad se evicta kljuc iz dvorazinskog kesa
+ * -> nodeId da posiljatelj ignorira vlastitu poruku
+ * -> key == null znaci clear cijelog kesa
+ */
+public record CacheInvalidationMessage(
+        String nodeId,
+        String cacheName,
+        String key
+) {
+    public boolean isClear() {
+        return key == null;
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -31,6 +32,14 @@ public class CaffeineCacheConfigurationHelper {
         return cacheManager;
     }
 
+    // L1 razina dvorazinskog kesa, ne registrira se u CaffeineCacheManager nego ga drzi TwoLevelCache
+    public CaffeineCache createLocalTierCache(String name, long maxSize, Duration ttl) {
+        CacheSpec spec = CacheSpec.builder().name(name).maxSize(maxSize).expireAfterWrite(ttl).build();
+        Cache<Object, Object> nativeCache = configureCacheBuilder(spec).build();
+        registerCacheMetrics(name, nativeCache);
+        return new CaffeineCache(name, nativeCache);
+    }
+
     private Map<String, Caffeine<Object, Object>> configureCaffeineCacheStrategies() {
         Map<String, Caffeine<Object, Object>> cacheBuilders = new HashMap<>();
         for (CacheStrategy strategy : CacheStrategy.values()) {
@@ -9,9 +9,9 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 
 /* Klasa koja se baci pracenjem kesiranja
- * 1. dodao sam klasu monitorCacheOperation za dupiciranje get metoda sada korsite zajednickiu pomocnu metodu
- *    te pojednostavnio implementaciju s tim pomocnom metodom
- *  2. centralizirao hit i miss ogadaje
+ * 1. hit/miss se biljezi direktno na CacheMeters handle koji dohvatimo jednom u konstruktoru
+ *    -> get metode ne alociraju (nema CacheEvent-a, lambdi ni lookup-a countera po imenu)
+ *  2. put/evict su rijetki pa i dalje idu kroz CacheEvent i centralni recordCacheEvent
  */
 
 public class MonitoredCache implements Cache {
@@ -19,6 +19,7 @@ public class MonitoredCache implements Cache {
     private final Cache delegate;
     private final String name;
     private final CacheMetricsService metricsService;
+    private final CacheMetricsService.CacheMeters meters;
 
     public MonitoredCache(
             Cache delegate,
@@ -27,6 +28,7 @@ public class MonitoredCache implements Cache {
         this.delegate = delegate;
         this.name = name;
         this.metricsService = metricsService;
+        this.meters = metricsService.metersFor(name);
     }
 
 
@@ -42,20 +44,17 @@ public class MonitoredCache implements Cache {
 
     @Override
     public ValueWrapper get(Object key) {
-        return monitorCacheOperation(() -> delegate.get(key), key, CacheEvent.CacheEventType.HIT, CacheEvent.CacheEventType.MISS);
-
+        return record(delegate.get(key));
     }
 
     @Override
     public <T> T get(Object key, Class<T> type) {
-        return monitorCacheOperation(() -> delegate.get(key, type), key, CacheEvent.CacheEventType.HIT, CacheEvent.CacheEventType.MISS);
-
+        return record(delegate.get(key, type));
     }
 
     @Override
     public <T> T get(Object key, Callable<T> valueLoader) {
-        return monitorCacheOperation(() -> delegate.get(key, valueLoader), key, CacheEvent.CacheEventType.HIT, CacheEvent.CacheEventType.MISS);
-
+        return record(delegate.get(key, valueLoader));
     }
 
     @Override
@@ -80,16 +79,13 @@ public class MonitoredCache implements Cache {
     }
 
     // Centraliziran metoda za biljezenje hit i miss-a smanjuje dupliciranje get metoda
-    private <T> T monitorCacheOperation(Callable<T> operation, Object key, CacheEvent.CacheEventType hitType, CacheEvent.CacheEventType missType) {
-        try {
-            T result = operation.call();
-            CacheEvent.CacheEventType eventType = (result != null) ? hitType : missType;
-            metricsService.recordCacheEvent(new CacheEvent(name, key, eventType, Optional.empty()));
-            return result;
-        } catch (Exception e) {
-            log.error("Cache operation failed for cache={}, key={}", name, key, e);
-            throw new RuntimeException(e);
+    private <T> T record(T result) {
+        if (result != null) {
+            meters.hit();
+        } else {
+            meters.miss();
         }
+        return result;
     }
 
 
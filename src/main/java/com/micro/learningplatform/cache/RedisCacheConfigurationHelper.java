@@ -1,7 +1,12 @@
 package com.micro.learningplatform.cache;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +35,8 @@ public class RedisCacheConfigurationHelper {
     /* Ova klas je zaduznea samo za redis configruaciju
      */
 
+    private static final String APPLICATION_PACKAGE = "com.micro.learningplatform.";
+
     private final RedisConnectionFactory redisConnectionFactory;
     private final MeterRegistry meterRegistry;
 
@@ -69,10 +76,37 @@ public class RedisCacheConfigurationHelper {
         return cacheConfigs;
     }
 
+    /* Type info (@class) zapisujemo uz vrijednost jer inace L2 pogodak vrati LinkedHashMap umjesto DTO-a
+     * -> NON_FINAL + nasi final tipovi (DTO recordi); EVERYTHING bi type info pisao i za String, Long, ...
+     * -> validator dopusta samo nase klase i osnovne java.util / java.time tipove, pa @class iz redisa
+     *    ne moze instancirati proizvoljnu klasu (gadget deserijalizacija)
+     * -> org.springframework.data.domain zbog kesiranog Page rezultata pretrage
+     */
     private RedisSerializer<Object> createJsonSerializer() {
         ObjectMapper objectMapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        PolymorphicTypeValidator validator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType(APPLICATION_PACKAGE)
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("org.springframework.data.domain.")
+                .allowIfSubTypeIsArray()
+                .build();
+
+        TypeResolverBuilder<?> typing = new ObjectMapper.DefaultTypeResolverBuilder(
+                ObjectMapper.DefaultTyping.NON_FINAL, validator) {
+            @Override
+            public boolean useForType(JavaType type) {
+                return super.useForType(type)
+                        || (!type.isPrimitive() && !type.isEnumType()
+                        && type.getRawClass().getName().startsWith(APPLICATION_PACKAGE));
+            }
+        }
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY);
+        objectMapper.setDefaultTyping(typing);
         return new GenericJackson2JsonRedisSerializer(objectMapper);
     }
 
@@ -1,10 +1,14 @@
 package com.micro.learningplatform.cache;
 
+import com.micro.learningplatform.search.SearchIndexBroadcaster;
+import com.micro.learningplatform.search.SearchIndexProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -25,4 +29,28 @@ public class RedisConfiguration {
         return template;
     }
 
+    // pub/sub kontejner preko kojeg nodovi primaju invalidacije za L1 (Caffeine) razinu
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheInvalidationBroadcaster broadcaster,
+            TwoLevelCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(broadcaster, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    // isti obrazac za lokalni Lucene indeks: importi i rebuild s drugih nodova
+    @Bean
+    public RedisMessageListenerContainer searchIndexListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            SearchIndexBroadcaster broadcaster,
+            SearchIndexProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(broadcaster, new ChannelTopic(properties.getBroadcastChannel()));
+        return container;
+    }
+
 }
@@ -0,0 +1,126 @@
+package com.micro.learningplatform.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/* Dvorazinski (near) kes
+ * -> citanje: Caffeine L1 -> Redis L2 -> baza (kroz @Cacheable), L2 pogodak puni L1
+ * -> pisanje: L2 pa L1, evict/clear brise oba i javlja ostalim nodovima preko pub/sub kanala
+ * -> L1 kljuceve drzimo kao String jer kroz pub/sub kanal ionako dobivamo String kljuc
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache local;
+    private final Cache remote;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+
+    public TwoLevelCache(String name, Cache local, Cache remote,
+                         CacheInvalidationBroadcaster broadcaster, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.broadcaster = broadcaster;
+        // countere razrjesavamo jednom, ne na svakom citanju
+        this.localHits = meterRegistry.counter("cache.tier.hit", "cache", name, "tier", "l1");
+        this.remoteHits = meterRegistry.counter("cache.tier.hit", "cache", name, "tier", "l2");
+        this.misses = meterRegistry.counter("cache.tier.miss", "cache", name);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper value = local.get(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+
+        value = remote.get(key);
+        if (value != null) {
+            remoteHits.increment();
+            local.put(localKey, value.get());
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object stored = value != null ? value.get() : null;
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Caffeine garantira da se loader za isti kljuc izvrsi samo jednom na ovom nodu
+        return local.get(localKey(key), () -> {
+            ValueWrapper remoteValue = remote.get(key);
+            if (remoteValue != null) {
+                remoteHits.increment();
+                return (T) remoteValue.get();
+            }
+            misses.increment();
+            T loaded = valueLoader.call();
+            remote.put(key, loaded);
+            return loaded;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(localKey(key), value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        Object effective = existing != null ? existing.get() : value;
+        local.put(localKey(key), effective);
+        return existing != null ? new SimpleValueWrapper(effective) : null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        remote.evict(key);
+        local.evict(localKey);
+        broadcaster.broadcastEvict(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.clear();
+        broadcaster.broadcastClear(name);
+    }
+
+    private String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,59 @@
+package com.micro.learningplatform.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/* CacheManager za dvorazinske keseve
+ * -> vraca TwoLevelCache samo za konfigurirana imena (app.cache.two-level.cache-names)
+ * -> za sve ostale vraca null pa CompositeCacheManager pada na sljedeci manager
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final List<String> cacheNames;
+    private final Function<String, Cache> localCacheFactory;
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(List<String> cacheNames,
+                                Function<String, Cache> localCacheFactory,
+                                CacheManager remoteCacheManager,
+                                CacheInvalidationBroadcaster broadcaster,
+                                MeterRegistry meterRegistry) {
+        this.cacheNames = List.copyOf(cacheNames);
+        this.localCacheFactory = localCacheFactory;
+        this.remoteCacheManager = remoteCacheManager;
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(String name) {
+        if (!cacheNames.contains(name)) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return cacheNames;
+    }
+
+    private Cache createCache(String name) {
+        Cache local = localCacheFactory.apply(name);
+        Cache remote = remoteCacheManager.getCache(name);
+        broadcaster.registerLocalCache(name, local);
+        return new TwoLevelCache(name, local, remote, broadcaster, meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.micro.learningplatform.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.two-level")
+@Getter
+@Setter
+public class TwoLevelCacheProperties {
+
+    // kesevi koji idu kroz Caffeine L1 -> Redis L2, ostali ostaju samo lokalni
+    private List<String> cacheNames = List.of("courses", "coursesWithModules");
+    private long localMaxSize = 10_000;
+    // L1 TTL je kraci od redis TTL-a, sigurnosna mreza ako se izgubi pub/sub poruka
+    private Duration localTtl = Duration.ofMinutes(5);
+    private String invalidationChannel = "learning-platform:cache-invalidation";
+}
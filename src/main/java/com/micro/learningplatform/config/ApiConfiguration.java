@@ -2,6 +2,7 @@ package com.micro.learningplatform.config;
 
 import com.micro.learningplatform.interceptors.ApiVersionIntreceptop;
 import com.micro.learningplatform.interceptors.RateLimitInterceptor;
+import com.micro.learningplatform.interceptors.StatementProfileInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
@@ -16,6 +17,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class ApiConfiguration implements WebMvcConfigurer {
 
     private final RateLimitInterceptor rateLimitInterceptor;
+    private final StatementProfileInterceptor statementProfileInterceptor;
 
     /*
      Konfiguracija za osnovne postavke api-a centralizira postavke i olaksava njihovu izmjenu
@@ -33,6 +35,9 @@ public class ApiConfiguration implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // prvi, da se profil zatvori i kad kasniji presretac odbije zahtjev
+        registry.addInterceptor(statementProfileInterceptor);
+
         // Dodajemo presretač za verzioniranje
         registry.addInterceptor(new ApiVersionIntreceptop());
 
@@ -1,42 +1,80 @@
 package com.micro.learningplatform.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 public class AsyncConfig implements AsyncConfigurer {
 
-    /* Koristim paralelno izvrsavanje sto poboljsava performance
-
-
+    /* Svaki workload ima svoj executor (WorkloadExecutor) s ogranicenom konkurentnoscu i metrikama
+     * -> prije su svi @Async listeneri dijelili jedan ThreadPoolTaskExecutor (core 1, queue 100),
+     *    a JwtAuthenticationFilter je drzao vlastiti neupravljani executor
+     * -> @Async bez imena ide na eventExecutor, ostali se biraju imenom (@Async("notificationExecutor"))
+     *    ili injektiranjem po imenu beana
+     * -> gasenje: spring zove close() koji ceka da zapoceti zadaci zavrse (app.executors.shutdown-timeout)
      */
 
+    private final ExecutorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
     public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(1);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("AsyncThread-");
-        executor.initialize();
-        return executor;
+        return eventExecutor();
     }
 
+    @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
     }
 
-    @Bean(destroyMethod = "shutdown")
+    @Bean(destroyMethod = "close")
+    public ExecutorService eventExecutor() {
+        return workload("events", properties.getEvents());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService notificationExecutor() {
+        return workload("notifications", properties.getNotifications());
+    }
+
+    @Bean(destroyMethod = "close")
     public ExecutorService tokenValidationExecutorService() {
-        return Executors.newVirtualThreadPerTaskExecutor();
+        return workload("token-validation", properties.getTokenValidation());
+    }
+
+    // paralelni batch chunkovi, broj chunkova u letu ogranicava BatchProcessorService (app.batch.parallelism)
+    @Bean(destroyMethod = "close")
+    public ExecutorService batchProcessingExecutorService() {
+        return workload("batch", properties.getBatch());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService eventConsumerExecutor() {
+        return workload("event-consumers", properties.getEventConsumers());
+    }
+
+    /* DLQ replay (DeadLetterReplayService) ima vlastiti executor s jednim mjestom
+     * -> replay vecinu vremena ceka u token bucketu i na potvrde brokera, na batch executoru bi drzao
+     *    permit koji trebaju chunkovi BatchProcessorService-a
+     * -> istovremeno radi najvise jedan replay, pa nema smisla da bude konfigurabilan
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService dlqReplayExecutor() {
+        return workload("dlq-replay", new ExecutorProperties.Workload(1, 1));
+    }
+
+    private ExecutorService workload(String name, ExecutorProperties.Workload workload) {
+        return new WorkloadExecutor(name, workload, properties.getShutdownTimeout(), meterRegistry);
     }
 }
@@ -3,6 +3,7 @@ package com.micro.learningplatform.config;
 import com.micro.learningplatform.cache.*;
 import com.micro.learningplatform.services.CacheMetricsService;
 import com.micro.learningplatform.shared.analiza.MonitoredCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
@@ -11,6 +12,7 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.support.CompositeCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheManager;
 
 
 @Configuration
@@ -27,16 +29,25 @@ public class CentralizdCacheConfiguration implements CachingConfigurer {
     private final RedisCacheConfigurationHelper redisHelper;
     private final CaffeineCacheConfigurationHelper caffeineHelper;
     private final CacheMetricsService cacheMetricsService;
+    private final CacheInvalidationBroadcaster invalidationBroadcaster;
+    private final TwoLevelCacheProperties twoLevelProperties;
+    private final MeterRegistry meterRegistry;
 
 
     // kompozitni manager koji pravlja lokalnim i distributivnim kesom
     @Override
     @Bean
     public CacheManager cacheManager() {
-        // Kreiramo CompositeCacheManager koji podržava i Redis i Caffeine
+        RedisCacheManager redisCacheManager = redisHelper.createRedisCacheManager();
+
+        /* Redoslijed je bitan, composite vraca kes od prvog managera koji ga poznaje
+         * 1. dvorazinski (Caffeine L1 -> Redis L2) za vruce keseve (courses, coursesWithModules)
+         * 2. lokalni Caffeine (dinamicki, poznaje svako ime) za sve ostalo
+         */
         CompositeCacheManager compositeCacheManager = new CompositeCacheManager(
+                createMonitoredCacheManager(createTwoLevelCacheManager(redisCacheManager)),
                 createMonitoredCacheManager(caffeineHelper.createCaffeineCacheManager()),
-                createMonitoredCacheManager(redisHelper.createRedisCacheManager())
+                createMonitoredCacheManager(redisCacheManager)
         );
 
         // Fallback opcija ako cache nije dostupan
@@ -45,6 +56,17 @@ public class CentralizdCacheConfiguration implements CachingConfigurer {
 
     }
 
+    private CacheManager createTwoLevelCacheManager(RedisCacheManager redisCacheManager) {
+        return new TwoLevelCacheManager(
+                twoLevelProperties.getCacheNames(),
+                name -> caffeineHelper.createLocalTierCache(
+                        name, twoLevelProperties.getLocalMaxSize(), twoLevelProperties.getLocalTtl()),
+                redisCacheManager,
+                invalidationBroadcaster,
+                meterRegistry
+        );
+    }
+
     private CacheManager createMonitoredCacheManager(CacheManager cacheManager) {
         return new MonitoredCacheManager(cacheManager, cacheMetricsService);
     }
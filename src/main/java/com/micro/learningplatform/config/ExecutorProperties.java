@@ -0,0 +1,38 @@
+package com.micro.learningplatform.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.executors")
+@Getter
+@Setter
+public class ExecutorProperties {
+
+    // koliko dugo pri gasenju cekamo da zapoceti i cekajuci zadaci zavrse prije prekida
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    private Workload events = new Workload(64, 10_000);
+    private Workload notifications = new Workload(16, 1_000);
+    private Workload tokenValidation = new Workload(256, 2_000);
+    private Workload batch = new Workload(16, 1_000);
+    // obrada course-events po kljucu, jedan zadatak po aktivnom kljucu (KeyOrderedCourseEventConsumer)
+    private Workload eventConsumers = new Workload(256, 20_000);
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Workload {
+        // najvise zadataka koji se izvrsavaju istovremeno
+        private int maxConcurrency;
+        // najvise zadataka koji cekaju slobodno mjesto, preko toga se zadatak odbija
+        private int maxQueued;
+    }
+}
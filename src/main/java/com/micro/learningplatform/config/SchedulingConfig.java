@@ -0,0 +1,13 @@
+package com.micro.learningplatform.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /* Ukljucuje @Scheduled poslove (outbox relay, particije...)
+     * bez ovoga se @Scheduled metode nikad ne pokrenu
+     */
+}
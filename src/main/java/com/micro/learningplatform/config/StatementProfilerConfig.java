@@ -0,0 +1,44 @@
+package com.micro.learningplatform.config;
+
+import com.micro.learningplatform.shared.performace.ProfilingJdbcProxyFactory;
+import com.micro.learningplatform.shared.performace.StatementProfiler;
+import com.micro.learningplatform.shared.performace.StatementProfilingListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.profiler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StatementProfilerConfig {
+
+    /* Omata aplikacijski DataSource (hikari) u datasource-proxy, sve JDBC naredbe prolaze kroz StatementProfilingListener
+     * -> BeanPostProcessor je static da ne povlaci ostatak konfiguracije u rano stvaranje
+     * -> profiler se dohvaca lijeno, tek kad se DataSource stvori
+     * -> nema method listenera; ResultSet se omata samo za profilirane naredbe (ProfilingJdbcProxyFactory)
+     */
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<StatementProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    StatementProfiler statementProfiler = profiler.getObject();
+                    StatementProfilingListener listener = new StatementProfilingListener(statementProfiler);
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener)
+                            .jdbcProxyFactory(new ProfilingJdbcProxyFactory(listener, statementProfiler))
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package com.micro.learningplatform.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Executor jednog workloada (dogadaji, notifikacije, validacija tokena, batch) nad virtualnim threadovima
+ * -> svaki zadatak dobiva svoj imenovani virtualni thread, a semafor ogranicava koliko ih radi istovremeno
+ *    -> cekanje na semafor blokira samo virtualni thread, carrier threadovi ostaju slobodni
+ * -> broj cekajucih je ogranicen (maxQueued), preko toga odbijamo zadatak umjesto neogranicenog rasta
+ * -> odvojeni executori znace da nalet dogadaja ne moze izgladnjeti notifikacije ili provjeru tokena
+ * -> metrike po workloadu: cekajuci, aktivni, vrijeme cekanja, vrijeme izvrsavanja, odbijeni
+ */
+@Slf4j
+public class WorkloadExecutor extends AbstractExecutorService {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final Duration shutdownTimeout;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+    private final Counter rejected;
+
+    public WorkloadExecutor(String name,
+                            ExecutorProperties.Workload workload,
+                            Duration shutdownTimeout,
+                            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        this.permits = new Semaphore(workload.getMaxConcurrency());
+        this.maxQueued = workload.getMaxQueued();
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("executor.workload.queued", queued, AtomicInteger::get)
+                .tag("workload", name).register(meterRegistry);
+        Gauge.builder("executor.workload.active", active, AtomicInteger::get)
+                .tag("workload", name).register(meterRegistry);
+        this.waitTimer = Timer.builder("executor.workload.wait").tag("workload", name).register(meterRegistry);
+        this.executionTimer = Timer.builder("executor.workload.execution").tag("workload", name).register(meterRegistry);
+        this.rejected = Counter.builder("executor.workload.rejected").tag("workload", name).register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException("Executor " + name + " has " + maxQueued + " tasks waiting");
+        }
+        long submittedAt = System.nanoTime();
+        try {
+            delegate.execute(() -> run(task, submittedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task, long submittedAt) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // prekinut prije pocetka (shutdownNow): zadatak se ne izvrsava, ali submit() future mora zavrsiti
+            // inace bi pozivatelj u get() cekao do svog timeouta
+            queued.decrementAndGet();
+            rejected.increment();
+            if (task instanceof Future<?> future) {
+                future.cancel(false);
+            }
+            Thread.currentThread().interrupt();
+            return;
+        }
+        queued.decrementAndGet();
+        waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        active.incrementAndGet();
+        try {
+            executionTimer.record(task);
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    // spring ga zove pri gasenju konteksta: nove zadatke odbijamo, postojece pustamo da zavrse do shutdownTimeout
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            if (!awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                List<Runnable> dropped = shutdownNow();
+                log.warn("Executor {} did not drain within {}, interrupted running tasks ({} not started)",
+                        name, shutdownTimeout, dropped.size());
+            }
+        } catch (InterruptedException e) {
+            shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "WorkloadExecutor[" + name + ", queued=" + queued.get() + ", active=" + active.get() + "]";
+    }
+}
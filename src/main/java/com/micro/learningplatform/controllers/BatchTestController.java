@@ -23,7 +23,16 @@ public class BatchTestController {
 
     @PostMapping("/process")
     public BatchProcessingResult processBatch(@RequestBody BatchRequest request) throws BatchProcessingException {
-        BatchProcessor<Object> processor = batch -> {
+        return batchProcessorService.processBatch(request.getItems(), testProcessor(), testOptions(request));
+    }
+
+    @PostMapping("/process-parallel")
+    public BatchProcessingResult processBatchParallel(@RequestBody BatchRequest request) throws BatchProcessingException {
+        return batchProcessorService.processBatchParallel(request.getItems(), testProcessor(), testOptions(request));
+    }
+
+    private BatchProcessor<Object> testProcessor() {
+        return batch -> {
             for (Object item : batch) {
                 if (item.toString().equalsIgnoreCase("errorItem")) {
                     throw new RuntimeException("Error processing item: " + item);
@@ -31,15 +40,16 @@ public class BatchTestController {
                 System.out.println("Processed item: " + item);
             }
         };
+    }
 
-        BatchProcessorService.BatchProcessingOptions options = BatchProcessorService.BatchProcessingOptions.builder()
+    private BatchProcessorService.BatchProcessingOptions testOptions(BatchRequest request) {
+        return BatchProcessorService.BatchProcessingOptions.builder()
                 .batchSize(request.getBatchSize())
+                .parallelism(request.getParallelism())
                 .clearEntityManagerAfterBatch(false)
                 .progressInterval(2)
                 .retryPolicy(BatchProcessorService.RetryPolicy.getDefault())
                 .build();
-
-        return batchProcessorService.processBatch(request.getItems(), processor, options);
     }
 
 
@@ -48,6 +58,7 @@ public class BatchTestController {
     public static class BatchRequest<T> {
         private List<T> items;
         private int batchSize;
+        private Integer parallelism;
         private BatchProcessor<T> processor;
 
     }
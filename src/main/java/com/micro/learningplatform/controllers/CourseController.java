@@ -1,14 +1,22 @@
 package com.micro.learningplatform.controllers;
 
 import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.models.EntityCategory;
+import com.micro.learningplatform.models.StatisticsResolution;
 import com.micro.learningplatform.models.dto.*;
+import com.micro.learningplatform.models.dto.coursestatistic.StatisticsSeries;
 import com.micro.learningplatform.models.dto.courses.*;
 import com.micro.learningplatform.models.dto.module.CreateModuleRequest;
 import com.micro.learningplatform.repositories.CourseSearchCriteria;
+import com.micro.learningplatform.search.CourseIndexer;
+import com.micro.learningplatform.search.CourseSearchIndexService;
+import com.micro.learningplatform.search.SearchIndexBroadcaster;
+import com.micro.learningplatform.services.CourseImportService;
 import com.micro.learningplatform.services.CourseServiceImpl;
 import com.micro.learningplatform.shared.exceptions.RepositoryException;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -18,11 +26,14 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.context.annotation.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.security.InvalidParameterException;
 import java.time.LocalDateTime;
@@ -38,6 +49,10 @@ public class CourseController {
 
     private static final Logger log = LogManager.getLogger(CourseController.class);
     private final CourseServiceImpl courseService;
+    private final CourseImportService courseImportService;
+    private final CourseSearchIndexService courseSearchIndexService;
+    private final CourseIndexer courseIndexer;
+    private final SearchIndexBroadcaster searchIndexBroadcaster;
 
     // radi sve ispravno
     @PostMapping
@@ -65,14 +80,21 @@ public class CourseController {
         return ResponseEntity.ok(courseService.publishCourse(id));
     }
 
+    /* Ako je poslan "cursor" parametar (i prazan za prvu stranicu) koristi se keyset paginacija
+     * -> vraca CursorPage s nextCursor tokenom i bez COUNT upita
+     * -> bez cursora ostaje postojeca OFFSET paginacija preko Pageable
+     * -> FULL_TEXT je uvijek keyset po relevantnosti, s ts_headline isjeckom za svaki rezultat
+     */
     @GetMapping("/search")
-    public ResponseEntity<Page<?>> searchCourses(
+    public ResponseEntity<?> searchCourses(
             @RequestParam(required = false) String searchTerm,
             @RequestParam(required = false) CourseStatus status,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Integer minDuration,
             @RequestParam(required = false) Integer maxDuration,
             @RequestParam(required = false) CourseSearchCriteria.SearchType searchType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
             Pageable pageable
     ) throws RepositoryException {
         CourseSearchCriteria criteria = CourseSearchCriteria.builder()
@@ -84,6 +106,12 @@ public class CourseController {
                 .searchType(searchType)
                 .build();
 
+        if (CourseSearchCriteria.SearchType.FULL_TEXT.equals(searchType)) {
+            return ResponseEntity.ok(courseService.fullTextSearch(searchTerm, cursor, size));
+        }
+        if (cursor != null) {
+            return ResponseEntity.ok(courseService.searchAfter(criteria, cursor, size));
+        }
         return ResponseEntity.ok(courseService.search(criteria, pageable));
     }
 
@@ -121,18 +149,23 @@ public class CourseController {
 
     // radi
     @GetMapping("/by-status/{status}")
-    public ResponseEntity<Page<CourseResponse>> getCoursesByStatus(
+    public ResponseEntity<?> getCoursesByStatus(
             @Parameter(description = "Course status draft or published")
             @PathVariable @NotNull(message = "Status cannot be null") String status,
-            @RequestParam @Min(value = 0, message = "Page number cannot be negative.") int page,
+            @RequestParam(defaultValue = "0") @Min(value = 0, message = "Page number cannot be negative.") int page,
             @RequestParam @Min(value = 1, message = "Page size must be greater than 0.") int size,
+            @Parameter(description = "Keyset cursor, empty for the first page")
+            @RequestParam(required = false) String cursor,
             Pageable pageable) {
-        return ResponseEntity.ok(
-                Optional.ofNullable(status)
-                        .map(String::toUpperCase)
-                        .map(validStatus -> courseService.findByStatus(CourseStatus.valueOf(validStatus), pageable))
-                        .orElseThrow(() -> new InvalidParameterException("Status cannot be null"))
-        );
+        CourseStatus courseStatus = Optional.ofNullable(status)
+                .map(String::toUpperCase)
+                .map(CourseStatus::valueOf)
+                .orElseThrow(() -> new InvalidParameterException("Status cannot be null"));
+
+        if (cursor != null) {
+            return ResponseEntity.ok(courseService.findByStatusAfter(courseStatus, cursor, size));
+        }
+        return ResponseEntity.ok(courseService.findByStatus(courseStatus, pageable));
     }
 
     // radi
@@ -154,11 +187,63 @@ public class CourseController {
 
     }
 
+    /**
+     * Streaming bulk import, tijelo se cita zapis po zapis i ide COPY-jem u bazu.
+     * application/x-ndjson: jedan CourseImportRow JSON po redu (s modulima)
+     * text/csv: zaglavlje title,description,difficultyLevel
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<CourseImportResult> importCourses(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException, RepositoryException {
+        CourseImportService.ImportFormat format = contentType.startsWith("text/csv")
+                ? CourseImportService.ImportFormat.CSV
+                : CourseImportService.ImportFormat.NDJSON;
+        return ResponseEntity.ok(courseImportService.importCourses(request.getInputStream(), format));
+    }
+
+    /* Pretraga nad Lucene indeksom: tolerira tipfelere, pretrazuje i sadrzaj modula
+     * i vraca facete po kategoriji, tezini i statusu za cijeli skup pogodaka
+     */
+    @GetMapping("/index-search")
+    public ResponseEntity<CourseIndexSearchResult> indexSearch(
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) EntityCategory category,
+            @RequestParam(required = false) DifficultyLevel difficultyLevel,
+            @RequestParam(required = false) CourseStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(courseSearchIndexService.search(searchTerm, category, difficultyLevel, status, page, size));
+    }
+
+    // puni rebuild indeksa ide u pozadini, odgovor je odmah 202
+    // indeks je lokalan po nodu, pa se rebuild zadano pokrece i na ostalim nodovima (allNodes=false samo ovaj)
+    @PostMapping("/index-search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildSearchIndex(@RequestParam(defaultValue = "true") boolean allNodes) {
+        courseIndexer.rebuild();
+        if (allNodes) {
+            searchIndexBroadcaster.broadcastRebuild();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
     @GetMapping("/{id}/statistics")
     public ResponseEntity<CourseStatisticsDTO> getCourseStatistics(@PathVariable UUID id) {
         return ResponseEntity.ok(courseService.getStatistics(id));
     }
 
+    // from/to u ISO formatu (npr. 2024-01-01T00:00), rezolucija je opcionalna
+    @GetMapping("/{id}/statistics/history")
+    public ResponseEntity<StatisticsSeries> getCourseStatisticsHistory(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) StatisticsResolution resolution) {
+        return ResponseEntity.ok(courseService.getStatisticsSeries(id, from, to, resolution));
+    }
+
     // radi
     @GetMapping("/{id}/with-modules-and-statistics")
     public ResponseEntity<CourseResponseWithModules> getCourseWithModulesAndStatistics(@PathVariable UUID id) {
@@ -200,8 +285,13 @@ public class CourseController {
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<List<CourseResponse>> getRecentCourses(
-            @RequestParam CourseStatus status) {
+    public ResponseEntity<?> getRecentCourses(
+            @RequestParam CourseStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        if (cursor != null) {
+            return ResponseEntity.ok(courseService.findByStatusAfter(status, cursor, size));
+        }
         return ResponseEntity.ok(courseService.getRecentCoursesByStatus(status));
     }
 }
@@ -0,0 +1,52 @@
+package com.micro.learningplatform.controllers;
+
+import com.micro.learningplatform.event.kafka.DeadLetterReplayRequest;
+import com.micro.learningplatform.event.kafka.DeadLetterReplayService;
+import com.micro.learningplatform.event.kafka.DeadLetterReplayStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+// replay DLQ-a je admin operacija, /api/v1/admin/** je ogranicen na ADMIN rolu u SecurityConfig
+@RestController
+@RequestMapping("/api/v1/admin/dlq/replays")
+@RequiredArgsConstructor
+public class DeadLetterReplayController {
+
+    private final DeadLetterReplayService replayService;
+
+    @PostMapping
+    public ResponseEntity<?> startReplay(@RequestBody DeadLetterReplayRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(replayService.start(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public List<DeadLetterReplayStatus> replays() {
+        return replayService.statuses();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DeadLetterReplayStatus> replay(@PathVariable UUID id) {
+        return ResponseEntity.of(replayService.status(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<DeadLetterReplayStatus> cancelReplay(@PathVariable UUID id) {
+        return ResponseEntity.of(replayService.cancel(id));
+    }
+}
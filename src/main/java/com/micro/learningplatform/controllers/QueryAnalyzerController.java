@@ -3,11 +3,17 @@ package com.micro.learningplatform.controllers;
 import com.micro.learningplatform.shared.analiza.QueryAnalysisRequest;
 import com.micro.learningplatform.shared.analiza.QueryAnalysisResult;
 import com.micro.learningplatform.shared.performace.CentralizedQueryAnalyzer;
+import com.micro.learningplatform.shared.performace.NPlusOneSuspect;
+import com.micro.learningplatform.shared.performace.QueryLatencyStats;
+import com.micro.learningplatform.shared.performace.QueryLatencyTracker;
 import com.micro.learningplatform.shared.performace.QueryPlan;
+import com.micro.learningplatform.shared.performace.StatementProfileStats;
+import com.micro.learningplatform.shared.performace.StatementProfiler;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -24,6 +30,8 @@ import java.util.stream.Collectors;
 public class QueryAnalyzerController {
 
     private final CentralizedQueryAnalyzer queryAnalyzer;
+    private final QueryLatencyTracker latencyTracker;
+    private final StatementProfiler statementProfiler;
     private final EntityManager entityManager;
 
     @GetMapping("/analyze")
@@ -99,6 +107,46 @@ public class QueryAnalyzerController {
     }
 
 
+    // najsporiji upiti po fingerprintu (p99 baselinea ili tekuceg prozora)
+    @GetMapping("/latency")
+    public List<QueryLatencyStats> topLatencies(@RequestParam(defaultValue = "20") int limit) {
+        return latencyTracker.top(Math.max(1, Math.min(limit, 100)));
+    }
+
+    // upiti ciji je tekuci prozor znacajno sporiji od vlastitog baselinea
+    @GetMapping("/latency/regressions")
+    public List<QueryLatencyStats> latencyRegressions() {
+        return latencyTracker.regressions();
+    }
+
+    @GetMapping("/latency/{fingerprint}")
+    public ResponseEntity<QueryLatencyStats> latency(@PathVariable String fingerprint) {
+        return ResponseEntity.of(latencyTracker.stats(fingerprint));
+    }
+
+    // profil stvarnih SQL naredbi (samplirani promet), sortirano po ukupnom vremenu
+    @GetMapping("/profile/statements")
+    public List<StatementProfileStats> profiledStatements(@RequestParam(defaultValue = "20") int limit) {
+        return statementProfiler.topStatements(Math.max(1, Math.min(limit, 100)));
+    }
+
+    // endpoint u obliku "GET /api/v1/courses/{id}", bez njega vraca naredbe svih endpointa
+    @GetMapping("/profile/endpoints")
+    public List<StatementProfileStats> profiledEndpoints(@RequestParam(required = false) String endpoint,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        return statementProfiler.endpointStatements(endpoint, Math.max(1, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/profile/tables")
+    public List<StatementProfileStats> profiledTables(@RequestParam(defaultValue = "20") int limit) {
+        return statementProfiler.topTables(Math.max(1, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/profile/n-plus-one")
+    public List<NPlusOneSuspect> nPlusOneSuspects() {
+        return statementProfiler.nPlusOneSuspects();
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public String handleExceptions(RuntimeException e) {
         return "Error during query analysis: " + e.getMessage();
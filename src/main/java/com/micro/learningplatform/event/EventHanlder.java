@@ -1,17 +1,19 @@
 package com.micro.learningplatform.event;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.micro.learningplatform.event.kafka.KafkaTopicProperties;
+import com.micro.learningplatform.event.codec.EventCodecs;
+import com.micro.learningplatform.models.OutboxEvent;
+import com.micro.learningplatform.repositories.OutboxEventRepository;
+import com.micro.learningplatform.shared.exceptions.CustomEventException;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 
 @Service
@@ -19,56 +21,51 @@ import java.time.LocalDateTime;
 @Slf4j
 public class EventHanlder {
 
-    // koristimo funkcionalni pristup rukovanju događajim  i optimizirano upravljanje greškama
-    private final ApplicationEventPublisher eventPublisher;
-    private final MeterRegistry meterRegistry;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
-    private final KafkaTopicProperties topicProperties;
-
-
-
-    private static final String COURSE_EVENTS_TOPIC = "course-events";
-    private static final String DLQ_TOPIC = "course-events-dlq";
+    /* Domenski dogadaji se vise ne salju direktno na kafku s @Async (fire-and-forget)
+     * -> spring data ih objavi nakon save()-a agregata (@DomainEvents u BaseModel)
+     * -> ovaj listener je sinkron i pridruzuje se transakciji agregata, pa zapis u outbox i promjena agregata
+     *    ili oboje uspiju ili oboje padnu
+     * -> OutboxRelay ih kasnije salje na kafku u batchu
+     * -> payload je kodiran kroz EventCodecs (default Smile) i nosi verziju sheme dogadaja
+     */
 
+    private final MeterRegistry meterRegistry;
+    private final EventCodecs eventCodecs;
+    private final OutboxEventRepository outboxRepository;
 
-    @Async
     @EventListener
+    @Transactional(propagation = Propagation.REQUIRED)
     public void handleDomainEvent(DomainEvent event) {
         processEvent(event)
-                .ifSuccess(this::publishToKafka)
-                .ifPresent(this::recordSuccess);
+                .ifSuccess(this::appendToOutbox)
+                .ifError(error -> {
+                    // bacamo dalje da se rollbacka i agregat, ne zelimo promjenu bez dogadaja
+                    throw new CustomEventException("Failed to serialize domain event " + event, error.cause());
+                });
     }
 
     private Result<EventResult, EventError> processEvent(DomainEvent event) {
         return Result.of(() -> {
             try {
-                String eventJson = objectMapper.writeValueAsString(event);
                 return new EventResult(
                         event.getEventId(),
-                        eventJson,
-                        LocalDateTime.now()
+                        eventCodecs.encode(event),
+                        LocalDateTime.now(),
+                        event
                 );
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         });
     }
 
-    private void publishToKafka(EventResult result) {
-        kafkaTemplate.send(
-                topicProperties.getCourseEvents(),
-                result.eventId().toString(),
-                result.eventJson()
-        );
-    }
-
-    private void recordSuccess(EventResult result) {
-        meterRegistry.counter("kafka.events",
-                "status", "success",
-                "topic", topicProperties.getCourseEvents()
+    private void appendToOutbox(EventResult result) {
+        OutboxEvent outboxEvent = outboxRepository.save(OutboxEvent.of(result.event(), result.encoded()));
+        meterRegistry.counter("outbox.events",
+                "status", "appended",
+                "type", outboxEvent.getEventType()
         ).increment();
-        log.debug("Event processed: {}", result);
+        log.debug("Event appended to outbox: {}", outboxEvent);
     }
 
 }
@@ -1,11 +1,14 @@
 package com.micro.learningplatform.event;
 
+import com.micro.learningplatform.event.codec.EncodedEvent;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record EventResult(
         UUID eventId,
-        String eventJson,
-        LocalDateTime timestamp
+        EncodedEvent encoded,
+        LocalDateTime timestamp,
+        DomainEvent event
 ) {
 }
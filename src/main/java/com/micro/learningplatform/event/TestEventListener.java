@@ -1,20 +1,45 @@
 package com.micro.learningplatform.event;
 
+import com.micro.learningplatform.event.codec.EventCodecs;
+import com.micro.learningplatform.event.kafka.EventHeaders;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class TestEventListener {
 
-    @KafkaListener(topics = "${spring.kafka.topics.course-events}")
-    public void handleTestEvent(String message) {
-        log.info("Received test event: {}", message);
+    private final EventCodecs eventCodecs;
+
+    @KafkaListener(topics = "${spring.kafka.topics.course-events}", containerFactory = "eventKafkaListenerContainerFactory")
+    public void handleTestEvent(ConsumerRecord<String, byte[]> record) {
+        log.info("Received test event: {}", decode(record));
+    }
+
+    @KafkaListener(topics = "${spring.kafka.topics.dead-letter}", containerFactory = "eventKafkaListenerContainerFactory")
+    public void handleDlqEvent(ConsumerRecord<String, byte[]> record) {
+        log.info("Received DLQ event: {}", decode(record));
     }
 
-    @KafkaListener(topics = "${spring.kafka.topics.dead-letter}")
-    public void handleDlqEvent(String message) {
-        log.info("Received DLQ event: {}", message);
+    /* payload moze biti Smile, pa ga za log dekodiramo po contentType headeru
+     * -> neispravan payload samo logiramo kao tekst; iznimka bi ga iz DLQ listenera poslala natrag na DLQ
+     */
+    private Object decode(ConsumerRecord<String, byte[]> record) {
+        if (record.value() == null) {
+            return null;
+        }
+        try {
+            return eventCodecs.forContentType(EventHeaders.value(record, EventHeaders.CONTENT_TYPE))
+                    .decodeTree(record.value());
+        } catch (IOException | IllegalArgumentException e) {
+            return new String(record.value(), StandardCharsets.UTF_8);
+        }
     }
 }
@@ -0,0 +1,10 @@
+package com.micro.learningplatform.event.codec;
+
+// kodirani dogadaj spreman za outbox: payload + format i verzija sheme koje idu u kafka headere
+public record EncodedEvent(
+        String eventType,
+        byte[] payload,
+        String contentType,
+        int schemaVersion
+) {
+}
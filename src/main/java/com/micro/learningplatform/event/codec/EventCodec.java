@@ -0,0 +1,21 @@
+package com.micro.learningplatform.event.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+/* Kodiranje domenskih dogadaja za outbox i kafku
+ * -> jedna implementacija po formatu, EventCodecs bira po contentType headeru poruke
+ * -> novi format (npr. Avro) je samo novi bean koji implementira ovo sucelje
+ */
+public interface EventCodec {
+
+    EventFormat format();
+
+    byte[] encode(Object event) throws IOException;
+
+    <T> T decode(byte[] payload, Class<T> type) throws IOException;
+
+    // za consumere koji ne ovise o Java tipu dogadaja
+    JsonNode decodeTree(byte[] payload) throws IOException;
+}
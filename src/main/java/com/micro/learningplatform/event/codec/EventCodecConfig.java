@@ -0,0 +1,19 @@
+package com.micro.learningplatform.event.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EventCodecConfig {
+
+    @Bean
+    public EventCodec jsonEventCodec(ObjectMapper objectMapper) {
+        return JacksonEventCodec.json(objectMapper);
+    }
+
+    @Bean
+    public EventCodec smileEventCodec(ObjectMapper objectMapper) {
+        return JacksonEventCodec.smile(objectMapper);
+    }
+}
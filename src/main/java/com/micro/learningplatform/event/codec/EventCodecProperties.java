@@ -0,0 +1,17 @@
+package com.micro.learningplatform.event.codec;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.events")
+@Getter
+@Setter
+public class EventCodecProperties {
+
+    // format u kojem se novi dogadaji pisu u outbox, citaju se svi podrzani formati
+    private EventFormat format = EventFormat.SMILE;
+    private String schemaLocation = "classpath*:event-schemas/*.json";
+}
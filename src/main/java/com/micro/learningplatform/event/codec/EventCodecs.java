@@ -0,0 +1,45 @@
+package com.micro.learningplatform.event.codec;
+
+import com.micro.learningplatform.event.DomainEvent;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class EventCodecs {
+
+    /* Ulazna tocka za kodiranje dogadaja
+     * -> pisanje uvijek u konfiguriranom formatu (app.events.format) i zadnjoj verziji sheme
+     * -> citanje po contentType headeru, pa se tijekom prelaska s JSON-a na Smile citaju oba formata
+     */
+
+    private final Map<EventFormat, EventCodec> codecs = new EnumMap<>(EventFormat.class);
+    private final EventCodec writer;
+    private final EventSchemaRegistry schemaRegistry;
+
+    public EventCodecs(List<EventCodec> codecs, EventCodecProperties properties, EventSchemaRegistry schemaRegistry) {
+        codecs.forEach(codec -> this.codecs.put(codec.format(), codec));
+        this.writer = this.codecs.get(properties.getFormat());
+        if (writer == null) {
+            throw new IllegalStateException("No event codec registered for format " + properties.getFormat());
+        }
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    public EncodedEvent encode(DomainEvent event) throws IOException {
+        String eventType = event.getClass().getSimpleName();
+        EventSchema schema = schemaRegistry.latest(eventType);
+        return new EncodedEvent(eventType, writer.encode(event), writer.format().getContentType(), schema.version());
+    }
+
+    public EventCodec forContentType(String contentType) {
+        EventCodec codec = codecs.get(EventFormat.fromContentType(contentType));
+        if (codec == null) {
+            throw new IllegalArgumentException("No event codec registered for content type " + contentType);
+        }
+        return codec;
+    }
+}
@@ -0,0 +1,27 @@
+package com.micro.learningplatform.event.codec;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum EventFormat {
+
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile");
+
+    private final String contentType;
+
+    // poruke bez contentType headera (stari outbox zapisi, /api/v1/events/test) su JSON
+    public static EventFormat fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return JSON;
+        }
+        for (EventFormat format : values()) {
+            if (format.contentType.equalsIgnoreCase(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported event content type: " + contentType);
+    }
+}
@@ -0,0 +1,11 @@
+package com.micro.learningplatform.event.codec;
+
+import java.util.List;
+
+// jedna verzija sheme dogadaja iz classpath:event-schemas/<eventType>.json
+public record EventSchema(
+        String eventType,
+        int version,
+        List<String> fields
+) {
+}
@@ -0,0 +1,106 @@
+package com.micro.learningplatform.event.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class EventSchemaRegistry {
+
+    /* Lokalni, datotecni registar shema dogadaja (zamjena za schema registry dok imamo jedan servis)
+     * -> svaki dogadaj ima event-schemas/<eventType>.json s listom verzija i poljima svake verzije
+     * -> pri startu se polja zadnje verzije usporeduju s komponentama Java recorda; promjena recorda bez nove
+     *    verzije u shemi rusi start aplikacije, pa se verzija ne moze zaboraviti podici
+     * -> verzija ide u schemaVersion header, consumer po njoj zna koja polja smije ocekivati
+     */
+
+    private final Map<String, List<EventSchema>> schemas = new HashMap<>();
+
+    public EventSchemaRegistry(EventCodecProperties properties, ObjectMapper objectMapper) {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(properties.getSchemaLocation());
+            for (Resource resource : resources) {
+                try (InputStream input = resource.getInputStream()) {
+                    register(objectMapper.readTree(input), resource.getFilename());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load event schemas from " + properties.getSchemaLocation(), e);
+        }
+        log.info("Loaded event schemas: {}", schemas.keySet());
+    }
+
+    public EventSchema latest(String eventType) {
+        List<EventSchema> versions = schemas.get(eventType);
+        if (versions == null) {
+            throw new IllegalStateException("No schema registered for event type " + eventType);
+        }
+        return versions.get(versions.size() - 1);
+    }
+
+    public Optional<EventSchema> find(String eventType, int version) {
+        return schemas.getOrDefault(eventType, List.of()).stream()
+                .filter(schema -> schema.version() == version)
+                .findFirst();
+    }
+
+    private void register(JsonNode document, String source) {
+        String eventType = document.path("eventType").asText();
+        List<EventSchema> versions = new ArrayList<>();
+        for (JsonNode version : document.path("versions")) {
+            List<String> fields = new ArrayList<>();
+            version.path("fields").forEach(field -> fields.add(field.asText()));
+            EventSchema schema = new EventSchema(eventType, version.path("version").asInt(), List.copyOf(fields));
+            if (!versions.isEmpty() && versions.get(versions.size() - 1).version() >= schema.version()) {
+                throw new IllegalStateException("Schema versions in " + source + " must be increasing");
+            }
+            versions.add(schema);
+        }
+        if (eventType.isBlank() || versions.isEmpty()) {
+            throw new IllegalStateException("Invalid event schema " + source);
+        }
+
+        String javaType = document.path("javaType").asText(null);
+        if (javaType != null) {
+            verifyRecord(javaType, versions.get(versions.size() - 1));
+        }
+        schemas.put(eventType, List.copyOf(versions));
+    }
+
+    private void verifyRecord(String javaType, EventSchema latest) {
+        Class<?> type;
+        try {
+            type = Class.forName(javaType);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Event schema " + latest.eventType() + " refers to unknown type " + javaType, e);
+        }
+        if (!type.isRecord()) {
+            throw new IllegalStateException("Event schema " + latest.eventType() + " must describe a record, got " + javaType);
+        }
+        Set<String> components = Arrays.stream(type.getRecordComponents())
+                .map(component -> component.getName())
+                .collect(Collectors.toSet());
+        if (!components.equals(new HashSet<>(latest.fields()))) {
+            throw new IllegalStateException("Event " + javaType + " has fields " + components
+                    + " but schema version " + latest.version() + " declares " + latest.fields()
+                    + "; add a new schema version");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.micro.learningplatform.event.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.io.IOException;
+
+/* Jackson codec, isti mapper (JavaTimeModule, ISO datumi) kao za REST, razlikuje se samo factory
+ * -> Smile je binarni JSON: imena polja i ponovljene vrijednosti (statusi, enumi) se u poruci pisu jednom
+ *    pa se referenciraju, brojevi i UUID-ovi nisu escapani stringovi
+ * -> zapisi ostaju samoopisni, pa stari consumer cita novu verziju dogadaja (nepoznata polja se ignoriraju)
+ */
+public class JacksonEventCodec implements EventCodec {
+
+    private final EventFormat format;
+    private final ObjectMapper mapper;
+
+    private JacksonEventCodec(EventFormat format, ObjectMapper mapper) {
+        this.format = format;
+        this.mapper = mapper;
+    }
+
+    public static JacksonEventCodec json(ObjectMapper objectMapper) {
+        return new JacksonEventCodec(EventFormat.JSON, objectMapper);
+    }
+
+    public static JacksonEventCodec smile(ObjectMapper objectMapper) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new JacksonEventCodec(EventFormat.SMILE, objectMapper.copyWith(factory));
+    }
+
+    @Override
+    public EventFormat format() {
+        return format;
+    }
+
+    @Override
+    public byte[] encode(Object event) throws IOException {
+        return mapper.writeValueAsBytes(event);
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) throws IOException {
+        return mapper.readValue(payload, type);
+    }
+
+    @Override
+    public JsonNode decodeTree(byte[] payload) throws IOException {
+        return mapper.readTree(payload);
+    }
+}
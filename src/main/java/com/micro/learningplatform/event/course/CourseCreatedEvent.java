@@ -5,12 +5,13 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record CourseCreatedEvent(
+        UUID eventId,
         UUID courseId,
         LocalDateTime timestamp
 ) implements CourseEvent {
 
     public CourseCreatedEvent(UUID courseId) {
-        this(courseId, LocalDateTime.now());
+        this(UUID.randomUUID(), courseId, LocalDateTime.now());
     }
 
 
@@ -22,7 +23,7 @@ public record CourseCreatedEvent(
 
     @Override
     public UUID getEventId() {
-        return null;
+        return eventId;
     }
 
     @Override
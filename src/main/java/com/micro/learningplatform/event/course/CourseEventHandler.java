@@ -24,7 +24,7 @@ public class CourseEventHandler {
      */
 
     @EventListener
-    @Async
+    @Async("notificationExecutor")
     public void handleCourseCreated(CourseCreatedEvent event) {
         log.info("Processing course creation event for course: {}",
                 event.courseId());
@@ -36,7 +36,7 @@ public class CourseEventHandler {
     }
 
     @EventListener
-    @Async
+    @Async("notificationExecutor")
     public void handleCoursePublished(CoursePublishedEvent event) {
         log.info("Processing course published event for course: {}",
                 event.courseId());
@@ -4,13 +4,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record CourseModuleAddedEvent(
+        UUID eventId,
         UUID courseId,
         UUID moduleId,
         LocalDateTime timestamp
 ) implements CourseEvent {
 
     public CourseModuleAddedEvent(UUID courseId, UUID moduleId) {
-        this(courseId, moduleId, LocalDateTime.now());
+        this(UUID.randomUUID(), courseId, moduleId, LocalDateTime.now());
     }
 
     @Override
@@ -21,7 +22,7 @@ public record CourseModuleAddedEvent(
 
     @Override
     public UUID getEventId() {
-        return null;
+        return eventId;
     }
 
     @Override
@@ -0,0 +1,77 @@
+package com.micro.learningplatform.event.course;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.micro.learningplatform.event.kafka.ConsumedCourseEvent;
+import com.micro.learningplatform.event.kafka.CourseEventBatchHandler;
+import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.services.NotificationService;
+import com.micro.learningplatform.shared.exceptions.EventDecodingException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseNotificationEventHandler implements CourseEventBatchHandler {
+
+    /* Obavijesti o tecajevima iz course-events (in-app consumer)
+     * -> consumer grupa je zajednicka, pa obavijest salje jedan node, a ne svaki na kojem je dogadaj nastao
+     * -> CourseCreatedEvent ide administratorima, CourseStatusChangedEvent kao promjena statusa
+     * -> ostali tipovi dogadaja se preskacu
+     * -> payload bez courseId-a ili s nepoznatim statusom je EventDecodingException -> ravno na DLQ
+     * -> dispatcher deduplicira po eventId-u; obavijest je at-least-once, ponovljena obrada
+     *    nakon greske drugog dogadaja u batchu je moze poslati ponovno
+     */
+
+    static final String COURSE_CREATED = "CourseCreatedEvent";
+    static final String COURSE_STATUS_CHANGED = "CourseStatusChangedEvent";
+
+    private final NotificationService notificationService;
+
+    @Override
+    public void handle(List<ConsumedCourseEvent> events) {
+        for (ConsumedCourseEvent event : events) {
+            if (COURSE_CREATED.equals(event.eventType())) {
+                notificationService.notifyAdministrators(
+                        String.format("New course created with ID: %s", courseId(event)));
+            } else if (COURSE_STATUS_CHANGED.equals(event.eventType())) {
+                notificationService.notifyAboutStateChange(courseId(event), newStatus(event));
+            }
+        }
+    }
+
+    private static UUID courseId(ConsumedCourseEvent event) {
+        String value = field(event, "courseId");
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw invalid(event, "courseId " + value, e);
+        }
+    }
+
+    private static CourseStatus newStatus(ConsumedCourseEvent event) {
+        String value = field(event, "newStatus");
+        try {
+            return CourseStatus.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw invalid(event, "newStatus " + value, e);
+        }
+    }
+
+    private static String field(ConsumedCourseEvent event, String name) {
+        JsonNode value = event.payload() == null ? null : event.payload().get(name);
+        if (value == null || value.isNull()) {
+            throw invalid(event, "missing " + name, null);
+        }
+        return value.asText();
+    }
+
+    private static EventDecodingException invalid(ConsumedCourseEvent event, String problem, Throwable cause) {
+        return new EventDecodingException("Invalid course event " + event.eventType() + " " + event.topic() + "-"
+                + event.partition() + "@" + event.offset() + ": " + problem, cause);
+    }
+}
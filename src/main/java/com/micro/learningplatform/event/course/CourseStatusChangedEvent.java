@@ -6,13 +6,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record CourseStatusChangedEvent(
+        UUID eventId,
         UUID courseId,
         CourseStatus previousStatus,
         CourseStatus newStatus,
         LocalDateTime timestamp
 ) implements CourseEvent {
     public CourseStatusChangedEvent(UUID courseId, CourseStatus previousStatus, CourseStatus newStatus) {
-        this(courseId, previousStatus, newStatus, LocalDateTime.now());
+        this(UUID.randomUUID(), courseId, previousStatus, newStatus, LocalDateTime.now());
     }
 
 
@@ -23,7 +24,7 @@ public record CourseStatusChangedEvent(
 
     @Override
     public UUID getEventId() {
-        return null;
+        return eventId;
     }
 
     @Override
@@ -0,0 +1,13 @@
+package com.micro.learningplatform.event.course;
+
+import java.time.LocalDateTime;
+
+/* Aplikacijski (ne domenski) dogadaj nakon bulk importa
+ * -> import puni tablice set-based SQL-om pa spring data ne objavljuje CourseCreatedEvent po tecaju,
+ *    CourseCreatedEvent za kafku ide direktno u outbox
+ * -> sluzi slusateljima (npr. indeksu pretrage) da saznaju koji su tecajevi dodani
+ * -> umjesto liste id-eva nosi created_at importa: svi tecajevi jednog importa imaju LOCALTIMESTAMP
+ *    import transakcije, pa velik import ne drzi sve id-eve u memoriji
+ */
+public record CoursesImportedEvent(LocalDateTime importedAt, long count) {
+}
@@ -0,0 +1,16 @@
+package com.micro.learningplatform.event.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// dogadaj procitan s course-events; eventId, eventType i schemaVersion dolaze iz headera koje postavlja OutboxRelay
+public record ConsumedCourseEvent(
+        String eventId,
+        String eventType,
+        int schemaVersion,
+        String key,
+        JsonNode payload,
+        String topic,
+        int partition,
+        long offset
+) {
+}
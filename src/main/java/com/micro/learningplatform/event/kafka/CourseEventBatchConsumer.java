@@ -0,0 +1,120 @@
+package com.micro.learningplatform.event.kafka;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.micro.learningplatform.event.kafka.CourseEventDispatcher.TOPIC_TAG;
+
+@Component
+@Slf4j
+@ConditionalOnExpression("${app.kafka.course-events-consumer.enabled:true} "
+        + "and '${app.kafka.course-events-consumer.mode:KEY_ORDERED}' == 'BATCH'")
+public class CourseEventBatchConsumer {
+
+    /* Batch consumer za course-events (mode: BATCH)
+     * -> poll vraca do max-poll-records (500) zapisa, obraduju se kao jedan batch i offset se potvrduje jednom po batchu
+     * -> ako batch padne, dijeli se na pola i polovice se obraduju zasebno (bisekcija) dok neispravni zapis ne ostane sam;
+     *    samo on ide u retry topic (FailedRecordRouter, nakon zadnjeg tiera DLQ), ostatak batcha se normalno obradi
+     *    -> jedan los zapis u batchu od 500 kosta ~2*log2(500) dodatnih poziva umjesto 500 pojedinacnih
+     * -> batch se potvrduje tek kad je broker potvrdio sve retry/DLQ zapise; ako nisu dostupni iznimka vraca
+     *    cijeli batch na ponovni poll (DefaultErrorHandler s backoffom u KafkaConfig)
+     * -> paralelizam je ogranicen brojem particija, za vise vidi KeyOrderedCourseEventConsumer
+     */
+
+    private final CourseEventDispatcher dispatcher;
+    private final FailedRecordRouter failedRecordRouter;
+    private final CourseEventConsumerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+
+    public CourseEventBatchConsumer(CourseEventDispatcher dispatcher,
+                                    FailedRecordRouter failedRecordRouter,
+                                    CourseEventConsumerProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.dispatcher = dispatcher;
+        this.failedRecordRouter = failedRecordRouter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.batchSizes = DistributionSummary.builder("kafka.consumer.batch.size")
+                .tag("topic", TOPIC_TAG)
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("kafka.consumer.batch")
+                .tag("topic", TOPIC_TAG)
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            id = "course-events-batch",
+            topics = "${spring.kafka.topics.course-events}",
+            groupId = "${app.kafka.course-events-consumer.group-id:learning-platform-course-events}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consume(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        batchSizes.record(records.size());
+
+        List<FailedRecord> failed = new ArrayList<>();
+        processWithBisection(records, failed);
+        routeFailed(failed);
+
+        acknowledgment.acknowledge();
+        timer.stop(batchTimer);
+        meterRegistry.counter("kafka.consumer.records", "topic", TOPIC_TAG, "result", "processed")
+                .increment(records.size() - failed.size());
+        log.debug("Processed batch of {} course events, {} routed to retry or DLQ", records.size(), failed.size());
+    }
+
+    private void processWithBisection(List<ConsumerRecord<String, byte[]>> records, List<FailedRecord> failed) {
+        try {
+            dispatcher.dispatch(records);
+        } catch (Exception e) {
+            if (records.size() == 1) {
+                failed.add(new FailedRecord(records.get(0), e));
+                return;
+            }
+            meterRegistry.counter("kafka.consumer.bisections", "topic", TOPIC_TAG).increment();
+            int middle = records.size() / 2;
+            processWithBisection(records.subList(0, middle), failed);
+            processWithBisection(records.subList(middle, records.size()), failed);
+        }
+    }
+
+    private void routeFailed(List<FailedRecord> failed) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<?>> sends = failed.stream()
+                .<CompletableFuture<?>>map(f -> failedRecordRouter.route(f.record(), f.exception()))
+                .toList();
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(properties.getDeadLetterTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while routing failed records", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // bez potvrde retry topica / DLQ-a ne smijemo potvrditi batch, error handler ga vraca na ponovni poll
+            throw new IllegalStateException("Could not route " + failed.size() + " failed records", e);
+        }
+        meterRegistry.counter("kafka.consumer.records", "topic", TOPIC_TAG, "result", "failed")
+                .increment(failed.size());
+    }
+
+    private record FailedRecord(ConsumerRecord<String, byte[]> record, Exception exception) {
+    }
+}
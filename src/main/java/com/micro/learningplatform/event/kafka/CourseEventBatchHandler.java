@@ -0,0 +1,13 @@
+package com.micro.learningplatform.event.kafka;
+
+import java.util.List;
+
+/* Obrada dogadaja s course-events unutar aplikacije
+ * -> BATCH nacin: dobiva cijeli poll; KEY_ORDERED: dobiva uzastopne dogadaje jednog kljuca (tecaja/modula) redom
+ * -> baca iznimku ako bilo koji dogadaj ne uspije; consumer tada izolira neispravne zapise (bisekcija ili
+ *    jedan po jedan), pa isti dogadaj moze stici vise puta -> implementacija mora biti idempotentna
+ */
+public interface CourseEventBatchHandler {
+
+    void handle(List<ConsumedCourseEvent> events) throws Exception;
+}
@@ -0,0 +1,50 @@
+package com.micro.learningplatform.event.kafka;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.kafka.course-events-consumer")
+@Getter
+@Setter
+public class CourseEventConsumerProperties {
+
+    private boolean enabled = true;
+    private Mode mode = Mode.KEY_ORDERED;
+    // vlastita grupa, ne dijeli particije s ostalim listenerima na course-events
+    private String groupId = "learning-platform-course-events";
+    private int concurrency = 3;
+    // koliko cekamo potvrdu DLQ-a prije nego cijeli batch vratimo na ponovnu obradu
+    private Duration deadLetterTimeout = Duration.ofSeconds(10);
+    // broj nedavno obradenih eventId-eva koje pamtimo za deduplikaciju (at-least-once + bisekcija)
+    private int dedupCacheSize = 100_000;
+    // ponovni pokusaj cijelog batcha kad ni DLQ nije dostupan
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+
+    private KeyOrdered keyOrdered = new KeyOrdered();
+
+    public enum Mode {
+        // cijeli poll kao jedan batch, paralelizam = broj particija
+        BATCH,
+        // redoslijed po kljucu (tecaj/modul), kljucevi se obraduju paralelno unutar particije
+        KEY_ORDERED
+    }
+
+    @Getter
+    @Setter
+    public static class KeyOrdered {
+        // preko ovoga se particija pauzira dok se obrada ne spusti na pola
+        private int maxInFlightPerPartition = 2_000;
+        // najvise dogadaja istog kljuca koji se handlerima predaju odjednom
+        private int maxKeyBatch = 100;
+        // commit low-water marka kad consumer nema novih zapisa (idle event)
+        private Duration commitInterval = Duration.ofSeconds(1);
+        // koliko pri rebalansu cekamo da zapoceta obrada oduzetih particija zavrsi
+        private Duration revokeTimeout = Duration.ofSeconds(10);
+    }
+}
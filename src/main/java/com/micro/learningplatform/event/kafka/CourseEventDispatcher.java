@@ -0,0 +1,99 @@
+package com.micro.learningplatform.event.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micro.learningplatform.event.codec.EventCodecs;
+import com.micro.learningplatform.shared.exceptions.EventDecodingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class CourseEventDispatcher {
+
+    /* Zajednicki dio in-app consumera za course-events (batch i key-ordered nacin rada)
+     * -> dekodira payload po contentType headeru (Smile ili JSON) i predaje dogadaje CourseEventBatchHandler beanovima
+     * -> eventId uspjesno obradenih dogadaja se pamti, pa ponovna obrada (bisekcija, redelivery nakon rebalansa)
+     *    preskace vec obradene dogadaje
+     * -> neispravan payload baca iznimku kao i greska handlera, pozivatelj odlucuje o izolaciji, retryju i DLQ-u
+     * -> ukljucen consumer bez ijednog handlera ne pokrece aplikaciju; inace bi se offseti commitali,
+     *    a dogadaji tiho odbacivali
+     */
+
+    static final String TOPIC_TAG = "course-events";
+
+    private final List<CourseEventBatchHandler> handlers;
+    private final EventCodecs eventCodecs;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Boolean> processedEventIds;
+
+    public CourseEventDispatcher(List<CourseEventBatchHandler> handlers,
+                                 EventCodecs eventCodecs,
+                                 CourseEventConsumerProperties properties,
+                                 MeterRegistry meterRegistry) {
+        if (properties.isEnabled() && handlers.isEmpty()) {
+            throw new IllegalStateException("app.kafka.course-events-consumer.enabled is true but no "
+                    + "CourseEventBatchHandler bean exists, course events would be committed without processing");
+        }
+        this.handlers = handlers;
+        this.eventCodecs = eventCodecs;
+        this.meterRegistry = meterRegistry;
+        this.processedEventIds = Caffeine.newBuilder().maximumSize(properties.getDedupCacheSize()).build();
+    }
+
+    public void dispatch(List<ConsumerRecord<String, byte[]>> records) throws Exception {
+        List<ConsumedCourseEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            String eventId = EventHeaders.value(record, EventHeaders.EVENT_ID);
+            if (eventId != null && processedEventIds.getIfPresent(eventId) != null) {
+                meterRegistry.counter("kafka.consumer.records", "topic", TOPIC_TAG, "result", "duplicate").increment();
+                continue;
+            }
+            events.add(toEvent(record, eventId));
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        for (CourseEventBatchHandler handler : handlers) {
+            handler.handle(events);
+        }
+        // oznacavamo tek nakon sto su svi handleri uspjeli
+        events.stream()
+                .map(ConsumedCourseEvent::eventId)
+                .filter(eventId -> eventId != null)
+                .forEach(eventId -> processedEventIds.put(eventId, Boolean.TRUE));
+    }
+
+    /* neispravan payload, nepoznat contentType ili verzija baca EventDecodingException, pa se zapis izolira
+     * kao i greska handlera, ali FailedRecordRouter ga ne salje u retry nego ravno na DLQ
+     */
+    private ConsumedCourseEvent toEvent(ConsumerRecord<String, byte[]> record, String eventId) {
+        JsonNode payload;
+        int schemaVersion;
+        try {
+            payload = record.value() == null ? null
+                    : eventCodecs.forContentType(EventHeaders.value(record, EventHeaders.CONTENT_TYPE)).decodeTree(record.value());
+            String version = EventHeaders.value(record, EventHeaders.SCHEMA_VERSION);
+            schemaVersion = version == null ? 1 : Integer.parseInt(version);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new EventDecodingException("Cannot decode course event " + record.topic() + "-"
+                    + record.partition() + "@" + record.offset() + ": " + e.getMessage(), e);
+        }
+        return new ConsumedCourseEvent(
+                eventId,
+                EventHeaders.value(record, EventHeaders.EVENT_TYPE),
+                schemaVersion,
+                record.key(),
+                payload,
+                record.topic(),
+                record.partition(),
+                record.offset()
+        );
+    }
+}
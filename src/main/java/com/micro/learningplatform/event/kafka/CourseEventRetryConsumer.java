@@ -0,0 +1,139 @@
+package com.micro.learningplatform.event.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+@ConditionalOnExpression("${app.kafka.course-events-consumer.enabled:true}")
+public class CourseEventRetryConsumer implements SmartLifecycle {
+
+    /* Ponovna obrada course-events zapisa iz retry tierova (course-events-retry-1s, -10s, -60s)
+     * -> za svaki tier jedan container; zapis se obraduje tek kad prode retry-due-at, do tada nack pauzira
+     *    samo taj tier i vraca zapis na isti offset -> nema sleepa na consumer threadu ni blokiranja glavnog topica
+     * -> obrada ide kroz CourseEventDispatcher kao i na glavnom topicu (isti handleri, ista deduplikacija)
+     * -> ponovna greska ide kroz FailedRecordRouter u sljedeci tier, nakon zadnjeg na DLQ
+     * -> cijena neblokirajuceg retryja: kasniji dogadaji istog tecaja na glavnom topicu se mogu obraditi
+     *    prije dogadaja koji ceka u retry tieru
+     */
+
+    private final ConcurrentKafkaListenerContainerFactory<String, byte[]> factory;
+    private final CourseEventDispatcher dispatcher;
+    private final FailedRecordRouter failedRecordRouter;
+    private final KafkaTopicProperties topicProperties;
+    private final CourseEventConsumerProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<ConcurrentMessageListenerContainer<String, byte[]>> containers = new ArrayList<>();
+    private volatile boolean running;
+
+    public CourseEventRetryConsumer(@Qualifier("retryKafkaListenerContainerFactory")
+                                    ConcurrentKafkaListenerContainerFactory<String, byte[]> factory,
+                                    CourseEventDispatcher dispatcher,
+                                    FailedRecordRouter failedRecordRouter,
+                                    KafkaTopicProperties topicProperties,
+                                    CourseEventConsumerProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.factory = factory;
+        this.dispatcher = dispatcher;
+        this.failedRecordRouter = failedRecordRouter;
+        this.topicProperties = topicProperties;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public synchronized void start() {
+        for (int tier = 0; tier < topicProperties.getRetryDelays().size(); tier++) {
+            String topic = topicProperties.retryTopic(tier);
+            ConcurrentMessageListenerContainer<String, byte[]> container = factory.createContainer(topic);
+            container.getContainerProperties().setGroupId(properties.getGroupId());
+            container.getContainerProperties().setMessageListener(
+                    (BatchAcknowledgingMessageListener<String, byte[]>) (records, ack) -> redeliver(topic, records, ack));
+            container.setBeanName(topic);
+            container.start();
+            containers.add(container);
+        }
+        running = true;
+        log.info("Started course event retry consumers for {}", containers.stream()
+                .map(container -> container.getContainerProperties().getTopics()[0]).toList());
+    }
+
+    @Override
+    public synchronized void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+        containers.clear();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // isto kao kafka listener containeri, pokrece se nakon ostalih beanova i gasi prije njih
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 100;
+    }
+
+    private void redeliver(String topic, List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            long wait = FailedRecordRouter.dueAt(record) - System.currentTimeMillis();
+            if (wait > 0) {
+                // zapisi u tieru imaju istu odgodu, pa ni sljedeci jos nisu dospjeli
+                ack.nack(i, Duration.ofMillis(wait));
+                return;
+            }
+
+            try {
+                dispatcher.dispatch(List.of(record));
+                count(topic, "succeeded");
+            } catch (Exception e) {
+                if (!routeFailed(topic, record, e)) {
+                    ack.nack(i, properties.getRetryBackoff());
+                    return;
+                }
+            }
+        }
+        ack.acknowledge();
+    }
+
+    // false znaci da zapis nije nigdje prosljeden i mora ostati na ovom offsetu
+    private boolean routeFailed(String topic, ConsumerRecord<String, byte[]> record, Exception exception) {
+        try {
+            failedRecordRouter.route(record, exception)
+                    .get(properties.getDeadLetterTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            count(topic, "failed");
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Could not route failed course event {}-{}@{}, retrying in {}", record.topic(),
+                    record.partition(), record.offset(), properties.getRetryBackoff(), e);
+            return false;
+        }
+    }
+
+    private void count(String topic, String result) {
+        meterRegistry.counter("kafka.retry.redelivered", "topic", topic, "result", result).increment();
+    }
+}
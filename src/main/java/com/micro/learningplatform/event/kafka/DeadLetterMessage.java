@@ -1,9 +0,0 @@
-package com.micro.learningplatform.event.kafka;
-
-import java.time.LocalDateTime;
-
-public record DeadLetterMessage(
-        Object originalMessage,
-        String errorMessage,
-        LocalDateTime timestamp
-) {}
@@ -0,0 +1,87 @@
+package com.micro.learningplatform.event.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterPublisher {
+
+    /* Zajednicko slanje na DLQ (KafkaErrorHandler, CourseEventBatchConsumer)
+     * -> tijelo je originalni payload bez izmjena (binarni dogadaji se ne mogu umotati u JSON bez base64),
+     *    pa se zapis s DLQ-a moze vratiti na izvorni topic kakav je bio
+     * -> headeri nose porijeklo (topic/partition/offset), iznimku i vrijeme, originalni headeri
+     *    (eventId, eventType, contentType, schemaVersion) se kopiraju
+     * -> vraca future, pozivatelj sam bira hoce li cekati potvrdu brokera
+     */
+
+    public static final String EXCEPTION_HEADER = "dlq-exception";
+    public static final String EXCEPTION_MESSAGE_HEADER = "dlq-exception-message";
+    public static final String FAILED_AT_HEADER = "dlq-failed-at";
+    public static final String ORIGINAL_TOPIC_HEADER = "dlq-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "dlq-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "dlq-original-offset";
+
+    private static final Set<String> FAILURE_HEADERS = Set.of(EXCEPTION_HEADER, EXCEPTION_MESSAGE_HEADER, FAILED_AT_HEADER);
+
+    private final KafkaTemplate<String, byte[]> eventKafkaTemplate;
+    private final KafkaTopicProperties topicProperties;
+    private final MeterRegistry meterRegistry;
+
+    public CompletableFuture<SendResult<String, byte[]>> publish(ConsumerRecord<?, ?> record, Exception exception) {
+        ProducerRecord<String, byte[]> deadLetter = new ProducerRecord<>(
+                topicProperties.getDeadLetter(),
+                record.key() != null ? record.key().toString() : null,
+                payload(record.value())
+        );
+        copyFailureHeaders(record, exception, deadLetter);
+
+        meterRegistry.counter("kafka.dlq.published", "exception", exception.getClass().getSimpleName()).increment();
+        log.warn("Routing record {}-{}@{} to {}: {}", record.topic(), record.partition(), record.offset(),
+                topicProperties.getDeadLetter(), exception.getMessage());
+        return eventKafkaTemplate.send(deadLetter);
+    }
+
+    /* Headeri neuspjelog zapisa, zajednicki za DLQ i retry topice (FailedRecordRouter)
+     * -> originalni headeri se kopiraju, osim headera greske koje pisemo ponovno
+     * -> porijeklo se postavlja samo prvi put, pa zapis iz retry topica na DLQ-u i dalje pokazuje na course-events
+     */
+    static void copyFailureHeaders(ConsumerRecord<?, ?> record, Exception exception, ProducerRecord<String, byte[]> target) {
+        for (Header header : record.headers()) {
+            if (!FAILURE_HEADERS.contains(header.key())) {
+                target.headers().add(header);
+            }
+        }
+        target.headers()
+                .add(EXCEPTION_HEADER, EventHeaders.bytes(exception.getClass().getName()))
+                .add(EXCEPTION_MESSAGE_HEADER, EventHeaders.bytes(String.valueOf(exception.getMessage())))
+                .add(FAILED_AT_HEADER, EventHeaders.bytes(LocalDateTime.now().toString()));
+        if (record.headers().lastHeader(ORIGINAL_TOPIC_HEADER) == null) {
+            target.headers()
+                    .add(ORIGINAL_TOPIC_HEADER, EventHeaders.bytes(record.topic()))
+                    .add(ORIGINAL_PARTITION_HEADER, EventHeaders.bytes(String.valueOf(record.partition())))
+                    .add(ORIGINAL_OFFSET_HEADER, EventHeaders.bytes(String.valueOf(record.offset())));
+        }
+    }
+
+    // listeneri s String deserializerom (KafkaErrorHandler) daju String, dogadaji su vec bajtovi
+    static byte[] payload(Object value) {
+        if (value == null || value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        return value.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
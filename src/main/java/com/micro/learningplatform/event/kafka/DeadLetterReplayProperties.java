@@ -0,0 +1,25 @@
+package com.micro.learningplatform.event.kafka;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.kafka.dlq-replay")
+@Getter
+@Setter
+public class DeadLetterReplayProperties {
+
+    // zadana brzina vracanja na course-events (token bucket), zahtjev je moze smanjiti ili povecati do max
+    private int ratePerSecond = 100;
+    private int maxRatePerSecond = 1_000;
+    // zapisi se salju u batchevima, svaki batch ceka potvrdu brokera prije sljedeceg
+    private int batchSize = 50;
+    private Duration pollTimeout = Duration.ofSeconds(1);
+    private Duration sendTimeout = Duration.ofSeconds(30);
+    // broj zavrsenih replayeva ciji status pamtimo
+    private int history = 20;
+}
@@ -0,0 +1,24 @@
+package com.micro.learningplatform.event.kafka;
+
+import java.time.Instant;
+import java.util.List;
+
+/* Parametri replaya s DLQ-a, sva polja su opcionalna
+ * -> pocetak: fromTime (po timestampu zapisa na DLQ-u) ili fromOffset, inace od pocetka particije
+ * -> kraj: toTime (iskljucivo) ili toOffset (ukljucivo), ali nikad dalje od kraja particije u trenutku pokretanja,
+ *    pa se zapisi koji tijekom replaya ponovno padnu na DLQ ne vrte u krug
+ * -> dryRun samo broji zapise koji prolaze filter, nista ne salje
+ * -> exceptionType usporeduje dlq-exception header s punim ili kratkim imenom klase, key kljuc zapisa
+ */
+public record DeadLetterReplayRequest(
+        List<Integer> partitions,
+        Instant fromTime,
+        Instant toTime,
+        Long fromOffset,
+        Long toOffset,
+        String exceptionType,
+        String key,
+        Integer ratePerSecond,
+        boolean dryRun
+) {
+}
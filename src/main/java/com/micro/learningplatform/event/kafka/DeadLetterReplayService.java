@@ -0,0 +1,363 @@
+package com.micro.learningplatform.event.kafka;
+
+import com.micro.learningplatform.event.kafka.DeadLetterReplayStatus.State;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class DeadLetterReplayService {
+
+    /* Replay zapisa s DLQ-a natrag na course-events, pokrece ga admin (DeadLetterReplayController)
+     * -> DLQ nosi originalne bajtove i headere (DeadLetterPublisher), pa se zapis vraca kakav je bio;
+     *    skidaju se samo dlq-* i retry headeri, kljuc ostaje isti pa dogadaj zavrsava u istoj particiji
+     * -> DLQ se cita vlastitim consumerom s assign() i bez commita -> ne dira nijednu consumer grupu,
+     *    a raspon (offset ili vrijeme) se zadaje po zahtjevu
+     * -> slanje ide u batchevima kroz token bucket (bucket4j), pa replay velikog incidenta ne preplavi
+     *    course-events; svaki batch ceka potvrdu brokera prije sljedeceg
+     * -> istovremeno radi najvise jedan replay, na vlastitom dlqReplayExecutoru jer vecinu vremena ceka
+     *    u token bucketu; napredak i brojaci se citaju iz statusa i metrika
+     * -> at-least-once: replay koji padne na pola moze ponoviti dio zadnjeg batcha, consumeri dedupliciraju po eventId-u
+     */
+
+    private static final String DLQ_HEADER_PREFIX = "dlq-";
+    private static final Set<String> RETRY_HEADERS = Set.of(FailedRecordRouter.ATTEMPT_HEADER, FailedRecordRouter.DUE_AT_HEADER);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> eventKafkaTemplate;
+    private final KafkaTopicProperties topicProperties;
+    private final DeadLetterReplayProperties properties;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<ReplayJob> active = new AtomicReference<>();
+    private final Map<UUID, ReplayJob> jobs;
+
+    public DeadLetterReplayService(@Qualifier("eventConsumerFactory") ConsumerFactory<String, byte[]> consumerFactory,
+                                   KafkaTemplate<String, byte[]> eventKafkaTemplate,
+                                   KafkaTopicProperties topicProperties,
+                                   DeadLetterReplayProperties properties,
+                                   @Qualifier("dlqReplayExecutor") ExecutorService executor,
+                                   MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.eventKafkaTemplate = eventKafkaTemplate;
+        this.topicProperties = topicProperties;
+        this.properties = properties;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, ReplayJob> eldest) {
+                return size() > properties.getHistory();
+            }
+        };
+
+        Gauge.builder("kafka.dlq.replay.active", active, ref -> ref.get() == null ? 0 : 1).register(meterRegistry);
+    }
+
+    public DeadLetterReplayStatus start(DeadLetterReplayRequest request) {
+        int rate = request.ratePerSecond() == null ? properties.getRatePerSecond() : request.ratePerSecond();
+        validate(request, rate);
+
+        ReplayJob job = new ReplayJob(request, rate);
+        ReplayJob running = active.get();
+        if (running != null || !active.compareAndSet(null, job)) {
+            throw new IllegalStateException("DLQ replay " + (running == null ? "" : running.id + " ") + "is already running");
+        }
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            job.finish(State.FAILED, "Replay rejected: " + e.getMessage());
+            active.compareAndSet(job, null);
+            throw new IllegalStateException("Could not start DLQ replay, executor is saturated", e);
+        }
+        log.info("Started DLQ replay {} at {}/s: {}", job.id, rate, request);
+        return job.snapshot();
+    }
+
+    // replay staje nakon batcha koji se upravo salje
+    public Optional<DeadLetterReplayStatus> cancel(UUID id) {
+        return find(id).map(job -> {
+            job.cancelled = true;
+            return job.snapshot();
+        });
+    }
+
+    public Optional<DeadLetterReplayStatus> status(UUID id) {
+        return find(id).map(ReplayJob::snapshot);
+    }
+
+    // najnoviji prvi
+    public List<DeadLetterReplayStatus> statuses() {
+        List<ReplayJob> snapshot;
+        synchronized (jobs) {
+            snapshot = new ArrayList<>(jobs.values());
+        }
+        return snapshot.reversed().stream().map(ReplayJob::snapshot).toList();
+    }
+
+    private Optional<ReplayJob> find(UUID id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    private void validate(DeadLetterReplayRequest request, int rate) {
+        if (rate <= 0 || rate > properties.getMaxRatePerSecond()) {
+            throw new IllegalArgumentException("ratePerSecond must be between 1 and " + properties.getMaxRatePerSecond());
+        }
+        if (request.fromTime() != null && request.toTime() != null && !request.fromTime().isBefore(request.toTime())) {
+            throw new IllegalArgumentException("fromTime must be before toTime");
+        }
+        if (request.fromOffset() != null && request.toOffset() != null && request.fromOffset() > request.toOffset()) {
+            throw new IllegalArgumentException("fromOffset must not be after toOffset");
+        }
+    }
+
+    private void run(ReplayJob job) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        try (Consumer<String, byte[]> consumer =
+                     consumerFactory.createConsumer(null, "dlq-replay-", job.id.toString(), overrides)) {
+            Map<TopicPartition, Long> ends = assign(consumer, job);
+            replay(consumer, job, ends);
+            job.finish(job.cancelled ? State.CANCELLED : State.COMPLETED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(State.CANCELLED, "Interrupted");
+        } catch (Exception e) {
+            log.error("DLQ replay {} failed", job.id, e);
+            job.finish(State.FAILED, e.getMessage());
+        } finally {
+            active.compareAndSet(job, null);
+        }
+        log.info("DLQ replay {} {}: scanned {}, matched {}, published {}", job.id, job.state,
+                job.scanned.sum(), job.matched.sum(), job.published.sum());
+    }
+
+    // postavlja pocetak svake particije i vraca kraj raspona (iskljucivo); prazne particije se ne dodjeljuju
+    private Map<TopicPartition, Long> assign(Consumer<String, byte[]> consumer, ReplayJob job) {
+        DeadLetterReplayRequest request = job.request;
+        String topic = topicProperties.getDeadLetter();
+        List<TopicPartition> candidates = consumer.partitionsFor(topic).stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .filter(tp -> request.partitions() == null || request.partitions().isEmpty()
+                        || request.partitions().contains(tp.partition()))
+                .toList();
+
+        Map<TopicPartition, Long> beginnings = consumer.beginningOffsets(candidates);
+        Map<TopicPartition, Long> ends = consumer.endOffsets(candidates);
+        Map<TopicPartition, OffsetAndTimestamp> fromTimes = offsetsForTime(consumer, candidates, request.fromTime());
+        Map<TopicPartition, OffsetAndTimestamp> toTimes = offsetsForTime(consumer, candidates, request.toTime());
+
+        Map<TopicPartition, Long> starts = new HashMap<>();
+        Map<TopicPartition, Long> limits = new HashMap<>();
+        for (TopicPartition tp : candidates) {
+            long end = ends.get(tp);
+            long start = beginnings.get(tp);
+            if (request.fromOffset() != null) {
+                start = Math.max(start, request.fromOffset());
+            }
+            if (request.fromTime() != null) {
+                OffsetAndTimestamp from = fromTimes.get(tp);
+                start = Math.max(start, from == null ? end : from.offset());
+            }
+            if (request.toOffset() != null) {
+                end = Math.min(end, request.toOffset() + 1);
+            }
+            if (request.toTime() != null) {
+                OffsetAndTimestamp to = toTimes.get(tp);
+                end = to == null ? end : Math.min(end, to.offset());
+            }
+            if (start < end) {
+                starts.put(tp, start);
+                limits.put(tp, end);
+                job.total += end - start;
+                job.positions.put(tp.partition(), start);
+            }
+        }
+
+        consumer.assign(starts.keySet());
+        starts.forEach(consumer::seek);
+        return limits;
+    }
+
+    private static Map<TopicPartition, OffsetAndTimestamp> offsetsForTime(Consumer<String, byte[]> consumer,
+                                                                          List<TopicPartition> partitions, Instant time) {
+        if (time == null) {
+            return Map.of();
+        }
+        return consumer.offsetsForTimes(partitions.stream()
+                .collect(Collectors.toMap(Function.identity(), tp -> time.toEpochMilli())));
+    }
+
+    private void replay(Consumer<String, byte[]> consumer, ReplayJob job, Map<TopicPartition, Long> ends)
+            throws Exception {
+        int batchSize = Math.min(properties.getBatchSize(), job.rate);
+        Bucket bucket = Bucket.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(job.rate)
+                        .refillGreedy(job.rate, Duration.ofSeconds(1))
+                        .build())
+                .build();
+        Map<TopicPartition, Long> remaining = new HashMap<>(ends);
+        List<ConsumerRecord<String, byte[]>> batch = new ArrayList<>(batchSize);
+
+        while (!job.cancelled && !remaining.isEmpty()) {
+            for (ConsumerRecord<String, byte[]> record : consumer.poll(properties.getPollTimeout())) {
+                Long end = remaining.get(new TopicPartition(record.topic(), record.partition()));
+                if (end == null || record.offset() >= end) {
+                    continue;
+                }
+                job.scanned.increment();
+                count("scanned");
+                if (matches(record, job.request)) {
+                    job.matched.increment();
+                    count("matched");
+                    batch.add(record);
+                    if (batch.size() >= batchSize) {
+                        publish(job, batch, bucket);
+                    }
+                }
+                if (job.cancelled) {
+                    return;
+                }
+            }
+
+            // particija je gotova kad je consumer prosao kraj raspona (i preko praznina nakon kompakcije)
+            Iterator<Map.Entry<TopicPartition, Long>> it = remaining.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<TopicPartition, Long> entry = it.next();
+                long position = Math.min(consumer.position(entry.getKey()), entry.getValue());
+                job.positions.put(entry.getKey().partition(), position);
+                if (position >= entry.getValue()) {
+                    consumer.pause(Set.of(entry.getKey()));
+                    it.remove();
+                }
+            }
+        }
+        if (!job.cancelled && !batch.isEmpty()) {
+            publish(job, batch, bucket);
+        }
+    }
+
+    private void publish(ReplayJob job, List<ConsumerRecord<String, byte[]>> batch, Bucket bucket) throws Exception {
+        if (job.request.dryRun()) {
+            batch.clear();
+            return;
+        }
+        bucket.asBlocking().consume(batch.size());
+
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(record -> eventKafkaTemplate.send(toCourseEvent(record)))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sends).get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+        job.published.add(batch.size());
+        meterRegistry.counter("kafka.dlq.replay.records", "result", "published").increment(batch.size());
+        batch.clear();
+    }
+
+    private ProducerRecord<String, byte[]> toCourseEvent(ConsumerRecord<String, byte[]> record) {
+        List<Header> headers = new ArrayList<>();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(DLQ_HEADER_PREFIX) && !RETRY_HEADERS.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        return new ProducerRecord<>(topicProperties.getCourseEvents(), null, record.key(), record.value(), headers);
+    }
+
+    private static boolean matches(ConsumerRecord<String, byte[]> record, DeadLetterReplayRequest request) {
+        if (request.key() != null && !request.key().equals(record.key())) {
+            return false;
+        }
+        if (request.exceptionType() == null) {
+            return true;
+        }
+        String exception = EventHeaders.value(record, DeadLetterPublisher.EXCEPTION_HEADER);
+        return exception != null
+                && (exception.equals(request.exceptionType()) || exception.endsWith("." + request.exceptionType()));
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("kafka.dlq.replay.records", "result", result).increment();
+    }
+
+    private static final class ReplayJob {
+
+        private final UUID id = UUID.randomUUID();
+        private final DeadLetterReplayRequest request;
+        private final int rate;
+        private final Instant startedAt = Instant.now();
+        private final Map<Integer, Long> positions = new ConcurrentHashMap<>();
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder matched = new LongAdder();
+        private final LongAdder published = new LongAdder();
+
+        private volatile long total;
+        private volatile boolean cancelled;
+        private volatile State state = State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private ReplayJob(DeadLetterReplayRequest request, int rate) {
+            this.request = request;
+            this.rate = rate;
+        }
+
+        private void finish(State state, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private DeadLetterReplayStatus snapshot() {
+            long scannedNow = scanned.sum();
+            double progress = state == State.COMPLETED || total == 0
+                    ? (state == State.RUNNING ? 0.0 : 1.0)
+                    : Math.min(1.0, (double) scannedNow / total);
+            return new DeadLetterReplayStatus(id, state, request, rate, scannedNow, matched.sum(), published.sum(),
+                    progress, Map.copyOf(positions), startedAt, finishedAt, error);
+        }
+    }
+}
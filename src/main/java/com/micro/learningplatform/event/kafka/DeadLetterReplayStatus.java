@@ -0,0 +1,30 @@
+package com.micro.learningplatform.event.kafka;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+public record DeadLetterReplayStatus(
+        UUID id,
+        State state,
+        DeadLetterReplayRequest request,
+        int ratePerSecond,
+        long scanned,
+        long matched,
+        long published,
+        // procitano / ukupno zapisa u odabranom rasponu
+        double progress,
+        // sljedeci offset po particiji
+        Map<Integer, Long> positions,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+}
@@ -0,0 +1,27 @@
+package com.micro.learningplatform.event.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.charset.StandardCharsets;
+
+// headeri koje OutboxRelay postavlja na course-events, consumeri po njima dedupliciraju i biraju codec
+public final class EventHeaders {
+
+    public static final String EVENT_ID = "eventId";
+    public static final String EVENT_TYPE = "eventType";
+    public static final String CONTENT_TYPE = "contentType";
+    public static final String SCHEMA_VERSION = "schemaVersion";
+
+    private EventHeaders() {
+    }
+
+    public static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static String value(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
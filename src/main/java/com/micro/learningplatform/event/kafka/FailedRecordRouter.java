@@ -0,0 +1,76 @@
+package com.micro.learningplatform.event.kafka;
+
+import com.micro.learningplatform.shared.exceptions.EventDecodingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FailedRecordRouter {
+
+    /* Usmjeravanje neuspjelih course-events zapisa: retry tierovi pa tek onda DLQ
+     * -> zapis s pokusajem n ide u retry topic n (course-events-retry-1s, -10s, -60s) s headerima
+     *    retry-attempt = n + 1 i retry-due-at = sada + odgoda tiera; CourseEventRetryConsumer ga obradi tek tada
+     *    -> glavna particija ne ceka, nastavlja s ostalim zapisima
+     * -> nakon zadnjeg tiera, ili odmah za greske koje ponavljanje ne rjesava (neispravan payload), zapis ide na DLQ
+     * -> kljuc ostaje isti, pa retry dogadaji istog tecaja u tieru zadrzavaju medusobni redoslijed
+     */
+
+    public static final String ATTEMPT_HEADER = "retry-attempt";
+    public static final String DUE_AT_HEADER = "retry-due-at";
+
+    private final KafkaTemplate<String, byte[]> eventKafkaTemplate;
+    private final KafkaTopicProperties topicProperties;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final MeterRegistry meterRegistry;
+
+    public CompletableFuture<SendResult<String, byte[]>> route(ConsumerRecord<?, ?> record, Exception exception) {
+        int attempt = attempt(record);
+        List<Duration> delays = topicProperties.getRetryDelays();
+        if (attempt >= delays.size() || exception instanceof EventDecodingException) {
+            return deadLetterPublisher.publish(record, exception);
+        }
+
+        String topic = topicProperties.retryTopic(attempt);
+        ProducerRecord<String, byte[]> retry = new ProducerRecord<>(
+                topic,
+                record.key() != null ? record.key().toString() : null,
+                DeadLetterPublisher.payload(record.value())
+        );
+        DeadLetterPublisher.copyFailureHeaders(record, exception, retry);
+        retry.headers().remove(ATTEMPT_HEADER);
+        retry.headers().remove(DUE_AT_HEADER);
+        retry.headers()
+                .add(ATTEMPT_HEADER, EventHeaders.bytes(String.valueOf(attempt + 1)))
+                .add(DUE_AT_HEADER, EventHeaders.bytes(String.valueOf(Instant.now().plus(delays.get(attempt)).toEpochMilli())));
+
+        meterRegistry.counter("kafka.retry.published", "topic", topic).increment();
+        log.info("Retrying record {}-{}@{} via {} (attempt {} of {}): {}", record.topic(), record.partition(),
+                record.offset(), topic, attempt + 1, delays.size(), exception.getMessage());
+        return eventKafkaTemplate.send(retry);
+    }
+
+    // broj dosadasnjih retry pokusaja, 0 za zapis s glavnog topica
+    public static int attempt(ConsumerRecord<?, ?> record) {
+        String attempt = EventHeaders.value(record, ATTEMPT_HEADER);
+        return attempt == null ? 0 : Integer.parseInt(attempt);
+    }
+
+    // trenutak od kojeg se zapis iz retry topica smije obraditi
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        String dueAt = EventHeaders.value(record, DUE_AT_HEADER);
+        return dueAt == null ? 0 : Long.parseLong(dueAt);
+    }
+}
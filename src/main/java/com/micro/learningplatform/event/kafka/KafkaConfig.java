@@ -2,12 +2,20 @@ package com.micro.learningplatform.event.kafka;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.CommonLoggingErrorHandler;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 @Configuration
 @RequiredArgsConstructor
@@ -38,6 +46,35 @@ public class KafkaConfig {
                 kafkaProperties.buildConsumerProperties(null));
     }
 
+    /* Domenski dogadaji i DLQ idu kao bajtovi (Smile ili JSON, vidi EventCodecs)
+     * -> String serializer bi binarni payload pokvario, pa dogadaji imaju svoj template i consumer factory
+     * -> kafkaTemplate<String, String> ostaje za test endpoint i ostale tekstualne poruke
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> eventProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(),
+                new ByteArraySerializer()
+        );
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> eventKafkaTemplate() {
+        KafkaTemplate<String, byte[]> template = new KafkaTemplate<>(eventProducerFactory());
+        template.setDefaultTopic(topicProperties.getCourseEvents());
+        return template;
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> eventConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(
+                kafkaProperties.buildConsumerProperties(null),
+                new StringDeserializer(),
+                new ByteArrayDeserializer()
+        );
+    }
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
             KafkaErrorHandler errorHandler) {
@@ -54,7 +91,84 @@ public class KafkaConfig {
         return factory;
     }
 
+    // isto kao kafkaListenerContainerFactory, ali za binarne dogadaje s course-events i DLQ-a
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> eventKafkaListenerContainerFactory(
+            KafkaErrorHandler errorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(eventConsumerFactory());
+        factory.setConcurrency(3);
+        factory.setCommonErrorHandler(errorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        factory.getContainerProperties().setDeliveryAttemptHeader(true);
+        return factory;
+    }
 
+    /* Batch factory za CourseEventBatchConsumer
+     * -> listener dobiva cijeli poll (max-poll-records) i sam potvrduje offset jednom po batchu (MANUAL)
+     * -> neispravne zapise listener sam izolira i salje u retry topic / DLQ; iznimka do ovdje dolazi samo kad
+     *    ni to ne radi, pa se cijeli batch ponavlja s backoffom umjesto da se 500 zapisa posalje dalje
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory(
+            CourseEventConsumerProperties consumerProperties) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(eventConsumerFactory());
+        factory.setConcurrency(consumerProperties.getConcurrency());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
 
-}
+        ExponentialBackOff backOff = new ExponentialBackOff(consumerProperties.getRetryBackoff().toMillis(), 2.0);
+        backOff.setMaxInterval(consumerProperties.getMaxRetryBackoff().toMillis());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
 
+    /* Factory za KeyOrderedCourseEventConsumer
+     * -> listener dobiva cijeli poll zajedno s Consumerom i sam commita low-water mark (MANUAL, bez acknowledge)
+     * -> idle event u commit intervalu omogucuje commit i kad nema novih zapisa (npr. sve particije pauzirane)
+     * -> rebalance listener ceka obradu oduzetih particija prije commita
+     * -> listener greske obraduje sam, iznimka do ovdje znaci bug pa je samo logiramo
+     *    (ponovna isporuka istog polla bi zapise pratila dvaput)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> keyOrderedKafkaListenerContainerFactory(
+            CourseEventConsumerProperties consumerProperties,
+            ObjectProvider<KeyOrderedCourseEventConsumer> keyOrderedConsumer) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(eventConsumerFactory());
+        factory.setConcurrency(consumerProperties.getConcurrency());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties()
+                .setIdleEventInterval(consumerProperties.getKeyOrdered().getCommitInterval().toMillis());
+        keyOrderedConsumer.ifAvailable(factory.getContainerProperties()::setConsumerRebalanceListener);
+        factory.setCommonErrorHandler(new CommonLoggingErrorHandler());
+        return factory;
+    }
+
+    /* Factory za retry tierove (CourseEventRetryConsumer stvara po jedan container za svaki retry topic)
+     * -> jedan consumer po tieru: zapis koji jos nije dospio nackom pauzira samo svoj tier
+     * -> iznimka do ovdje znaci da ni retry ni DLQ nisu dostupni, batch se ponavlja s backoffom
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> retryKafkaListenerContainerFactory(
+            CourseEventConsumerProperties consumerProperties) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(eventConsumerFactory());
+        factory.setConcurrency(1);
+        factory.setBatchListener(true);
+        factory.setAutoStartup(false);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(consumerProperties.getRetryBackoff().toMillis(), 2.0);
+        backOff.setMaxInterval(consumerProperties.getMaxRetryBackoff().toMillis());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+
+}
@@ -1,28 +1,22 @@
 package com.micro.learningplatform.event.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.listener.CommonErrorHandler;
 import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaErrorHandler implements CommonErrorHandler {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final KafkaTopicProperties topicProperties;
+    private final DeadLetterPublisher deadLetterPublisher;
     private final MeterRegistry meterRegistry;
-    private final ObjectMapper objectMapper;
 
 
 
@@ -50,25 +44,16 @@ public class KafkaErrorHandler implements CommonErrorHandler {
 
 
 
+    /* fire-and-forget kao i prije, neuspjelo slanje samo logiramo
+     * -> ovaj handler koriste samo dijagnosticki listeneri; retry tierovi (FailedRecordRouter) vrijede za
+     *    in-app consumere jer retry consumer zapise ponovno predaje CourseEventDispatcheru
+     */
     private void sendToDlq(ConsumerRecord<?, ?> data, Exception e) {
-        try {
-            DeadLetterMessage dlqMessage = new DeadLetterMessage(
-                    data.value(),
-                    e.getMessage(),
-                    LocalDateTime.now()
-            );
-
-            String deadLetterJson = objectMapper.writeValueAsString(dlqMessage);
-
-
-            kafkaTemplate.send(
-                    topicProperties.getDeadLetter(),
-                    data.key() != null ? data.key().toString() : null,
-                    deadLetterJson
-            );
-        } catch (Exception ex) {
-            log.error("Failed to send to DLQ", ex);
-        }
+        deadLetterPublisher.publish(data, e).whenComplete((result, error) -> {
+            if (error != null) {
+                log.error("Failed to send to DLQ", error);
+            }
+        });
     }
 
     private void recordError(Exception e) {
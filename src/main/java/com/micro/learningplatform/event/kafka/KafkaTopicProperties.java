@@ -8,6 +8,9 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "spring.kafka.topics")
 @Getter
@@ -17,12 +20,26 @@ public class KafkaTopicProperties {
 
     private String courseEvents = "course-events";
     private String deadLetter = "course-events-dlq";
-    private int retryCount = 3;
-    private long retryBackoffMs = 1000;
+    // odgoda svakog retry tiera, broj tierova je broj ponovnih pokusaja prije DLQ-a
+    private List<Duration> retryDelays = List.of(Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(60));
+
+    // course-events-retry-1s, course-events-retry-10s, ...
+    public String retryTopic(int tier) {
+        Duration delay = retryDelays.get(tier);
+        String suffix;
+        if (delay.toMillis() % 60_000 == 0 && delay.toMinutes() >= 5) {
+            suffix = delay.toMinutes() + "m";
+        } else if (delay.toMillis() % 1000 == 0) {
+            suffix = delay.toSeconds() + "s";
+        } else {
+            suffix = delay.toMillis() + "ms";
+        }
+        return courseEvents + "-retry-" + suffix;
+    }
 
     @PostConstruct
     public void logProperties() {
-        log.info("Loaded kafka topics properties: courseEvents={}, deadLetter={}, retryCount={}, retryBackoffMs={}",
-                courseEvents, deadLetter, retryCount, retryBackoffMs);
+        log.info("Loaded kafka topics properties: courseEvents={}, deadLetter={}, retryDelays={}",
+                courseEvents, deadLetter, retryDelays);
     }
 }
@@ -0,0 +1,360 @@
+package com.micro.learningplatform.event.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.micro.learningplatform.event.kafka.CourseEventDispatcher.TOPIC_TAG;
+
+@Component
+@Slf4j
+@ConditionalOnExpression("${app.kafka.course-events-consumer.enabled:true} "
+        + "and '${app.kafka.course-events-consumer.mode:KEY_ORDERED}' == 'KEY_ORDERED'")
+public class KeyOrderedCourseEventConsumer implements ConsumerAwareRebalanceListener {
+
+    /* Key-ordered paralelni consumer za course-events (mode: KEY_ORDERED)
+     * -> OutboxRelay salje dogadaje s kljucem agregata (courseId/moduleId), pa su svi dogadaji jednog tecaja
+     *    u istoj particiji i istim redoslijedom
+     * -> consumer thread samo rasporeduje zapise u redove po kljucu; svaki aktivni kljuc ima jedan zadatak na
+     *    eventConsumerExecutoru (virtualni threadovi) koji njegove dogadaje obraduje redom
+     *    -> razliciti tecajevi iz iste particije se obraduju paralelno, dogadaji istog tecaja nikad
+     *    -> paralelizam je broj aktivnih kljuceva (app.executors.event-consumers), ne broj particija
+     * -> zapisi se zavrsavaju izvan redoslijeda offseta, pa se commita low-water mark po particiji
+     *    (najmanji nezavrseni offset) -> nakon restarta se ponovi najvise ono sto je bilo u letu
+     * -> commit ide na consumer threadu: nakon svakog polla i iz idle eventa kad nema novih zapisa
+     * -> previse nezavrsenih zapisa u particiji ju pauzira dok se obrada ne spusti na pola
+     * -> greska pri obradi: dogadaji kljuca se ponove jedan po jedan, neispravni ide u retry topic
+     *    (FailedRecordRouter, nakon zadnjeg tiera DLQ), ostali kljucevi i sljedeci dogadaji istog kljuca nastavljaju
+     * -> pri rebalansu cekamo (revoke-timeout) da obrada oduzetih particija zavrsi, commitamo i odbacujemo
+     *    ostatak; novi vlasnik ga dobiva ponovno, dispatcher deduplicira po eventId-u
+     * -> obradu radi CourseEventBatchHandler (npr. CourseNotificationEventHandler), bez ijednog handlera
+     *    CourseEventDispatcher ne dopusta start ukljucenog consumera
+     */
+
+    static final String LISTENER_ID = "course-events-key-ordered";
+
+    private final CourseEventDispatcher dispatcher;
+    private final FailedRecordRouter failedRecordRouter;
+    private final CourseEventConsumerProperties properties;
+    private final CourseEventConsumerProperties.KeyOrdered settings;
+    private final ExecutorService executor;
+    private final KafkaListenerEndpointRegistry registry;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<TopicPartition, PartitionOffsets> partitions = new ConcurrentHashMap<>();
+    private final Map<String, KeyQueue> keys = new ConcurrentHashMap<>();
+    private final Set<String> stalledKeys = ConcurrentHashMap.newKeySet();
+    private final Set<TopicPartition> pausedPartitions = ConcurrentHashMap.newKeySet();
+
+    public KeyOrderedCourseEventConsumer(CourseEventDispatcher dispatcher,
+                                         FailedRecordRouter failedRecordRouter,
+                                         CourseEventConsumerProperties properties,
+                                         @Qualifier("eventConsumerExecutor") ExecutorService executor,
+                                         KafkaListenerEndpointRegistry registry,
+                                         MeterRegistry meterRegistry) {
+        this.dispatcher = dispatcher;
+        this.failedRecordRouter = failedRecordRouter;
+        this.properties = properties;
+        this.settings = properties.getKeyOrdered();
+        this.executor = executor;
+        this.registry = registry;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("kafka.consumer.key_ordered.in_flight", partitions,
+                        map -> map.values().stream().mapToInt(PartitionOffsets::inFlight).sum())
+                .tag("topic", TOPIC_TAG).register(meterRegistry);
+        Gauge.builder("kafka.consumer.key_ordered.active_keys", keys, Map::size)
+                .tag("topic", TOPIC_TAG).register(meterRegistry);
+        Gauge.builder("kafka.consumer.key_ordered.paused_partitions", pausedPartitions, Set::size)
+                .tag("topic", TOPIC_TAG).register(meterRegistry);
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "${spring.kafka.topics.course-events}",
+            groupId = "${app.kafka.course-events-consumer.group-id:learning-platform-course-events}",
+            containerFactory = "keyOrderedKafkaListenerContainerFactory"
+    )
+    public void consume(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+        Set<TopicPartition> touched = new HashSet<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            touched.add(submit(record));
+        }
+        resubmitStalled();
+        commit(consumer, consumer.assignment());
+        touched.forEach(this::pauseIfSaturated);
+    }
+
+    // idle event se objavljuje na consumer threadu, pa ovdje smijemo commitati
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        resubmitStalled();
+        commit(event.getConsumer(), event.getConsumer().assignment());
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        long deadline = System.nanoTime() + settings.getRevokeTimeout().toNanos();
+        while (inFlight(revoked) > 0 && System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int abandoned = inFlight(revoked);
+        commit(consumer, revoked);
+        release(revoked);
+        if (abandoned > 0) {
+            log.warn("Released partitions {} with {} course events still in flight, they will be redelivered",
+                    revoked, abandoned);
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+        // particije vec imaju novog vlasnika, commit bi bio odbijen
+        release(lost);
+    }
+
+    private TopicPartition submit(ConsumerRecord<String, byte[]> record) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        PartitionOffsets offsets = partitions.computeIfAbsent(partition, tp -> new PartitionOffsets());
+        offsets.track(record.offset());
+
+        // zapisi bez kljuca nemaju redoslijed koji treba cuvati, svaki je svoj kljuc
+        String key = record.key() != null ? record.key() : partition + "@" + record.offset();
+        Pending pending = new Pending(record, partition, offsets);
+        KeyQueue queue = keys.compute(key, (k, existing) -> {
+            KeyQueue target = existing != null ? existing : new KeyQueue();
+            target.records.add(pending);
+            return target;
+        });
+        schedule(key, queue);
+        return partition;
+    }
+
+    private void schedule(String key, KeyQueue queue) {
+        if (!queue.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(key, queue));
+        } catch (RejectedExecutionException e) {
+            // executor je pun, kljuc ponovno rasporedujemo na sljedecem pollu ili idle eventu
+            queue.scheduled.set(false);
+            stalledKeys.add(key);
+            meterRegistry.counter("kafka.consumer.key_ordered.stalled", "topic", TOPIC_TAG).increment();
+        }
+    }
+
+    private void resubmitStalled() {
+        for (String key : stalledKeys) {
+            stalledKeys.remove(key);
+            KeyQueue queue = keys.get(key);
+            if (queue != null) {
+                schedule(key, queue);
+            }
+        }
+    }
+
+    // jedan zadatak po kljucu u isto vrijeme, pa se dogadaji kljuca obraduju redom
+    private void drain(String key, KeyQueue queue) {
+        while (true) {
+            List<Pending> batch = new ArrayList<>();
+            Pending next;
+            while (batch.size() < settings.getMaxKeyBatch() && (next = queue.records.poll()) != null) {
+                batch.add(next);
+            }
+            if (!batch.isEmpty()) {
+                process(batch);
+                continue;
+            }
+
+            queue.scheduled.set(false);
+            // submit je mogao dodati zapis izmedu poll-a i resetiranja zastavice
+            if (!queue.records.isEmpty() && queue.scheduled.compareAndSet(false, true)) {
+                continue;
+            }
+            keys.computeIfPresent(key, (k, existing) ->
+                    existing == queue && existing.records.isEmpty() && !existing.scheduled.get() ? null : existing);
+            return;
+        }
+    }
+
+    private void process(List<Pending> batch) {
+        // zapisi oduzetih particija se ne obraduju, dobit ce ih novi vlasnik
+        List<Pending> live = batch.stream().filter(pending -> !pending.offsets().isRevoked()).toList();
+        if (live.isEmpty()) {
+            return;
+        }
+        try {
+            dispatcher.dispatch(live.stream().map(Pending::record).toList());
+            live.forEach(this::complete);
+            meterRegistry.counter("kafka.consumer.records", "topic", TOPIC_TAG, "result", "processed")
+                    .increment(live.size());
+        } catch (Exception e) {
+            // redom jedan po jedan, tako da neispravni zapis ne blokira ostale dogadaje kljuca
+            live.forEach(this::processOne);
+        }
+    }
+
+    private void processOne(Pending pending) {
+        try {
+            dispatcher.dispatch(List.of(pending.record()));
+            meterRegistry.counter("kafka.consumer.records", "topic", TOPIC_TAG, "result", "processed").increment();
+        } catch (Exception e) {
+            if (!routeFailed(pending, e)) {
+                // ostaje u letu, low-water mark stoji i zapis ce se ponovno isporuciti
+                return;
+            }
+        }
+        complete(pending);
+    }
+
+    // ceka potvrdu retry topica / DLQ-a; dok nisu dostupni ponavlja s backoffom i blokira samo ovaj kljuc
+    private boolean routeFailed(Pending pending, Exception exception) {
+        Duration backoff = properties.getRetryBackoff();
+        while (!pending.offsets().isRevoked()) {
+            try {
+                failedRecordRouter.route(pending.record(), exception)
+                        .get(properties.getDeadLetterTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                meterRegistry.counter("kafka.consumer.records", "topic", TOPIC_TAG, "result", "failed").increment();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                log.error("Could not route failed course event {}-{}@{}, retrying in {}", pending.record().topic(),
+                        pending.record().partition(), pending.record().offset(), backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(properties.getMaxRetryBackoff()) > 0
+                        ? properties.getMaxRetryBackoff() : backoff.multipliedBy(2);
+            }
+        }
+        return false;
+    }
+
+    private void complete(Pending pending) {
+        pending.offsets().complete(pending.record().offset());
+        resumeIfDrained(pending.partition(), pending.offsets());
+    }
+
+    private void commit(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        for (TopicPartition partition : assigned) {
+            PartitionOffsets offsets = partitions.get(partition);
+            long offset = offsets == null ? -1 : offsets.pendingCommit();
+            if (offset >= 0) {
+                commits.put(partition, new OffsetAndMetadata(offset));
+            }
+        }
+        if (commits.isEmpty()) {
+            return;
+        }
+        try {
+            consumer.commitSync(commits);
+            commits.forEach((partition, offset) -> partitions.get(partition).committed(offset.offset()));
+            meterRegistry.counter("kafka.consumer.key_ordered.commits", "topic", TOPIC_TAG).increment();
+        } catch (RuntimeException e) {
+            // sljedeci poll ili idle event commita ponovno, low-water mark se samo povecava
+            log.warn("Could not commit course event offsets {}: {}", commits, e.getMessage());
+        }
+    }
+
+    // pause/resume pod lockom particije da se resume radnika i pause consumer threada ne isprepletu
+    private void pauseIfSaturated(TopicPartition partition) {
+        PartitionOffsets offsets = partitions.get(partition);
+        MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+        if (offsets == null || container == null) {
+            return;
+        }
+        synchronized (offsets) {
+            if (offsets.inFlight() >= settings.getMaxInFlightPerPartition() && pausedPartitions.add(partition)) {
+                container.pausePartition(partition);
+                log.debug("Paused {} with {} course events in flight", partition, offsets.inFlight());
+            }
+        }
+    }
+
+    private void resumeIfDrained(TopicPartition partition, PartitionOffsets offsets) {
+        if (!pausedPartitions.contains(partition)) {
+            return;
+        }
+        synchronized (offsets) {
+            if (offsets.inFlight() <= settings.getMaxInFlightPerPartition() / 2 && pausedPartitions.remove(partition)) {
+                resume(partition);
+            }
+        }
+    }
+
+    private void release(Collection<TopicPartition> released) {
+        for (TopicPartition partition : released) {
+            PartitionOffsets offsets = partitions.remove(partition);
+            if (offsets != null) {
+                offsets.revoke();
+            }
+            // zahtjev za pauzu ostaje u containeru, ne zelimo da particija pri ponovnom dodjeljivanju bude pauzirana
+            if (pausedPartitions.remove(partition)) {
+                resume(partition);
+            }
+        }
+    }
+
+    private void resume(TopicPartition partition) {
+        MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+        if (container != null) {
+            container.resumePartition(partition);
+        }
+    }
+
+    private int inFlight(Collection<TopicPartition> assigned) {
+        return assigned.stream()
+                .map(partitions::get)
+                .filter(offsets -> offsets != null)
+                .mapToInt(PartitionOffsets::inFlight)
+                .sum();
+    }
+
+    private static final class KeyQueue {
+        private final ConcurrentLinkedQueue<Pending> records = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+
+    private record Pending(ConsumerRecord<String, byte[]> record, TopicPartition partition, PartitionOffsets offsets) {
+    }
+}
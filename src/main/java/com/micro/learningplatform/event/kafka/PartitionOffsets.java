@@ -0,0 +1,59 @@
+package com.micro.learningplatform.event.kafka;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Offseti jedne particije koji su predani na obradu a jos nisu zavrseni
+ * -> track zove consumer thread redom kojim zapisi dolaze, complete zovu workeri bilo kojim redom
+ * -> low-water mark je najmanji nezavrseni offset (ili sljedeci ocekivani ako nema nezavrsenih);
+ *    commit tog offseta znaci da je sve ispod njega obradeno, pa restart ne gubi dogadaje
+ */
+final class PartitionOffsets {
+
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private volatile long nextOffset = -1;
+    private volatile boolean revoked;
+    // zadnji commitani offset, koristi ga samo consumer thread
+    private long committed = -1;
+
+    void track(long offset) {
+        inFlight.add(offset);
+        inFlightCount.incrementAndGet();
+        nextOffset = offset + 1;
+    }
+
+    void complete(long offset) {
+        if (inFlight.remove(offset)) {
+            inFlightCount.decrementAndGet();
+        }
+    }
+
+    // -1 dok particija nije vidjela nijedan zapis
+    long lowWaterMark() {
+        Long first = inFlight.isEmpty() ? null : inFlight.ceiling(Long.MIN_VALUE);
+        return first != null ? first : nextOffset;
+    }
+
+    int inFlight() {
+        return inFlightCount.get();
+    }
+
+    boolean isRevoked() {
+        return revoked;
+    }
+
+    void revoke() {
+        revoked = true;
+    }
+
+    // offset za commit ili -1 ako se low-water mark nije pomaknuo od zadnjeg commita
+    long pendingCommit() {
+        long lowWaterMark = lowWaterMark();
+        return lowWaterMark > committed ? lowWaterMark : -1;
+    }
+
+    void committed(long offset) {
+        committed = offset;
+    }
+}
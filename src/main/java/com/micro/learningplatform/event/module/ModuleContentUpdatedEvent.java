@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record ModuleContentUpdatedEvent(
+        UUID eventId,
         UUID moduleId,
         ModuleData previousContent,
         ModuleData newContent,
@@ -13,7 +14,7 @@ public record ModuleContentUpdatedEvent(
 ) implements ModuleEvent {
 
     public ModuleContentUpdatedEvent(UUID moduleId, ModuleData previousContent, ModuleData newContent) {
-        this(moduleId, previousContent, newContent, LocalDateTime.now());
+        this(UUID.randomUUID(), moduleId, previousContent, newContent, LocalDateTime.now());
     }
 
     @Override
@@ -23,7 +24,7 @@ public record ModuleContentUpdatedEvent(
 
     @Override
     public UUID getEventId() {
-        return null;
+        return eventId;
     }
 
     @Override
@@ -4,12 +4,13 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record ModuleCreatedEvent (
+        UUID eventId,
         UUID moduleId,
         LocalDateTime timestamp
 ) implements ModuleEvent {
 
     public ModuleCreatedEvent(UUID moduleId) {
-        this(moduleId, LocalDateTime.now());
+        this(UUID.randomUUID(), moduleId, LocalDateTime.now());
     }
 
     @Override
@@ -19,7 +20,7 @@ public record ModuleCreatedEvent (
 
     @Override
     public UUID getEventId() {
-        return null;
+        return eventId;
     }
 
     @Override
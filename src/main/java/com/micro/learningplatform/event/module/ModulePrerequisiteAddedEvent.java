@@ -4,13 +4,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record ModulePrerequisiteAddedEvent(
+        UUID eventId,
         UUID moduleId,
         UUID prerequisiteId,
         LocalDateTime timestamp
 ) implements ModuleEvent {
 
     public ModulePrerequisiteAddedEvent(UUID moduleId, UUID prerequisiteId) {
-        this(moduleId, prerequisiteId, LocalDateTime.now());
+        this(UUID.randomUUID(), moduleId, prerequisiteId, LocalDateTime.now());
     }
 
     @Override
@@ -20,7 +21,7 @@ public record ModulePrerequisiteAddedEvent(
 
     @Override
     public UUID getEventId() {
-        return null;
+        return eventId;
     }
 
     @Override
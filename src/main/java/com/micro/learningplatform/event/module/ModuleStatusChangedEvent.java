@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record ModuleStatusChangedEvent(
+        UUID eventId,
         UUID moduleId,
         ModuleStatus previousStatus,
         ModuleStatus newStatus,
@@ -13,7 +14,7 @@ public record ModuleStatusChangedEvent(
 ) implements ModuleEvent {
 
     public ModuleStatusChangedEvent(UUID moduleId, ModuleStatus previousStatus, ModuleStatus newStatus) {
-        this(moduleId, previousStatus, newStatus, LocalDateTime.now());
+        this(UUID.randomUUID(), moduleId, previousStatus, newStatus, LocalDateTime.now());
     }
 
     @Override
@@ -23,7 +24,7 @@ public record ModuleStatusChangedEvent(
 
     @Override
     public UUID getEventId() {
-        return null;
+        return eventId;
     }
 
     @Override
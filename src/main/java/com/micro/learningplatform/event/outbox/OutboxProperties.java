@@ -0,0 +1,18 @@
+package com.micro.learningplatform.event.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.outbox")
+@Getter
+@Setter
+public class OutboxProperties {
+
+    private boolean relayEnabled = true;
+    private int batchSize = 500;
+    private long pollIntervalMs = 500;
+    private long sendTimeoutMs = 10_000;
+}
@@ -0,0 +1,126 @@
+package com.micro.learningplatform.event.outbox;
+
+import com.micro.learningplatform.event.kafka.EventHeaders;
+import com.micro.learningplatform.event.kafka.KafkaTopicProperties;
+import com.micro.learningplatform.models.OutboxEvent;
+import com.micro.learningplatform.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "app.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    /* Relay koji prazni event_outbox tablicu prema kafki
+     * 1. uzme advisory lock relaya pa batch salje samo jedna instanca; ostale preskacu krug
+     *    -> paralelni relayi bi mogli poslati dogadaje istog agregata izvan redoslijeda
+     *    zatim zakljuca batch zapisa po sequence_number (FOR UPDATE)
+     * 2. posalje cijeli batch odjednom, producer ih grupira (linger.ms, idempotentni producer)
+     * 3. ceka potvrdu brokera za sve zapise i tek onda ih brise u istoj transakciji
+     *  -> ako padnemo izmedu slanja i brisanja zapis ce se poslati ponovno (at-least-once),
+     *     consumeri dedupliciraju po eventId headeru
+     * -> payload se salje kakav je u outboxu (bajtovi), contentType i schemaVersion headeri govore kako ga citati
+     * -> kljuc poruke je id agregata (tecaj/modul), pa svi dogadaji agregata idu u istu particiju redom
+     *    kojim su zapisani; lockNextBatch cita po sequence_number, a producer je idempotentan pa redoslijed ostaje
+     */
+
+    // proizvoljan kljuc advisory locka, isti na svim instancama
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private final OutboxEventRepository outboxRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final KafkaTopicProperties topicProperties;
+    private final OutboxProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       KafkaTopicProperties topicProperties,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topicProperties = topicProperties;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // prazni outbox dok god dobivamo pune batcheve, svaki batch u svojoj kratkoj transakciji
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> publishNextBatch());
+        } while (published != null && published == properties.getBatchSize());
+    }
+
+    private int publishNextBatch() {
+        if (!outboxRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+            meterRegistry.counter("outbox.relay.lock.skipped").increment();
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = batch.stream()
+                .map(this::send)
+                .toList();
+        kafkaTemplate.flush();
+
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                    .get(properties.getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // rollback transakcije ostavlja zapise u outboxu za sljedeci pokusaj
+            meterRegistry.counter("outbox.relay.error", "exception", e.getClass().getSimpleName()).increment();
+            throw new IllegalStateException("Failed to publish outbox batch of " + batch.size() + " events", e);
+        }
+
+        outboxRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+
+        sample.stop(meterRegistry.timer("outbox.relay.batch", "topic", topicProperties.getCourseEvents()));
+        meterRegistry.counter("outbox.relay.published", "topic", topicProperties.getCourseEvents())
+                .increment(batch.size());
+        log.debug("Relayed {} outbox events to {}", batch.size(), topicProperties.getCourseEvents());
+        return batch.size();
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> send(OutboxEvent event) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                topicProperties.getCourseEvents(),
+                messageKey(event),
+                event.getPayload()
+        );
+        record.headers()
+                .add(EventHeaders.EVENT_ID, EventHeaders.bytes(event.getId().toString()))
+                .add(EventHeaders.EVENT_TYPE, EventHeaders.bytes(event.getEventType()))
+                .add(EventHeaders.CONTENT_TYPE, EventHeaders.bytes(event.getContentType()))
+                .add(EventHeaders.SCHEMA_VERSION, EventHeaders.bytes(String.valueOf(event.getSchemaVersion())));
+        return kafkaTemplate.send(record);
+    }
+
+    // dogadaji bez agregata nemaju redoslijed koji treba cuvati, za njih ostaje id outbox zapisa
+    private static String messageKey(OutboxEvent event) {
+        return event.getAggregateId() != null ? event.getAggregateId().toString() : event.getId().toString();
+    }
+}
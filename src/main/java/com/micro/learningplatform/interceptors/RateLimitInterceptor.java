@@ -1,63 +1,80 @@
 package com.micro.learningplatform.interceptors;
 
 import com.micro.learningplatform.shared.RateLimiterManager;
-import com.micro.learningplatform.shared.exceptions.RateLimitExceededException;
-import io.github.bucket4j.Bucket;
+import com.micro.learningplatform.shared.ratelimit.RateLimitProperties;
 import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.security.Principal;
+
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class RateLimitInterceptor implements HandlerInterceptor {
 
     private final RateLimiterManager rateLimiterManager;
+    private final MeterRegistry meterRegistry;
 
 
 
-    @SneakyThrows
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RateLimitProperties.Policy policy = rateLimiterManager.resolvePolicy(request);
         String cliendId = extractClientId(request);
-        Bucket bucket = rateLimiterManager.resolveBucket(cliendId);
 
-        // Pokušavamo potrošiti 1 token i dobivamo informacije o potrošnji
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        ConsumptionProbe probe;
+        try {
+            // Pokušavamo potrošiti 1 token i dobivamo informacije o potrošnji
+            probe = rateLimiterManager.resolveBucket(cliendId, policy).tryConsumeAndReturnRemaining(1);
+        } catch (Exception e) {
+            // ako backend (redis) nije dostupan propustamo zahtjev, rate limiter ne smije srusiti api
+            log.error("Rate limit backend unavailable, allowing request for client {}", cliendId, e);
+            meterRegistry.counter("rate_limit.backend.error").increment();
+            return true;
+        }
+
+        response.addHeader("X-RateLimit-Limit", String.valueOf(policy.getCapacity()));
+        response.addHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
 
         // Provjeravamo imamo li još dostupnih tokena
         if (!probe.isConsumed()) {
-           // Dodajemo korisne informacije u response
-            response.addHeader("X-RateLimit-Limit", "100");
-            response.addHeader("X-RateLimit-Remaining", "0");
-            response.addHeader("X-RateLimit-Reset",
-                    String.valueOf(calculateResetTime(probe)));
-
+            long resetSeconds = calculateResetTime(probe);
+            response.addHeader("X-RateLimit-Reset", String.valueOf(resetSeconds));
+            response.addHeader(HttpHeaders.RETRY_AFTER, String.valueOf(resetSeconds));
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            throw new RateLimitExceededException(
-                    "Rate limit exceeded for client: " + cliendId);
-
+            meterRegistry.counter("rate_limit.rejected", "policy", policy.getName()).increment();
+            log.debug("Rate limit exceeded for client {} on policy {}", cliendId, policy.getName());
+            // odbijamo bez iznimke, stack trace po odbijenom zahtjevu je skup bas kad nas netko preoptereti
+            return false;
         }
 
         return true;
     }
 
+    /* Kljuc bucketa mora biti nesto sto klijent ne bira sam
+     * -> X-API-Key se nigdje ne provjerava; klijent bi rotiranjem vrijednosti dobio novi bucket na svakom
+     *    zahtjevu i napunio ogranicen lokalni store tudim bucketima
+     * -> prijavljeni korisnik (JWT provjeren u security filteru) ima isti limit neovisno o IP adresi,
+     *    ostali se ogranicavaju po adresi
+     */
     private String extractClientId(HttpServletRequest request) {
-        // Prvo pokušavamo iz API ključa
-        String apiKey = request.getHeader("X-API-Key");
-        if (apiKey != null) {
-            return apiKey;
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
         }
-        // Ako nemamo API ključ, koristimo IP adresu
-        return request.getRemoteAddr();
+        return "ip:" + request.getRemoteAddr();
     }
 
     private long calculateResetTime(ConsumptionProbe probe) {
-        // Vraća vrijeme u sekundama do sljedećeg punjenja tokena
-        return probe.getNanosToWaitForRefill() / 1_000_000_000;
+        // Vraća vrijeme u sekundama do sljedećeg punjenja tokena (zaokruzeno na gore)
+        return (probe.getNanosToWaitForRefill() + 999_999_999) / 1_000_000_000;
     }
 }
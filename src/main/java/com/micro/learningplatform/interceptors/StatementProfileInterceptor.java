@@ -0,0 +1,33 @@
+package com.micro.learningplatform.interceptors;
+
+import com.micro.learningplatform.shared.performace.StatementProfiler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Component
+@RequiredArgsConstructor
+public class StatementProfileInterceptor implements HandlerInterceptor {
+
+    /* Otvara profil SQL naredbi za HTTP zahtjev
+     * -> endpoint je metoda + uzorak putanje (/api/v1/courses/{id}), ne stvarna putanja, da broj kljuceva ostane malen
+     * -> sampling se odlucuje ovdje, jednom po zahtjevu
+     */
+
+    private final StatementProfiler statementProfiler;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        statementProfiler.beginRequest(request.getMethod() + " " + (pattern != null ? pattern : "unmapped"));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        statementProfiler.endRequest();
+    }
+}
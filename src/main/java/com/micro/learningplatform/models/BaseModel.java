@@ -11,6 +11,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.AfterDomainEventPublication;
+import org.springframework.data.domain.DomainEvents;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.Duration;
@@ -82,8 +84,9 @@ public abstract class BaseModel {
       * -> sluzi za privremeno spremanje događaja koja ce se obraditi nakon uspiješne trnsakcije
       * Domain event prestavlja događaje u domeni npr -> kreiranje korisnika
      */
+    // LinkedHashSet: redoslijed registracije je redoslijed zapisa u outboxu
     @Transient
-    private final Set<DomainEvent> pendingEvents = new HashSet<>();
+    private final Set<DomainEvent> pendingEvents = new LinkedHashSet<>();
 
 
     protected BaseModel (){
@@ -96,14 +99,27 @@ public abstract class BaseModel {
         log.debug("Registering event {}", event);
     }
 
+    /* Preuzima dogadaje entiteta koji se sprema kaskadom kroz ovaj agregat
+     * -> @DomainEvents se zove samo za entitet predan u save(), dogadaji djeteta bi se inace izgubili
+     */
+    protected void adoptEvents(BaseModel child) {
+        pendingEvents.addAll(child.pendingEvents);
+        child.pendingEvents.clear();
+    }
+
     /*
-       * -> @PostPersist i @PostUpdate: - callback metode koje se pozivaju nakong uspiješnog spremaja ili azurirana entita
-       *  Nakon obrade micemo evente iz privremenog popisa
+       * -> @DomainEvents: spring data nakon save()/saveAll() objavi ove dogadaje kroz ApplicationEventPublisher
+       *    unutar iste transakcije, EventHanlder ih zapisuje u outbox tablicu
+       * -> @AfterDomainEventPublication: nakon objave micemo evente iz privremenog popisa
+       *  (prije se popis praznio na @PrePersist pa dogadaji nikad nisu bili objavljeni)
      */
-    @PrePersist
-    @PostUpdate
+    @DomainEvents
+    protected Collection<DomainEvent> domainEvents() {
+        return List.copyOf(pendingEvents);
+    }
+
+    @AfterDomainEventPublication
     protected void publishEvents() {
-        // event koji ce biti obavljen nakon uspiješne transakcije
         pendingEvents.clear();
     }
 
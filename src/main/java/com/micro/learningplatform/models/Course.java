@@ -20,7 +20,6 @@ import org.hibernate.annotations.Cache;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "courses")
@@ -148,15 +147,16 @@ public class Course extends BaseModel{
 
     // Domenski  metode/logika
 
-    // valditira i dodajem module, te azurira statisitku, kreira snap i registira događaj
+    // valditira i dodajem module, te azurira statisitku i registira događaj
+    // snapshot povijesti ne nastaje ovdje nego jednom po commitu (StatisticsSnapshotWriter)
     public void addModule(CourseModule module) {
         validateModuleAddition(module);
         module.setCourse(this);
+        adoptEvents(module);
         modules.add(module);
         statisticsSnapshot.incrementModuleCount();
         statisticsSnapshot.addDuration(module.getDuration());
-        courseStatistics.recalculate(modules);
-        createSnapshot();
+        courseStatistics.moduleAdded(module);
         registerEvent(new CourseModuleAddedEvent(this.getId(), module.getId()));
     }
 
@@ -168,12 +168,26 @@ public class Course extends BaseModel{
         module.setCourse(null);
         statisticsSnapshot.decrementModuleCount();
         statisticsSnapshot.subtractDuration(module.getDuration());
-        courseStatistics.recalculate(modules);
-        createSnapshot(); // Stvara snimku nakon izmjene
+        courseStatistics.moduleRemoved(module);
 
         //registerEvent(new CourseModuleRemovedEvent(this.getId(), module.getId())); // Registrira događaj
     }
 
+    // moduli javljaju promjene koje uticu na statistiku, agregati se azuriraju bez prolaska kroz sve module
+    void moduleStatusChanged(ModuleStatus previousStatus, ModuleStatus newStatus) {
+        if (courseStatistics != null) {
+            courseStatistics.moduleStatusChanged(previousStatus, newStatus);
+        }
+    }
+
+    void moduleDurationChanged(Duration previousDuration, Duration newDuration) {
+        statisticsSnapshot.subtractDuration(previousDuration == null ? Duration.ZERO : previousDuration);
+        statisticsSnapshot.addDuration(newDuration == null ? Duration.ZERO : newDuration);
+        if (courseStatistics != null) {
+            courseStatistics.moduleDurationChanged(previousDuration, newDuration);
+        }
+    }
+
    // Provjerava uvjete za objavu, mijenja status i registrira događaj promjene statusa.
     public void publish() {
         if (!this.courseStatus.canTransitionTo(CourseStatus.PUBLISHED)) {
@@ -259,18 +273,6 @@ public class Course extends BaseModel{
     }
 
 
-    private void createSnapshot() {
-        CourseStatisticHistory snapshot = CourseStatisticHistory.createSnapshot(courseStatistics);
-        statisticHistory.add(snapshot); // Koristimo add jer je lista sortirana s @OrderBy
-    }
-
-    public List<CourseStatisticHistory> getStatisticHistory(LocalDateTime startDate, LocalDateTime endDate) {
-        return statisticHistory.stream()
-                .filter(history -> history.getSnapshotTimestamp().isAfter(startDate) &&
-                        history.getSnapshotTimestamp().isBefore(endDate))
-                .collect(Collectors.toList());
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,5 +1,6 @@
 package com.micro.learningplatform.models;
 
+import com.micro.learningplatform.event.DomainEvent;
 import com.micro.learningplatform.event.module.ModuleContentUpdatedEvent;
 import com.micro.learningplatform.event.module.ModuleCreatedEvent;
 import com.micro.learningplatform.event.module.ModulePrerequisiteAddedEvent;
@@ -45,7 +46,6 @@ public class CourseModule extends BaseModel {
     private static final Logger log = LogManager.getLogger(CourseModule.class);
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -86,9 +86,21 @@ public class CourseModule extends BaseModel {
 
     protected CourseModule() {
         // super();
+        // id prije spremanja kao i kod Course: ModuleCreatedEvent nosi stvarni id, a equals radi i za nove module
+        this.id = UUID.randomUUID();
         setCategory(EntityCategory.MODULE);
     }
 
+    // modul se sprema kaskadom kroz Course, pa dogadaje vezanog modula objavljuje tecaj uz svoj save()
+    @Override
+    protected void registerEvent(DomainEvent event) {
+        if (course != null) {
+            course.registerEvent(event);
+        } else {
+            super.registerEvent(event);
+        }
+    }
+
     // Postavlja naslov, opis, redni broj i trajanje. i registira događaj
     public static CourseModule create(CreateModuleRequest request) {
         validateRequest(request);
@@ -117,6 +129,9 @@ public class CourseModule extends BaseModel {
         this.title = request.title();
         this.description = request.description();
         this.duration = request.duration();
+        if (course != null) {
+            course.moduleDurationChanged(previousContent.duration(), this.duration);
+        }
 
         registerEvent(new ModuleContentUpdatedEvent(
                 this.getId(),
@@ -137,6 +152,7 @@ public class CourseModule extends BaseModel {
         validateModuleIsEditable();
         ModuleStatus previousStatus = this.status;
         this.status = ModuleStatus.PUBLISHED;
+        notifyCourseOfStatusChange(previousStatus);
         registerEvent(new ModuleStatusChangedEvent(this.getId(), previousStatus, ModuleStatus.PUBLISHED));
     }
 
@@ -145,9 +161,16 @@ public class CourseModule extends BaseModel {
             throw new ModuleStateException("Only published modules can be marked as completed");
         }
         this.status = ModuleStatus.COMPLETED;
+        notifyCourseOfStatusChange(ModuleStatus.PUBLISHED);
         registerEvent(new ModuleStatusChangedEvent(this.getId(), ModuleStatus.PUBLISHED, ModuleStatus.COMPLETED));
     }
 
+    private void notifyCourseOfStatusChange(ModuleStatus previousStatus) {
+        if (course != null) {
+            course.moduleStatusChanged(previousStatus, this.status);
+        }
+    }
+
     private void validateModuleIsEditable() {
         if (!isEditableState()) {
             throw new ModuleStateException("Modul can be edit only in DRAFT stauts");
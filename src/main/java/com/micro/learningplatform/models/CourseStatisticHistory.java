@@ -15,11 +15,16 @@ import java.util.UUID;
 @ToString
 @AllArgsConstructor
 @Table(name = "course_statistics_history")
+@IdClass(CourseStatisticHistoryId.class)
 @Slf4j
 public class CourseStatisticHistory {
 
+    /* Tablica je particionirana po snapshot_timestamp (db/bootstrap/statistics_history_partitioning.sql)
+     * -> kljuc particije mora biti dio primarnog kljuca, pa je kljuc (id, snapshot_timestamp)
+     * -> id dodjeljuje StatisticsSnapshotWriter, generator ne radi nad dijelom slozenog kljuca
+     */
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID Id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -42,26 +47,11 @@ public class CourseStatisticHistory {
     @Column(name = "difficulty_score", nullable = false)
     private BigDecimal difficultyScore;
 
+    @Id
     @Column(name = "snapshot_timestamp", nullable = false)
     private LocalDateTime snapshotTimestamp;
 
     protected CourseStatisticHistory() {
     }
 
-    // Factory metoda za kreiranje povijesnog zapisa
-    public static CourseStatisticHistory createSnapshot(CourseStatistics statistics) {
-        return new CourseStatisticHistory(
-                null,
-                statistics.getCourse(),
-                statistics.getCourse().getStatisticsSnapshot().getTotalModules(),
-                statistics.getCourse().getStatisticsSnapshot().getTotalDuration(),
-                statistics.getAverageModuleDuration(),
-                statistics.getCompletionRate(),
-                statistics.getDifficultyScore(),
-                LocalDateTime.now()
-        );
-    }
-
-
 }
-
@@ -0,0 +1,22 @@
+package com.micro.learningplatform.models;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// kljuc CourseStatisticHistory, nazivi polja moraju odgovarati @Id poljima entiteta
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class CourseStatisticHistoryId implements Serializable {
+
+    private UUID Id;
+    private LocalDateTime snapshotTimestamp;
+}
@@ -1,5 +1,6 @@
 package com.micro.learningplatform.models;
 
+import com.micro.learningplatform.shared.StatisticsSnapshotListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -18,6 +19,7 @@ import java.util.UUID;
 @ToString
 @NoArgsConstructor
 @Table(name = "course_statistics")
+@EntityListeners(StatisticsSnapshotListener.class) // povijest statistike pise StatisticsSnapshotWriter
 public class CourseStatistics {
 
     /**
@@ -61,55 +63,108 @@ public class CourseStatistics {
     protected CourseStatistics(Course course) {
         this.courseId = course.getId();
         this.course = course;
+        refreshDerived();
     }
 
 
-    public void recalculate(Set<CourseModule> modules) {
-        calculateAverageModuleDuration(modules);
-        calculateCompletionRate(modules);
-        calculateDifficultyScore(modules);
-        this.lastCalculated = LocalDateTime.now();
-    }
+    /* Tekuci agregati, odrzavaju se inkrementalno na svaku promjenu modula (O(1))
+     * -> izvedene vrijednosti (prosjek, postotak, tezina) racunaju se iz njih bez prolaska kroz module
+     * -> citanje statistike nikad ne pokrece izracun
+     * -> CourseStatisticsReconciler periodicki usporeduje agregate sa stanjem u course_modules
+     */
+    @Column(name = "module_count", nullable = false)
+    private int moduleCount;
 
-    private void calculateAverageModuleDuration(Set<CourseModule> modules) {
-        if (modules.isEmpty()) {
-            this.averageModuleDuration = Duration.ZERO;
-            return;
+    @Column(name = "total_module_duration", nullable = false)
+    private Duration totalModuleDuration = Duration.ZERO;
+
+    @Column(name = "completed_modules", nullable = false)
+    private int completedModules;
+
+    @Column(name = "difficulty_score_sum", nullable = false)
+    private int difficultyScoreSum;
+
+    public void moduleAdded(CourseModule module) {
+        moduleCount++;
+        totalModuleDuration = totalModuleDuration.plus(durationOf(module));
+        if (module.getStatus() == ModuleStatus.COMPLETED) {
+            completedModules++;
         }
+        difficultyScoreSum += difficultyScoreOf(module);
+        refreshDerived();
+    }
 
-        Duration totalDuration = modules.stream()
-                .map(CourseModule::getDuration)
-                .reduce(Duration.ZERO, Duration::plus);
-        this.averageModuleDuration = totalDuration.dividedBy(modules.size());
+    public void moduleRemoved(CourseModule module) {
+        moduleCount--;
+        totalModuleDuration = totalModuleDuration.minus(durationOf(module));
+        if (module.getStatus() == ModuleStatus.COMPLETED) {
+            completedModules--;
+        }
+        difficultyScoreSum -= difficultyScoreOf(module);
+        refreshDerived();
     }
 
-    private void calculateCompletionRate(Set<CourseModule> modules) {
-        if (modules.isEmpty()) {
-            this.completionRate = BigDecimal.ZERO;
+    public void moduleStatusChanged(ModuleStatus previousStatus, ModuleStatus newStatus) {
+        if (previousStatus == newStatus) {
             return;
         }
+        if (previousStatus == ModuleStatus.COMPLETED) {
+            completedModules--;
+        }
+        if (newStatus == ModuleStatus.COMPLETED) {
+            completedModules++;
+        }
+        refreshDerived();
+    }
 
-        long completedModules = modules.stream()
-                .filter(module -> module.getStatus() == ModuleStatus.COMPLETED)
-                .count();
+    public void moduleDurationChanged(Duration previousDuration, Duration newDuration) {
+        totalModuleDuration = totalModuleDuration
+                .minus(previousDuration == null ? Duration.ZERO : previousDuration)
+                .plus(newDuration == null ? Duration.ZERO : newDuration);
+        refreshDerived();
+    }
 
-        this.completionRate = BigDecimal.valueOf(completedModules)
-                .divide(BigDecimal.valueOf(modules.size()), 2, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100));
+    // puni izracun iz modula, koristi se samo kad agregati nisu pouzdani (npr. rucna korekcija)
+    public void recalculate(Set<CourseModule> modules) {
+        moduleCount = 0;
+        totalModuleDuration = Duration.ZERO;
+        completedModules = 0;
+        difficultyScoreSum = 0;
+        for (CourseModule module : modules) {
+            moduleCount++;
+            totalModuleDuration = totalModuleDuration.plus(durationOf(module));
+            if (module.getStatus() == ModuleStatus.COMPLETED) {
+                completedModules++;
+            }
+            difficultyScoreSum += difficultyScoreOf(module);
+        }
+        refreshDerived();
     }
 
-    private void calculateDifficultyScore(Set<CourseModule> modules) {
-        if (modules.isEmpty()) {
+    private void refreshDerived() {
+        if (moduleCount <= 0) {
+            this.averageModuleDuration = Duration.ZERO;
+            this.completionRate = BigDecimal.ZERO;
             this.difficultyScore = BigDecimal.ZERO;
-            return;
+        } else {
+            BigDecimal count = BigDecimal.valueOf(moduleCount);
+            this.averageModuleDuration = totalModuleDuration.dividedBy(moduleCount);
+            this.completionRate = BigDecimal.valueOf(completedModules)
+                    .divide(count, 2, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+            this.difficultyScore = BigDecimal.valueOf(difficultyScoreSum)
+                    .divide(count, 2, RoundingMode.HALF_UP);
         }
+        this.lastCalculated = LocalDateTime.now();
+    }
 
-        int totalDifficultyScore = modules.stream()
-                .mapToInt(module -> module.getDifficultyLevel().getScore())
-                .sum();
+    private static Duration durationOf(CourseModule module) {
+        return module.getDuration() == null ? Duration.ZERO : module.getDuration();
+    }
 
-        this.difficultyScore = BigDecimal.valueOf(totalDifficultyScore)
-                .divide(BigDecimal.valueOf(modules.size()), 2, RoundingMode.HALF_UP);
+    // modul bez tezine ne doprinosi zbroju, ali se broji u prosjeku
+    private static int difficultyScoreOf(CourseModule module) {
+        return module.getDifficultyLevel() == null ? 0 : module.getDifficultyLevel().getScore();
     }
 
     @PrePersist
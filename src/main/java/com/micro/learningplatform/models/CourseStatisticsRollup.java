@@ -0,0 +1,49 @@
+package com.micro.learningplatform.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/* Satni/dnevni agregat povijesti statistike jednog tecaja
+ * -> pise ga samo StatisticsHistoryScheduler (INSERT ... ON CONFLICT), aplikacija ga samo cita
+ * -> samples je broj snapshota u bucketu, sluzi za tezinske prosjeke pri spajanju satnih u dnevne
+ */
+@Entity
+@Table(name = "course_statistics_rollup")
+@Getter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CourseStatisticsRollup {
+
+    @EmbeddedId
+    private CourseStatisticsRollupId id;
+
+    @Column(name = "samples", nullable = false)
+    private int samples;
+
+    @Column(name = "avg_total_modules", nullable = false)
+    private double avgTotalModules;
+
+    @Column(name = "max_total_modules", nullable = false)
+    private int maxTotalModules;
+
+    @Column(name = "avg_total_duration", nullable = false)
+    private Duration avgTotalDuration;
+
+    @Column(name = "avg_completion_rate", nullable = false, precision = 5, scale = 2)
+    private BigDecimal avgCompletionRate;
+
+    @Column(name = "max_completion_rate", nullable = false, precision = 5, scale = 2)
+    private BigDecimal maxCompletionRate;
+
+    @Column(name = "avg_difficulty_score", nullable = false, precision = 5, scale = 2)
+    private BigDecimal avgDifficultyScore;
+}
@@ -0,0 +1,99 @@
+package com.micro.learningplatform.models;
+
+import com.micro.learningplatform.event.DomainEvent;
+import com.micro.learningplatform.event.codec.EncodedEvent;
+import com.micro.learningplatform.event.course.CourseEvent;
+import com.micro.learningplatform.event.module.ModuleEvent;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "event_outbox",
+        indexes = @Index(name = "idx_event_outbox_sequence", columnList = "sequence_number")
+)
+@Getter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent implements Persistable<UUID> {
+
+    /* Transactional outbox zapis
+     * -> sprema se u istoj transakciji kao i agregat (Course, CourseModule) pa se dogadaj ne moze izgubiti
+     * -> OutboxRelay ga kasnije u batchu salje na kafku i brise nakon potvrde brokera
+     * -> id je eventId domenskog dogadaja i sluzi kao eventId header, pa consumeri dedupliciraju isti dogadaj;
+     *    kljuc poruke je aggregateId
+     * -> id je dodijeljen, pa Persistable javlja da je zapis nov (save() radi persist bez SELECT-a za merge)
+     * -> payload je binaran (EventCodecs), content_type i schema_version idu u kafka headere
+     * -> sequence_number dodjeljuje baza pri insertu, monoton je i jedinstven za razliku od created_at,
+     *    relay po njemu salje zapise redom
+     */
+
+    @Id
+    private UUID id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 100)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id")
+    private UUID aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 200)
+    private String eventType;
+
+    @ToString.Exclude
+    @Column(name = "payload", nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "schema_version", nullable = false)
+    private int schemaVersion;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sequence_number", insertable = false, updatable = false, columnDefinition = "bigserial")
+    private Long sequenceNumber;
+
+    @Transient
+    @ToString.Exclude
+    private boolean newEvent = true;
+
+    // Factory metoda, agregat izvodimo iz tipa dogadaja
+    public static OutboxEvent of(DomainEvent event, EncodedEvent encoded) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.id = event.getEventId() != null ? event.getEventId() : UUID.randomUUID();
+        outboxEvent.eventType = encoded.eventType();
+        outboxEvent.payload = encoded.payload();
+        outboxEvent.contentType = encoded.contentType();
+        outboxEvent.schemaVersion = encoded.schemaVersion();
+        outboxEvent.createdAt = LocalDateTime.now();
+
+        if (event instanceof CourseEvent courseEvent) {
+            outboxEvent.aggregateType = Course.class.getSimpleName();
+            outboxEvent.aggregateId = courseEvent.getCourseId();
+        } else if (event instanceof ModuleEvent moduleEvent) {
+            outboxEvent.aggregateType = CourseModule.class.getSimpleName();
+            outboxEvent.aggregateId = moduleEvent.getModuleId();
+        } else {
+            outboxEvent.aggregateType = event.getClass().getSimpleName();
+        }
+        return outboxEvent;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEvent;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newEvent = false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.micro.learningplatform.models;
+
+import java.time.Duration;
+
+/* Rezolucija vremenske serije statistike
+ * RAW su pojedinacni snapshoti, HOUR i DAY su agregati iz course_statistics_rollup
+ */
+public enum StatisticsResolution {
+    RAW,
+    HOUR,
+    DAY;
+
+    // za raspon bez eksplicitne rezolucije biramo najgrublju koja jos daje smislen broj tocaka
+    public static StatisticsResolution forRange(Duration range) {
+        if (range.compareTo(Duration.ofDays(2)) <= 0) {
+            return RAW;
+        }
+        if (range.compareTo(Duration.ofDays(90)) <= 0) {
+            return HOUR;
+        }
+        return DAY;
+    }
+}
@@ -11,17 +11,18 @@ import java.util.List;
 
 @Getter
 public class BatchProcessingResult{
-    private int successCount = 0;
-    private int failureCount = 0;
+    // long jer migracija particija broji redove, ne stavke batcha
+    private long successCount = 0;
+    private long failureCount = 0;
     private final List<BatchItemError> errors = new ArrayList<>();
     private final LocalDateTime startTime = LocalDateTime.now();
     private LocalDateTime endTime;
 
-    public void incrementSuccessCount(int count) {
+    public void incrementSuccessCount(long count) {
         this.successCount += count;
     }
 
-    public void incrementFailureCount(int count) {
+    public void incrementFailureCount(long count) {
         this.failureCount += count;
     }
 
@@ -39,7 +40,7 @@ public class BatchProcessingResult{
     }
 
     public double getSuccessRate() {
-        int total = successCount + failureCount;
+        long total = successCount + failureCount;
         return total == 0 ? 0 : (double) successCount / total;
     }
 
@@ -0,0 +1,25 @@
+package com.micro.learningplatform.models.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/* Stranica za keyset (seek) paginaciju
+ * -> nema totalElements jer ne radimo COUNT upit, klijent nastavlja s nextCursor dok je hasNext true
+ */
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor,
+        int size,
+        boolean hasNext
+) {
+
+    /* Repozitorij dohvaca size + 1 redova, visak reda nam samo govori postoji li sljedeca stranica
+     * cursorOf gradi token iz zadnjeg elementa koji vracamo
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, T> mapper, Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.getLast()) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor, size, hasNext);
+    }
+}
@@ -0,0 +1,44 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import com.micro.learningplatform.models.Course;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/* Neprozirni (opaque) kursor za keyset paginaciju tecajeva
+ * -> pozicija je zadnji vraceni (created_at, id), id razbija izjednacenja kad vise tecajeva ima isti created_at
+ * -> klijentu saljemo base64url token da ne ovisi o formatu i da ga ne gradi sam
+ */
+public record CourseCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static CourseCursor of(Course course) {
+        return new CourseCursor(course.getCreatedAt(), course.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null ili prazan token znaci prva stranica
+    public static CourseCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new CourseCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import java.time.Duration;
+import java.util.List;
+
+public record CourseImportResult(
+        long received,
+        long imported,
+        long importedModules,
+        long duplicates,
+        long invalid,
+        List<String> duplicateTitlesSample, // najvise prvih 100 naslova
+        Duration duration
+) {
+}
@@ -0,0 +1,14 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import com.micro.learningplatform.models.dto.module.CreateModuleRequest;
+
+import java.util.List;
+
+// jedan red NDJSON/CSV importa, CSV nema module pa je lista tada prazna
+public record CourseImportRow(
+        String title,
+        String description,
+        String difficultyLevel,
+        List<CreateModuleRequest> modules
+) {
+}
@@ -0,0 +1,19 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.models.EntityCategory;
+import com.micro.learningplatform.models.dto.DifficultyLevel;
+
+import java.util.UUID;
+
+// pogodak iz Lucene indeksa, sva polja su projekcije iz indeksa, bez citanja iz baze
+public record CourseIndexHit(
+        UUID courseId,
+        String title,
+        String description,
+        EntityCategory category,
+        DifficultyLevel difficultyLevel,
+        CourseStatus status,
+        float score
+) {
+}
@@ -0,0 +1,22 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.models.EntityCategory;
+import com.micro.learningplatform.models.dto.DifficultyLevel;
+
+import java.util.List;
+import java.util.Map;
+
+/* Rezultat pretrage indeksa s facetama
+ * -> facete su brojevi pogodaka po vrijednosti za cijeli upit, ne samo za vracenu stranicu
+ */
+public record CourseIndexSearchResult(
+        List<CourseIndexHit> hits,
+        long totalHits,
+        int page,
+        int size,
+        Map<EntityCategory, Long> categoryFacets,
+        Map<DifficultyLevel, Long> difficultyFacets,
+        Map<CourseStatus, Long> statusFacets
+) {
+}
@@ -0,0 +1,34 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.models.EntityCategory;
+import com.micro.learningplatform.models.dto.DifficultyLevel;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/* Plosna projekcija za listanje tecajeva (JPQL constructor expression)
+ * -> tocno stupci koje treba CourseResponse, statistika dolazi LEFT JOIN-om u istom upitu
+ * -> nema entiteta u persistence contextu, nema dirty checkinga ni dodatnog selecta po redu
+ *    za @OneToOne(mappedBy) courseStatistics koji hibernate ne moze lazy ucitati
+ * -> polja statistike su null ako tecaj jos nema redak u course_statistics
+ */
+public record CourseListView(
+        UUID id,
+        String title,
+        String description,
+        CourseStatus status,
+        EntityCategory category,
+        DifficultyLevel difficultyLevel,
+        int totalModules,
+        Duration totalDuration,
+        Duration averageModuleDuration,
+        BigDecimal completionRate,
+        BigDecimal difficultyScore,
+        LocalDateTime lastCalculated,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -1,8 +1,10 @@
 package com.micro.learningplatform.models.dto.courses;
 
+// headline je ts_headline isjecak opisa s oznacenim pogocima (<mark>...</mark>)
 public record CourseSearchResult(String courseId,
                                  String title,
                                  String description,
                                  String difficultyLevel,
-                                 double rank ) {
+                                 double rank,
+                                 String headline) {
 }
@@ -0,0 +1,40 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/* Kursor za keyset paginaciju full-text pretrage
+ * -> rezultati su poredani po (ts_rank_cd DESC, id DESC) pa je pozicija zadnji vraceni (rank, id)
+ * -> rank je PostgreSQL real, Float.toString ga vraca bez gubitka pa usporedba u SQL-u ostaje tocna
+ */
+public record FullTextCursor(float rank, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static FullTextCursor of(CourseSearchResult result) {
+        return new FullTextCursor((float) result.rank(), UUID.fromString(result.courseId()));
+    }
+
+    public String encode() {
+        String raw = rank + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null ili prazan token znaci prva stranica
+    public static FullTextCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new FullTextCursor(
+                    Float.parseFloat(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.micro.learningplatform.models.dto.coursestatistic;
+
+import com.micro.learningplatform.models.StatisticsResolution;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record StatisticsSeries(
+        UUID courseId,
+        StatisticsResolution resolution,
+        LocalDateTime from,
+        LocalDateTime to,
+        List<StatisticsSeriesPoint> points
+) {
+}
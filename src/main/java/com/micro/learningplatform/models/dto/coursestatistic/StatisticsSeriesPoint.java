@@ -0,0 +1,16 @@
+package com.micro.learningplatform.models.dto.coursestatistic;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// jedna tocka serije: za RAW je to snapshot (samples = 1), za HOUR/DAY pocetak bucketa s prosjecima
+public record StatisticsSeriesPoint(
+        LocalDateTime timestamp,
+        int samples,
+        double totalModules,
+        Duration totalDuration,
+        BigDecimal completionRate,
+        BigDecimal difficultyScore
+) {
+}
@@ -1,10 +1,9 @@
 package com.micro.learningplatform.partitons;
 
-import java.util.UUID;
-
+// jedan zadatak = svi kandidati koji se sele iz iste izvorne u istu ciljnu particiju
 public record DataMigrationTask(
-        UUID recordId,
         String sourcePartition,
-        String targetPartition
+        String targetPartition,
+        long candidateCount
 ) {
 }
@@ -0,0 +1,260 @@
+package com.micro.learningplatform.partitons;
+
+import com.micro.learningplatform.batch.BatchItemError;
+import com.micro.learningplatform.models.dto.BatchProcessingResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionBulkMigrator {
+
+    /* Set-based migracija podataka izmedu particija
+     * 1. kandidate grupiramo u bazi po (source, target) paru -> u JVM dolazi jedan red po paru, ne milijuni id-eva
+     * 2. svaka grupa se seli jednom naredbom (DELETE ... RETURNING -> INSERT kao data-modifying CTE)
+     *    -> iskoristeni kandidati se brisu u istoj naredbi pa se ponovno pokretanje ne vrti u prazno
+     * 3. ako grupa pokriva cijelu particiju, a cilj je particionirana tablica -> DETACH/ATTACH PARTITION
+     *    -> mijenjaju se samo metapodaci, redovi se fizicki ne kopiraju
+     * 4. postojanje i metapodatke particija citamo jednom po migraciji, ne dva upita po redu
+     *
+     * Radi u transakciji pozivatelja (PartitionMigrationService) jer maintainPartitions u istoj
+     * transakciji stvara particije koje ovdje moraju biti vidljive.
+     */
+
+    // imena particija dolaze iz tablice i ulaze u SQL kao identifikatori pa ih ogranicavamo
+    private static final Pattern PARTITION_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+
+    public BatchProcessingResult migrate() {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        BatchProcessingResult result = new BatchProcessingResult();
+        Map<String, Optional<PartitionInfo>> partitions = new HashMap<>();
+
+        List<DataMigrationTask> tasks = findMigrationTasks();
+        log.info("Found {} partition pairs to migrate", tasks.size());
+
+        for (DataMigrationTask task : tasks) {
+            Optional<PartitionInfo> source = partitions.computeIfAbsent(task.sourcePartition(), this::loadPartitionInfo);
+            Optional<PartitionInfo> target = partitions.computeIfAbsent(task.targetPartition(), this::loadPartitionInfo);
+
+            if (source.isEmpty() || target.isEmpty()) {
+                log.warn("Skipping migration {} -> {} ({} candidates): partition does not exist",
+                        task.sourcePartition(), task.targetPartition(), task.candidateCount());
+                result.incrementFailureCount(task.candidateCount());
+                result.addError(new BatchItemError(task,
+                        new IllegalStateException("Partition does not exist")));
+                continue;
+            }
+
+            long moved = canAttachWholePartition(task, source.get(), target.get())
+                    ? attachWholePartition(task, source.get())
+                    : moveRows(task);
+
+            result.incrementSuccessCount(moved);
+            if (moved < task.candidateCount()) {
+                // kandidati kojih vise nema u izvornoj particiji
+                result.incrementFailureCount(task.candidateCount() - moved);
+            }
+        }
+
+        timer.stop(Timer.builder("partition.migration").register(meterRegistry));
+        result.complete();
+        return result;
+    }
+
+    private List<DataMigrationTask> findMigrationTasks() {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                """
+                SELECT source_partition, target_partition, COUNT(*)
+                FROM migration_candidates
+                GROUP BY source_partition, target_partition
+                ORDER BY source_partition, target_partition
+                """
+        ).getResultList();
+
+        return rows.stream()
+                .map(row -> new DataMigrationTask(
+                        (String) row[0],
+                        (String) row[1],
+                        ((Number) row[2]).longValue()
+                ))
+                .toList();
+    }
+
+    private Optional<PartitionInfo> loadPartitionInfo(String partitionName) {
+        if (!PARTITION_NAME.matcher(partitionName).matches()) {
+            log.warn("Rejecting invalid partition name: {}", partitionName);
+            return Optional.empty();
+        }
+
+        List<Object[]> rows = entityManager.createNativeQuery(
+                """
+                SELECT c.relkind, parent.relname, pg_get_expr(c.relpartbound, c.oid),
+                       pg_get_partkeydef(c.oid), pg_get_partkeydef(parent.oid)
+                FROM pg_class c
+                LEFT JOIN pg_inherits i ON i.inhrelid = c.oid
+                LEFT JOIN pg_class parent ON parent.oid = i.inhparent
+                WHERE c.relname = :partitionName
+                AND c.relkind IN ('r', 'p')
+                """
+        ).setParameter("partitionName", partitionName).getResultList();
+
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        return Optional.of(new PartitionInfo(
+                partitionName,
+                String.valueOf(row[0]),
+                (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                (String) row[4]
+        ));
+    }
+
+    /* ATTACH ima smisla samo kad se seli cijela particija u drugu particioniranu tablicu
+     * -> jedan prolaz anti-joina je i dalje puno jeftiniji od kopiranja svih redova
+     * -> granica izvorne particije se prenosi doslovno, pa mora vrijediti i u cilju (boundFitsTarget),
+     *    inace selimo redove i cilj ih sam rasporedi po svojim particijama
+     */
+    private boolean canAttachWholePartition(DataMigrationTask task, PartitionInfo source, PartitionInfo target) {
+        if (!target.isPartitioned() || source.parent() == null || source.bound() == null
+                || source.parent().equals(target.name())) {
+            return false;
+        }
+        if (!boundFitsTarget(source, target)) {
+            return false;
+        }
+
+        Object[] coverage = (Object[]) entityManager.createNativeQuery(
+                """
+                SELECT COUNT(*) FILTER (WHERE c.id IS NULL), COUNT(*)
+                FROM %s p
+                LEFT JOIN migration_candidates c
+                    ON c.id = p.id
+                    AND c.source_partition = :source
+                    AND c.target_partition = :target
+                """.formatted(source.name())
+        )
+                .setParameter("source", task.sourcePartition())
+                .setParameter("target", task.targetPartition())
+                .getSingleResult();
+
+        long uncovered = ((Number) coverage[0]).longValue();
+        long total = ((Number) coverage[1]).longValue();
+        return uncovered == 0 && total > 0;
+    }
+
+    /* FOR VALUES izraz izvora je ispravan u cilju samo uz istu strategiju i kljuc particioniranja
+     * -> "RANGE (created_at)" vs "RANGE (updated_at)" bi particiju stavio pod krivi raspon bez ikakve greske
+     * -> ista granica (ili druga DEFAULT particija) vec postoji u cilju -> ATTACH bi pao i srusio cijelu migraciju
+     * -> djelomicno preklapanje raspona PostgreSQL odbije pri ATTACH-u, transakcija se vraca bez gubitka podataka
+     */
+    private boolean boundFitsTarget(PartitionInfo source, PartitionInfo target) {
+        if (source.parentPartitionKey() == null || !source.parentPartitionKey().equals(target.partitionKey())) {
+            log.info("Not attaching {} to {}: partition key {} does not match {}",
+                    source.name(), target.name(), source.parentPartitionKey(), target.partitionKey());
+            return false;
+        }
+
+        List<String> targetBounds = entityManager.createNativeQuery(
+                """
+                SELECT pg_get_expr(c.relpartbound, c.oid)
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = CAST(:target AS regclass)
+                """
+        ).setParameter("target", target.name()).getResultList();
+
+        if (targetBounds.contains(source.bound())) {
+            log.info("Not attaching {} to {}: target already has a partition {}",
+                    source.name(), target.name(), source.bound());
+            return false;
+        }
+        return true;
+    }
+
+    private long attachWholePartition(DataMigrationTask task, PartitionInfo source) {
+        long rows = ((Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM %s".formatted(source.name())
+        ).getSingleResult()).longValue();
+
+        entityManager.createNativeQuery(
+                "ALTER TABLE %s DETACH PARTITION %s".formatted(source.parent(), source.name())
+        ).executeUpdate();
+        entityManager.createNativeQuery(
+                "ALTER TABLE %s ATTACH PARTITION %s %s".formatted(task.targetPartition(), source.name(), source.bound())
+        ).executeUpdate();
+        deleteCandidates(task);
+
+        log.info("Attached partition {} to {} ({} rows, metadata only)",
+                source.name(), task.targetPartition(), rows);
+        meterRegistry.counter("partition.migration.rows", "mode", "attach").increment(rows);
+        return rows;
+    }
+
+    private long moveRows(DataMigrationTask task) {
+        int moved = entityManager.createNativeQuery(
+                """
+                WITH candidates AS (
+                    DELETE FROM migration_candidates
+                    WHERE source_partition = :source
+                    AND target_partition = :target
+                    RETURNING id
+                ), moved_rows AS (
+                    DELETE FROM %s p
+                    USING candidates c
+                    WHERE p.id = c.id
+                    RETURNING p.*
+                )
+                INSERT INTO %s
+                SELECT * FROM moved_rows
+                """.formatted(task.sourcePartition(), task.targetPartition())
+        )
+                .setParameter("source", task.sourcePartition())
+                .setParameter("target", task.targetPartition())
+                .executeUpdate();
+
+        log.info("Migrated {} of {} candidate rows from {} to {}",
+                moved, task.candidateCount(), task.sourcePartition(), task.targetPartition());
+        meterRegistry.counter("partition.migration.rows", "mode", "set_based").increment(moved);
+        return moved;
+    }
+
+    private void deleteCandidates(DataMigrationTask task) {
+        entityManager.createNativeQuery(
+                """
+                DELETE FROM migration_candidates
+                WHERE source_partition = :source
+                AND target_partition = :target
+                """
+        )
+                .setParameter("source", task.sourcePartition())
+                .setParameter("target", task.targetPartition())
+                .executeUpdate();
+    }
+
+    // relkind 'p' = particionirana tablica, parent/bound su null za tablice koje nisu particije
+    // partitionKey je kljuc ove tablice (samo za 'p'), parentPartitionKey kljuc tablice ciji je particija
+    private record PartitionInfo(String name, String relkind, String parent, String bound,
+                                 String partitionKey, String parentPartitionKey) {
+
+        boolean isPartitioned() {
+            return "p".equals(relkind);
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.micro.learningplatform.partitons;
 
 import com.micro.learningplatform.models.dto.BatchProcessingResult;
-import com.micro.learningplatform.services.BatchProcessor;
-import com.micro.learningplatform.services.BatchProcessorService;
 import com.micro.learningplatform.shared.exceptions.BatchProcessingException;
 import com.micro.learningplatform.shared.exceptions.PartitionMaintenanceException;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -21,7 +19,6 @@ import java.sql.PreparedStatement;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -31,7 +28,7 @@ public class PartitionMigrationService {
 
     private final EntityManager entityManager;
     private final MeterRegistry meterRegistry;
-    private final BatchProcessorService batchProcessor;
+    private final PartitionBulkMigrator bulkMigrator;
 
     private static final Duration RETENTION_PERIOD = Duration.ofDays(120);
 
@@ -165,56 +162,17 @@ public class PartitionMigrationService {
     }
 
 
+    /**
+     * Seli kandidate iz migration_candidates set-based naredbama, jednom po paru particija.
+     */
     public void migrateData() throws BatchProcessingException {
-        List<DataMigrationTask> migrationTasks = identifyDataForMigration();
-
-        if (migrationTasks.isEmpty()) {
-            log.warn("No migration tasks found. Skipping data migration.");
-            return;
+        try {
+            BatchProcessingResult result = bulkMigrator.migrate();
+            log.info("Data migration completed: {}", result.getSummary());
+        } catch (Exception e) {
+            meterRegistry.counter("partition.error", "operation", "migration").increment();
+            throw new BatchProcessingException("Data migration failed", e);
         }
-        BatchProcessor<DataMigrationTask> processor = batch -> {
-            for (DataMigrationTask task : batch) {
-                try {
-                    if (!doesPartitionExist(task.sourcePartition())) {
-                        log.warn("Source partition {} does not exist. Skipping task for recordId {}.", task.sourcePartition(), task.recordId());
-                        continue;
-                    }
-
-                    if (!doesPartitionExist(task.targetPartition())) {
-                        log.warn("Target partition {} does not exist. Skipping task for recordId {}.", task.targetPartition(), task.recordId());
-                        continue;
-                    }
-
-                    String migrationSql = String.format(
-                            """
-                            WITH moved_rows AS (
-                                DELETE FROM %s
-                                WHERE id = '%s'
-                                RETURNING *
-                            )
-                            INSERT INTO %s
-                            SELECT * FROM moved_rows
-                            """,
-                            task.sourcePartition(),
-                            task.recordId(),
-                            task.targetPartition()
-                    );
-
-                    entityManager.createNativeQuery(migrationSql).executeUpdate();
-                    log.info("Successfully migrated record {} from {} to {}", task.recordId(), task.sourcePartition(), task.targetPartition());
-                } catch (Exception e) {
-                    log.error("Error migrating record {} from {} to {}: {}", task.recordId(), task.sourcePartition(), task.targetPartition(), e.getMessage());
-                }
-            }
-        };
-
-        BatchProcessingResult result = batchProcessor.processBatch(
-                migrationTasks,
-                processor,
-                BatchProcessorService.BatchProcessingOptions.getDefault()
-        );
-
-        log.info("Data migration completed: {}", result);
     }
 
     private void initializeMissingPartitions() {
@@ -354,24 +312,6 @@ public class PartitionMigrationService {
         return query.getResultList();
     }
 
-    private List<DataMigrationTask> identifyDataForMigration() {
-        Query query = entityManager.createNativeQuery(
-                """
-                SELECT id, source_partition, target_partition
-                FROM migration_candidates
-                """
-        );
-
-        List<Object[]> results = query.getResultList();
-        return results.stream()
-                .map(row -> new DataMigrationTask(
-                        (UUID) row[0], // Direkto kastanje u UUID
-                        (String) row[1],
-                        (String) row[2]
-                ))
-                .toList();
-    }
-
     private void archivePartition(String partition) {
         try {
             String archiveSql = String.format(
@@ -0,0 +1,132 @@
+package com.micro.learningplatform.partitons;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class StatisticsHistoryPartitionManager {
+
+    /* Odrzavanje mjesecnih particija course_statistics_history
+     * -> particije za tekuci i sljedece mjesece se stvaraju unaprijed, default particija je samo sigurnosna mreza
+     * -> stare particije se odbacuju cijele (DROP TABLE), ali tek kad je dnevni rollup presao kraj particije,
+     *    inace bismo izgubili podatke koji jos nisu sazeti
+     * -> imena particija dolaze iz pg_catalog i provjeravaju se regexom prije nego sto udu u DDL
+     * -> DDL ide samo ako je tablica stvarno particionirana (relkind 'p'), obicna tablica znaci da
+     *    bootstrap skripta nije izvrsena i tada nema sto odrzavati
+     */
+
+    private static final String PARENT_TABLE = "course_statistics_history";
+    private static final Pattern PARTITION_NAME = Pattern.compile("^course_statistics_history_(\\d{4})_(\\d{2})$");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitionsAhead;
+    private final int rawRetentionMonths;
+
+    public StatisticsHistoryPartitionManager(EntityManager entityManager,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${app.statistics.history.partitions-ahead:2}") int partitionsAhead,
+                                             @Value("${app.statistics.history.raw-retention-months:3}") int rawRetentionMonths) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitionsAhead = partitionsAhead;
+        this.rawRetentionMonths = rawRetentionMonths;
+    }
+
+    @Scheduled(cron = "${app.statistics.history.partition-cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            log.warn("{} is not a partitioned table, skipping partition maintenance", PARENT_TABLE);
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        dropExpiredPartitions(current.minusMonths(rawRetentionMonths));
+    }
+
+    private void createPartition(YearMonth month) {
+        String partitionName = partitionName(month);
+        try {
+            transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(String.format("""
+                    CREATE TABLE IF NOT EXISTS %s
+                    PARTITION OF %s
+                    FOR VALUES FROM ('%s') TO ('%s')
+                    """, partitionName, PARENT_TABLE, month.atDay(1), month.plusMonths(1).atDay(1))).executeUpdate());
+        } catch (RuntimeException e) {
+            // najcesce: default particija vec ima redove iz tog raspona, treba ih rucno premjestiti
+            log.error("Could not create statistics history partition {}: {}", partitionName, e.getMessage());
+        }
+    }
+
+    // particije koje zavrsavaju prije pocetka retencije, ali ne iza dnevnog rollupa
+    private void dropExpiredPartitions(YearMonth retainFrom) {
+        LocalDateTime rolledUpUntil = dailyRollupWatermark();
+        if (rolledUpUntil == null) {
+            log.debug("No daily statistics rollup yet, keeping all history partitions");
+            return;
+        }
+
+        for (String partition : findPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            LocalDate partitionEnd = month.plusMonths(1).atDay(1);
+            if (month.isBefore(retainFrom) && !partitionEnd.atStartOfDay().isAfter(rolledUpUntil)) {
+                transactionTemplate.executeWithoutResult(status ->
+                        entityManager.createNativeQuery("DROP TABLE IF EXISTS " + partition).executeUpdate());
+                log.info("Dropped statistics history partition {}", partition);
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        List<Boolean> result = transactionTemplate.execute(status -> entityManager.createNativeQuery(
+                        "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass(:parent)", Boolean.class)
+                .setParameter("parent", PARENT_TABLE)
+                .getResultList());
+        return result != null && !result.isEmpty() && Boolean.TRUE.equals(result.get(0));
+    }
+
+    private List<String> findPartitions() {
+        return transactionTemplate.execute(status -> entityManager.createNativeQuery("""
+                        SELECT child.relname
+                        FROM pg_inherits i
+                        JOIN pg_class parent ON parent.oid = i.inhparent
+                        JOIN pg_class child ON child.oid = i.inhrelid
+                        WHERE parent.relname = :parent
+                        ORDER BY child.relname
+                        """, String.class)
+                .setParameter("parent", PARENT_TABLE)
+                .getResultList());
+    }
+
+    // zadnji dnevni bucket se jos moze preracunati, pa je sazeto sve do njegovog pocetka
+    // -> MAX bez ijednog dnevnog bucketa vraca jedan red s NULL, tada je rezultat null
+    private LocalDateTime dailyRollupWatermark() {
+        return transactionTemplate.execute(status -> (LocalDateTime) entityManager.createNativeQuery(
+                        "SELECT MAX(bucket_start) FROM course_statistics_rollup WHERE granularity = 'DAY'",
+                        LocalDateTime.class)
+                .getSingleResult());
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("%s_%04d_%02d", PARENT_TABLE, month.getYear(), month.getMonthValue());
+    }
+}
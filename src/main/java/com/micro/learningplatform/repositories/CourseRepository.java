@@ -2,7 +2,11 @@ package com.micro.learningplatform.repositories;
 
 import com.micro.learningplatform.models.Course;
 import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.models.EntityCategory;
+import com.micro.learningplatform.models.dto.DifficultyLevel;
+import com.micro.learningplatform.models.dto.courses.CourseListView;
 import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -12,6 +16,7 @@ import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,6 +25,19 @@ import java.util.UUID;
 @Repository
 public interface CourseRepository extends JpaRepository<Course, UUID> {
 
+    /* Zajednicki SELECT za list endpointe, projekcija umjesto entiteta (vidi CourseListView)
+     * statistika je LEFT JOIN jer tecaj iz importa ili starih podataka mozda nema redak u course_statistics
+     */
+    String LIST_VIEW_SELECT = """
+        SELECT new com.micro.learningplatform.models.dto.courses.CourseListView(
+            c.Id, c.title, c.description, c.courseStatus, c.category, c.difficultyLevel,
+            c.statisticsSnapshot.totalModules, c.statisticsSnapshot.totalDuration,
+            s.averageModuleDuration, s.completionRate, s.difficultyScore, s.lastCalculated,
+            c.createdAt, c.updatedAt)
+        FROM Course c
+        LEFT JOIN c.courseStatistics s
+        """;
+
 
 
     boolean existsByTitleIgnoreCase(String title);
@@ -35,12 +53,13 @@ public interface CourseRepository extends JpaRepository<Course, UUID> {
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.modules WHERE c.Id = :courseId")
     Optional<Course> findByIdWithModules(@Param("courseId") UUID courseId);
 
-    @Query("SELECT c FROM Course c WHERE c.courseStatus = :status ORDER BY c.createdAt DESC")
+    @Query(value = LIST_VIEW_SELECT + "WHERE c.courseStatus = :status ORDER BY c.createdAt DESC",
+            countQuery = "SELECT COUNT(c) FROM Course c WHERE c.courseStatus = :status")
     @QueryHints({
             @QueryHint(name = "org.hibernate.cacheable", value = "true"),
             @QueryHint(name = "org.hibernate.cacheRegion", value = "course.search")
     })
-    Page<Course> findByStatus(@Param("status") CourseStatus status, Pageable pageable);
+    Page<CourseListView> findByStatus(@Param("status") CourseStatus status, Pageable pageable);
 
 
     @Query("SELECT c FROM Course c WHERE " +
@@ -48,6 +67,51 @@ public interface CourseRepository extends JpaRepository<Course, UUID> {
             "LOWER(c.description) LIKE LOWER(CONCAT('%', :term, '%'))")
     Page<Course> searchCoursesWithOther(@Param("term") String term, Pageable pageable);
 
+    /* Substring pretraga preko pg_trgm GIN indeksa na lower(title) i lower(description) (V6 migracija / db/bootstrap)
+     * -> pattern je vec escapean i u lowercase ('%term%'), term je sirovi lowercase upit za rangiranje
+     * -> poredak po slicnosti, pogodak u naslovu vrijedi dvostruko
+     * -> Pageable mora biti bez sorta, poredak je definiran ovdje
+     */
+    @Query(value = """
+        SELECT c.* FROM courses c
+        WHERE lower(c.title) LIKE :pattern OR lower(c.description) LIKE :pattern
+        ORDER BY 2 * word_similarity(:term, lower(c.title))
+                 + word_similarity(:term, lower(coalesce(c.description, ''))) DESC,
+                 c.created_at DESC, c.id DESC
+        """,
+            countQuery = """
+        SELECT count(*) FROM courses c
+        WHERE lower(c.title) LIKE :pattern OR lower(c.description) LIKE :pattern
+        """,
+            nativeQuery = true)
+    Page<Course> searchBySubstring(@Param("term") String term, @Param("pattern") String pattern, Pageable pageable);
+
+    /* Keyset (seek) paginacija po (created_at, id)
+     * -> umjesto OFFSET-a nastavljamo od zadnjeg vracenog reda pa je svaka stranica O(velicina stranice)
+     * -> nema COUNT upita, Limit je size + 1 da znamo postoji li sljedeca stranica
+     * -> prva stranica ide bez kursora jer postgres ne moze odrediti tip null parametra u "IS NULL" uvjetu
+     */
+    @Query(LIST_VIEW_SELECT + """
+        WHERE c.courseStatus = :status
+        ORDER BY c.createdAt DESC, c.Id DESC
+        """)
+    @QueryHints(@QueryHint(name = "org.hibernate.comment",
+            value = "Using idx_courses_status_created"))
+    List<CourseListView> findByStatusFromStart(@Param("status") CourseStatus status, Limit limit);
+
+    @Query(LIST_VIEW_SELECT + """
+        WHERE c.courseStatus = :status
+        AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.Id < :id))
+        ORDER BY c.createdAt DESC, c.Id DESC
+        """)
+    @QueryHints(@QueryHint(name = "org.hibernate.comment",
+            value = "Using idx_courses_status_created"))
+    List<CourseListView> findByStatusKeyset(
+            @Param("status") CourseStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
     @EntityGraph(attributePaths = {"modules"})
     Optional<Course> findWithModulesById(UUID id);
 
@@ -67,26 +131,24 @@ public interface CourseRepository extends JpaRepository<Course, UUID> {
     );
 
     // dodajem indexke 
-    @Query(value = """
-        SELECT c FROM Course c
+    @Query(value = LIST_VIEW_SELECT + """
         WHERE c.courseStatus = :status
         ORDER BY c.createdAt DESC
         """)
     @QueryHints(@QueryHint(name = "org.hibernate.comment",
             value = "Using idx_courses_status_created"))
-    List<Course> findByStatusOrderByCreatedAt(@Param("status") CourseStatus status);
+    List<CourseListView> findByStatusOrderByCreatedAt(@Param("status") CourseStatus status);
 
     // Dodajemo podršku za idx_course_category_level
-    @Query(value = """
-        SELECT c FROM Course c
+    @Query(value = LIST_VIEW_SELECT + """
         WHERE c.category = :category
         AND c.difficultyLevel = :level
         """)
     @QueryHints(@QueryHint(name = "org.hibernate.comment",
             value = "Using idx_course_category_level"))
-    List<Course> findByCategoryAndDifficultyLevel(
-            @Param("category") String category,
-            @Param("level") String level);
+    List<CourseListView> findByCategoryAndDifficultyLevel(
+            @Param("category") EntityCategory category,
+            @Param("level") DifficultyLevel level);
 
     //todo kombinirati opcionalne parameter  da bi smanjio kreiranje kreiranje metoda ovdje
 
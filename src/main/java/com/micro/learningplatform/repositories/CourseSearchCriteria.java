@@ -17,6 +17,7 @@ public class CourseSearchCriteria {
     private String title;
     private SearchType searchType;
 
+    // BASIC/ADVANCED (i bez tipa) idu substring pretragom preko trigram indeksa, FULL_TEXT preko search_vector-a
     public enum SearchType {
         BASIC,
         ADVANCED,
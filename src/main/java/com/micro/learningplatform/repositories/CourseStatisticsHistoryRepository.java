@@ -1,6 +1,8 @@
 package com.micro.learningplatform.repositories;
 
 import com.micro.learningplatform.models.CourseStatisticHistory;
+import com.micro.learningplatform.models.CourseStatisticHistoryId;
+import com.micro.learningplatform.models.dto.coursestatistic.StatisticsSeriesPoint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,10 +11,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
-public interface CourseStatisticsHistoryRepository extends JpaRepository<CourseStatisticHistory, UUID> {
-
-
+public interface CourseStatisticsHistoryRepository extends JpaRepository<CourseStatisticHistory, CourseStatisticHistoryId> {
 
+    /* Raspon se filtrira u SQL-u nad particioniranom tablicom
+     * -> uvjet na snapshot_timestamp omogucuje partition pruning, (course_id, snapshot_timestamp) indeks radi ostalo
+     */
     @Query("Select csh from CourseStatisticHistory csh where csh.course.Id =:courseId " +
             "AND csh.snapshotTimestamp BETWEEN :startDate and :endDate order by csh.snapshotTimestamp desc")
     List<CourseStatisticHistory> findByDateRange(
@@ -21,6 +24,19 @@ public interface CourseStatisticsHistoryRepository extends JpaRepository<CourseS
             @Param("endDate") LocalDateTime endDate
     );
 
-
-
+    // sirovi snapshoti kao tocke serije, bez ucitavanja entiteta
+    @Query("""
+        SELECT new com.micro.learningplatform.models.dto.coursestatistic.StatisticsSeriesPoint(
+            csh.snapshotTimestamp, 1, CAST(csh.totalModules AS Double), csh.totalDuration,
+            csh.completionRate, csh.difficultyScore)
+        FROM CourseStatisticHistory csh
+        WHERE csh.course.Id = :courseId
+        AND csh.snapshotTimestamp >= :from AND csh.snapshotTimestamp < :to
+        ORDER BY csh.snapshotTimestamp
+        """)
+    List<StatisticsSeriesPoint> findSeries(
+            @Param("courseId") UUID courseId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
 }
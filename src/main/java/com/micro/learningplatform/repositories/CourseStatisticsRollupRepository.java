@@ -0,0 +1,34 @@
+package com.micro.learningplatform.repositories;
+
+import com.micro.learningplatform.models.CourseStatisticsRollup;
+import com.micro.learningplatform.models.CourseStatisticsRollupId;
+import com.micro.learningplatform.models.StatisticsResolution;
+import com.micro.learningplatform.models.dto.coursestatistic.StatisticsSeriesPoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CourseStatisticsRollupRepository extends JpaRepository<CourseStatisticsRollup, CourseStatisticsRollupId> {
+
+    // raspon po primarnom kljucu (course_id, granularity, bucket_start), cita samo buckete u rasponu
+    @Query("""
+        SELECT new com.micro.learningplatform.models.dto.coursestatistic.StatisticsSeriesPoint(
+            r.id.bucketStart, r.samples, r.avgTotalModules, r.avgTotalDuration,
+            r.avgCompletionRate, r.avgDifficultyScore)
+        FROM CourseStatisticsRollup r
+        WHERE r.id.courseId = :courseId
+        AND r.id.granularity = :granularity
+        AND r.id.bucketStart >= :from AND r.id.bucketStart < :to
+        ORDER BY r.id.bucketStart
+        """)
+    List<StatisticsSeriesPoint> findSeries(
+            @Param("courseId") UUID courseId,
+            @Param("granularity") StatisticsResolution granularity,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+}
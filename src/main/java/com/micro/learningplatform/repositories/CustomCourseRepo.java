@@ -1,7 +1,9 @@
 package com.micro.learningplatform.repositories;
 
 import com.micro.learningplatform.models.Course;
+import com.micro.learningplatform.models.dto.courses.CourseCursor;
 import com.micro.learningplatform.models.dto.courses.CourseSearchResult;
+import com.micro.learningplatform.models.dto.courses.FullTextCursor;
 import com.micro.learningplatform.shared.exceptions.RepositoryException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,7 +14,9 @@ public interface CustomCourseRepo {
 
     Page<Course> searchCourses(CourseSearchCriteria criteria, Pageable pageable) throws RepositoryException;
 
+    List<Course> searchCoursesAfter(CourseSearchCriteria criteria, CourseCursor cursor, int limit) throws RepositoryException;
+
     void batchSave(List<Course> courses) throws RepositoryException;
 
-    List<CourseSearchResult> fullTextSearch(String searchTerm) throws RepositoryException;
+    List<CourseSearchResult> fullTextSearch(String searchTerm, FullTextCursor cursor, int limit) throws RepositoryException;
 }
@@ -1,8 +1,11 @@
 package com.micro.learningplatform.repositories;
 
 import com.micro.learningplatform.models.Course;
+import com.micro.learningplatform.models.dto.courses.CourseCursor;
 import com.micro.learningplatform.models.dto.courses.CourseSearchResult;
+import com.micro.learningplatform.models.dto.courses.FullTextCursor;
 import com.micro.learningplatform.shared.exceptions.RepositoryException;
+import com.micro.learningplatform.shared.utils.LikePatterns;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityManager;
@@ -15,6 +18,7 @@ import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -33,6 +37,7 @@ public class CustomCourseRepoImpl implements CustomCourseRepo {
 
     private final EntityManager entityManager;
     private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Cacheable(cacheNames = "search", key = "#criteria.toString()")
@@ -62,8 +67,41 @@ public class CustomCourseRepoImpl implements CustomCourseRepo {
         });
     }
 
+    /**
+     * Keyset varijanta pretrage, nastavlja iza kursora (created_at, id) bez OFFSET-a i bez count upita
+     * limit je obicno velicina stranice + 1 da servis zna postoji li sljedeca stranica
+     */
+    @Override
+    public List<Course> searchCoursesAfter(CourseSearchCriteria criteria, CourseCursor cursor, int limit) throws RepositoryException {
+        return executeWithMetrics("searchKeyset", () -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Course> query = cb.createQuery(Course.class);
+            Root<Course> course = query.from(Course.class);
+
+            List<Predicate> predicates = buildPredicates(criteria, cb, course);
+
+            if (cursor != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(course.get("createdAt"), cursor.createdAt()),
+                        cb.and(
+                                cb.equal(course.get("createdAt"), cursor.createdAt()),
+                                cb.lessThan(course.get("Id"), cursor.id())
+                        )
+                ));
+            }
+
+            query.where(predicates.toArray(new Predicate[0]))
+                    .orderBy(cb.desc(course.get("createdAt")), cb.desc(course.get("Id")));
+
+            return entityManager.createQuery(query)
+                    .setMaxResults(limit)
+                    .getResultList();
+        });
+    }
+
     /**
      * Gradi predikate za pretraživanje bazirane na kriterijima
+     * zajednicki za OFFSET (searchCourses, countResults) i keyset (searchCoursesAfter) put, pa oba filtriraju isto
      */
     private List<Predicate> buildPredicates(
             CourseSearchCriteria criteria,
@@ -76,7 +114,17 @@ public class CustomCourseRepoImpl implements CustomCourseRepo {
         if (criteria.getTitle() != null) {
             predicates.add(cb.like(
                     cb.lower(course.get("title")),
-                    "%" + criteria.getTitle().toLowerCase() + "%"
+                    LikePatterns.contains(criteria.getTitle()),
+                    LikePatterns.ESCAPE
+            ));
+        }
+
+        if (criteria.getSearchTerm() != null && !criteria.getSearchTerm().isBlank()) {
+            // lower(kolona) LIKE koristi trigram indekse iz V6 migracije
+            String pattern = LikePatterns.contains(criteria.getSearchTerm());
+            predicates.add(cb.or(
+                    cb.like(cb.lower(course.get("title")), pattern, LikePatterns.ESCAPE),
+                    cb.like(cb.lower(course.get("description")), pattern, LikePatterns.ESCAPE)
             ));
         }
 
@@ -118,7 +166,11 @@ public class CustomCourseRepoImpl implements CustomCourseRepo {
         executeWithMetrics("batchSave", () -> {
             int batchSize = 50;
             for (int i = 0; i < courses.size(); i++) {
-                entityManager.persist(courses.get(i));
+                Course course = courses.get(i);
+                entityManager.persist(course);
+                // persist zaobilazi spring data pa dogadaje za outbox objavljujemo rucno
+                course.getPendingEvents().forEach(eventPublisher::publishEvent);
+                course.getPendingEvents().clear();
 
                 if (i % batchSize == 0) {
                     entityManager.flush();
@@ -130,35 +182,55 @@ public class CustomCourseRepoImpl implements CustomCourseRepo {
     }
 
 
-     // * Full-text pretraživanje koristeći PostgreSQL tsvector
-    // malo popravio metodu jer korisitm typedquery - koje greske u tipovima i kolonama vraca hvata tijekom kompalacije, te sigurniiji
-    // bolje performance jer ne moramo pretvari iz objekta i mapirati, tj hibernate zna unaprijed strukutru
-    // korsiti tuple api da imam tipiziranotsi i dinamicnost
-    public List<CourseSearchResult> fullTextSearch(String searchTerm) throws RepositoryException {
+    /* Full-text pretrazivanje nad pohranjenim search_vector stupcem (V4 migracija / db/bootstrap, GIN indeks courses_search_idx)
+     * -> websearch_to_tsquery prima korisnicki unos ("fraza", -iskljuci, or) bez sintaksnih gresaka
+     * -> poredak (ts_rank_cd DESC, id DESC) i LIMIT su u SQL-u, nastavak ide keysetom iza (rank, id)
+     * -> ts_headline je skup pa ga racunamo tek u vanjskom upitu, samo za redove vracene stranice
+     * limit je obicno velicina stranice + 1 da servis zna postoji li sljedeca stranica
+     */
+    @Override
+    public List<CourseSearchResult> fullTextSearch(String searchTerm, FullTextCursor cursor, int limit) throws RepositoryException {
         return executeWithMetrics("fullTextSearch", () -> {
-            // SQL ostaje isti, ali dodajemo aliase koji se podudaraju s metodama u projekciji
+            String keyset = cursor == null
+                    ? ""
+                    : "AND (ts_rank_cd(c.search_vector, q.query), c.id) < (CAST(:rank AS real), :id)";
+
             String sql = """
-             SELECT c.id as id, c.title as title, c.difficulty_level as difficultyLevel, c.description as description,
-              ts_rank(to_tsvector('english', c.title || ' ' || c.description),
-              plainto_tsquery('english', :searchTerm)) as rank
-              FROM courses c
-               WHERE to_tsvector('english', c.title || ' ' || c.description) @@
-               plainto_tsquery('english', :searchTerm)
-               ORDER BY rank DESC
-            """;
-
-            // Koristimo TypedQuery s našom projekcijom
+                WITH q AS (
+                    SELECT websearch_to_tsquery('english', :searchTerm) AS query
+                ), page AS (
+                    SELECT c.id, c.title, c.description, c.difficulty_level,
+                           ts_rank_cd(c.search_vector, q.query) AS rank
+                    FROM courses c, q
+                    WHERE c.search_vector @@ q.query
+                    %s
+                    ORDER BY rank DESC, c.id DESC
+                    LIMIT :limit
+                )
+                SELECT p.id AS id, p.title AS title, p.description AS description,
+                       p.difficulty_level AS difficultyLevel, p.rank AS rank,
+                       ts_headline('english', coalesce(p.description, ''), q.query,
+                                   'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS headline
+                FROM page p, q
+                ORDER BY p.rank DESC, p.id DESC
+                """.formatted(keyset);
+
             TypedQuery<Tuple> query = (TypedQuery<Tuple>) entityManager.createNativeQuery(sql, Tuple.class)
-                    .setParameter("searchTerm", searchTerm);
+                    .setParameter("searchTerm", searchTerm)
+                    .setParameter("limit", limit);
+            if (cursor != null) {
+                query.setParameter("rank", cursor.rank())
+                        .setParameter("id", cursor.id());
+            }
 
-            // Mapiranje Tuple rezultata na CourseSearchResult
             return query.getResultList().stream()
                     .map(tuple -> new CourseSearchResult(
                             tuple.get("id", UUID.class).toString(),
                             tuple.get("title", String.class),
                             tuple.get("description", String.class),
                             tuple.get("difficultyLevel", String.class),
-                            tuple.get("rank", Float.class)
+                            tuple.get("rank", Float.class),
+                            tuple.get("headline", String.class)
                     ))
                     .toList();
         });
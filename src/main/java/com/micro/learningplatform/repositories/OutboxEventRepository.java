@@ -0,0 +1,29 @@
+package com.micro.learningplatform.repositories;
+
+import com.micro.learningplatform.models.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /* Zakljucava sljedeci batch najstarijih zapisa
+     * -> redoslijed po sequence_number (monoton, jedinstven), created_at moze imati iste vrijednosti
+     * -> bez SKIP LOCKED, preskakanje zakljucanog zapisa bi poslalo kasnije dogadaje agregata prije njega;
+     *    istovremeno radi samo jedan relay (tryRelayLock)
+     */
+    @Query(value = """
+        SELECT * FROM event_outbox
+        ORDER BY sequence_number
+        LIMIT :batchSize
+        FOR UPDATE
+        """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("batchSize") int batchSize);
+
+    // transakcijski advisory lock, otpusta se commitom ili rollbackom batcha
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    boolean tryRelayLock(@Param("lockKey") long lockKey);
+}
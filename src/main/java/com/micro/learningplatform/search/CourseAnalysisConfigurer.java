@@ -0,0 +1,30 @@
+package com.micro.learningplatform.search;
+
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/* Analizatori za Lucene indeks tecajeva
+ * -> "english" odgovara postgres 'english' konfiguraciji (lowercase + stemming), pa full-text i indeks
+ *    daju slicne pogotke za isti upit
+ * -> "sort" normalizator za keyword polja, usporedba bez obzira na velika/mala slova i dijakritike
+ * Registrira se u application.yml (hibernate.search.backend.analysis.configurer)
+ */
+public class CourseAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    public static final String ENGLISH = "english";
+    public static final String SORT = "sort";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(ENGLISH).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding")
+                .tokenFilter("snowballPorter")
+                .param("language", "English");
+
+        context.normalizer(SORT).custom()
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding");
+    }
+}
@@ -0,0 +1,240 @@
+package com.micro.learningplatform.search;
+
+import com.micro.learningplatform.event.course.CourseEvent;
+import com.micro.learningplatform.event.course.CoursesImportedEvent;
+import com.micro.learningplatform.event.module.ModuleEvent;
+import com.micro.learningplatform.models.Course;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class CourseIndexer {
+
+    /* Inkrementalno odrzavanje Lucene indeksa iz domenskih dogadaja
+     * -> automatsko indeksiranje preko hibernate listenera je iskljuceno (indexing.listeners.enabled=false),
+     *    indeks mijenjamo samo kad se dogodi domenski dogadaj tecaja ili modula
+     * -> slusatelji su AFTER_COMMIT i samo biljeze id, pa rollback nikad ne zavrsi u indeksu,
+     *    a request ne ceka Lucene
+     * -> id-eve skupljamo u set i periodicno ih reindeksiramo u batchu
+     *    -> deset dogadaja na istom tecaju unutar intervala = jedno reindeksiranje
+     * -> import se reindeksira po created_at importa u keyset chunkovima, bez liste svih id-eva u memoriji
+     * -> indeks je lokalan (ugradeni Lucene), svaka instanca ga odrzava iz vlastitih dogadaja
+     *    -> izmjene tecajeva/modula, importi i rebuild se preko redisa salju i ostalim nodovima
+     *       (SearchIndexBroadcaster), koji ih ovdje stavljaju u isti red kao lokalne dogadaje
+     */
+
+    private static final UUID START = new UUID(0L, 0L);
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SearchIndexProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<UUID> pendingCourses = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingModules = ConcurrentHashMap.newKeySet();
+    private final Set<LocalDateTime> pendingImports = ConcurrentHashMap.newKeySet();
+
+    public CourseIndexer(EntityManager entityManager,
+                         EntityManagerFactory entityManagerFactory,
+                         SearchIndexProperties properties,
+                         MeterRegistry meterRegistry,
+                         PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry.gauge("search.index.pending", pendingCourses, Set::size);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseEvent(CourseEvent event) {
+        pendingCourses.add(event.getCourseId());
+    }
+
+    // modul dogadaji nose samo id modula, tecaj razrjesavamo tek pri flushu
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onModuleEvent(ModuleEvent event) {
+        pendingModules.add(event.getModuleId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCoursesImported(CoursesImportedEvent event) {
+        queueImport(event.importedAt());
+    }
+
+    // poziva ga i SearchIndexBroadcaster za import napravljen na drugom nodu
+    public void queueImport(LocalDateTime importedAt) {
+        pendingImports.add(importedAt);
+    }
+
+    // izmjene napravljene na drugom nodu (SearchIndexBroadcaster)
+    public void queueChanges(Collection<UUID> courseIds, Collection<UUID> moduleIds) {
+        pendingCourses.addAll(courseIds);
+        pendingModules.addAll(moduleIds);
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.flush-interval-ms:1000}")
+    public void flush() {
+        Set<UUID> courseIds = drain(pendingCourses);
+        Set<UUID> moduleIds = drain(pendingModules);
+        Set<LocalDateTime> imports = drain(pendingImports);
+        if (courseIds.isEmpty() && moduleIds.isEmpty() && imports.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample timer = Timer.start(meterRegistry);
+        try {
+            if (!moduleIds.isEmpty()) {
+                courseIds.addAll(transactionTemplate.execute(status -> findCourseIds(moduleIds)));
+            }
+
+            List<UUID> ids = new ArrayList<>(courseIds);
+            for (int from = 0; from < ids.size(); from += properties.getIndexingBatchSize()) {
+                List<UUID> batch = ids.subList(from, Math.min(from + properties.getIndexingBatchSize(), ids.size()));
+                transactionTemplate.executeWithoutResult(status -> reindex(batch));
+                // uspjesno indeksirani ne idu ponovno ako kasniji batch padne
+                batch.forEach(courseIds::remove);
+            }
+            for (Iterator<LocalDateTime> it = imports.iterator(); it.hasNext(); ) {
+                reindexImport(it.next());
+                it.remove();
+            }
+        } catch (RuntimeException e) {
+            // vracamo id-eve u red, sljedeci flush pokusava ponovno
+            log.error("Search index update failed for {} courses, will retry: {}", courseIds.size(), e.getMessage());
+            pendingCourses.addAll(courseIds);
+            pendingModules.addAll(moduleIds);
+            pendingImports.addAll(imports);
+            meterRegistry.counter("search.index.errors").increment();
+        } finally {
+            timer.stop(Timer.builder("search.index.flush").register(meterRegistry));
+        }
+    }
+
+    // puni rebuild indeksa, npr. nakon promjene mapiranja ili bulk operacija koje ne objavljuju dogadaje
+    public CompletionStage<?> rebuild() {
+        log.info("Starting full rebuild of search index {}", CourseSearchMappingConfigurer.INDEX_NAME);
+        return Search.mapping(entityManagerFactory)
+                .scope(Course.class)
+                .massIndexer()
+                .threadsToLoadObjects(properties.getMassIndexerThreads())
+                .start()
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.error("Search index rebuild failed", error);
+                    } else {
+                        log.info("Search index rebuild finished");
+                    }
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (!properties.isMassIndexOnEmptyIndex()) {
+            return;
+        }
+        Long indexed = transactionTemplate.execute(status -> Search.session(entityManager)
+                .search(Course.class)
+                .where(f -> f.matchAll())
+                .fetchTotalHitCount());
+        if (indexed != null && indexed == 0) {
+            rebuild();
+        }
+    }
+
+    private List<UUID> findCourseIds(Set<UUID> moduleIds) {
+        return entityManager.createQuery(
+                        "SELECT DISTINCT m.course.Id FROM CourseModule m WHERE m.id IN :moduleIds", UUID.class)
+                .setParameter("moduleIds", moduleIds)
+                .getResultList();
+    }
+
+    // keyset po id-u unutar importa, u memoriji je najvise jedan batch id-eva
+    private void reindexImport(LocalDateTime importedAt) {
+        UUID after = START;
+        while (after != null) {
+            UUID lower = after;
+            after = transactionTemplate.execute(status -> {
+                List<UUID> batch = findImportedCourseIds(importedAt, lower);
+                if (batch.isEmpty()) {
+                    return null;
+                }
+                reindex(batch);
+                return batch.size() < properties.getIndexingBatchSize() ? null : batch.get(batch.size() - 1);
+            });
+        }
+    }
+
+    private List<UUID> findImportedCourseIds(LocalDateTime importedAt, UUID after) {
+        return entityManager.createNativeQuery("""
+                        SELECT id FROM courses
+                        WHERE created_at = :importedAt AND id > :after
+                        ORDER BY id
+                        LIMIT :limit
+                        """, UUID.class)
+                .setParameter("importedAt", importedAt)
+                .setParameter("after", after)
+                .setParameter("limit", properties.getIndexingBatchSize())
+                .getResultList();
+    }
+
+    private void reindex(List<UUID> courseIds) {
+        List<Course> courses = entityManager.unwrap(Session.class)
+                .byMultipleIds(Course.class)
+                .multiLoad(courseIds);
+        SearchIndexingPlan plan = Search.session(entityManager).indexingPlan();
+
+        // multiLoad vraca null na mjestu id-a koji vise ne postoji -> brisemo ga iz indeksa
+        int purged = 0;
+        for (int i = 0; i < courseIds.size(); i++) {
+            Course course = courses.get(i);
+            if (course == null) {
+                plan.purge(Course.class, courseIds.get(i), null);
+                purged++;
+            } else {
+                plan.addOrUpdate(course);
+            }
+        }
+        plan.execute();
+
+        meterRegistry.counter("search.index.updates", "operation", "add_or_update").increment(courseIds.size() - purged);
+        meterRegistry.counter("search.index.updates", "operation", "purge").increment(purged);
+    }
+
+    static <T> Set<T> drain(Set<T> pending) {
+        Set<T> drained = new HashSet<>();
+        for (Iterator<T> it = pending.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+}
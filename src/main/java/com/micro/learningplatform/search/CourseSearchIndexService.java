@@ -0,0 +1,143 @@
+package com.micro.learningplatform.search;
+
+import com.micro.learningplatform.models.Course;
+import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.models.EntityCategory;
+import com.micro.learningplatform.models.dto.DifficultyLevel;
+import com.micro.learningplatform.models.dto.courses.CourseIndexHit;
+import com.micro.learningplatform.models.dto.courses.CourseIndexSearchResult;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.search.engine.search.aggregation.AggregationKey;
+import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.mapper.orm.Search;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSearchIndexService {
+
+    /* Pretraga tecajeva nad ugradenim Lucene indeksom
+     * -> tolerancija tipfelera: tocni pogodak ima veci boost, uz njega fuzzy pogodak s edit distance prema duljini rijeci
+     * -> facete (kategorija, tezina, status) racunaju se u istom upitu nad svim pogocima
+     * -> rezultat su projekcije iz indeksa, baza se ne dira
+     *    (provider_disables_autocommit odgada uzimanje konekcije pa readOnly transakcija ne zauzima pool)
+     */
+
+    private static final String[] TEXT_FIELDS = {"title", "description", "modules.title", "modules.description"};
+
+    private static final AggregationKey<Map<EntityCategory, Long>> CATEGORY_FACET = AggregationKey.of("category");
+    private static final AggregationKey<Map<DifficultyLevel, Long>> DIFFICULTY_FACET = AggregationKey.of("difficultyLevel");
+    private static final AggregationKey<Map<CourseStatus, Long>> STATUS_FACET = AggregationKey.of("courseStatus");
+
+    private final EntityManager entityManager;
+    private final SearchIndexProperties properties;
+
+    @Transactional(readOnly = true)
+    public CourseIndexSearchResult search(String term,
+                                          EntityCategory category,
+                                          DifficultyLevel difficultyLevel,
+                                          CourseStatus status,
+                                          int page,
+                                          int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (size < 1 || size > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + properties.getMaxPageSize());
+        }
+
+        SearchResult<CourseIndexHit> result = Search.session(entityManager)
+                .search(Course.class)
+                .select(f -> f.composite()
+                        .from(
+                                f.id(UUID.class),
+                                f.field("title", String.class),
+                                f.field("description", String.class),
+                                f.field("category", EntityCategory.class),
+                                f.field("difficultyLevel", DifficultyLevel.class),
+                                f.field("courseStatus", CourseStatus.class),
+                                f.score()
+                        )
+                        .asList(values -> new CourseIndexHit(
+                                (UUID) values.get(0),
+                                (String) values.get(1),
+                                (String) values.get(2),
+                                (EntityCategory) values.get(3),
+                                (DifficultyLevel) values.get(4),
+                                (CourseStatus) values.get(5),
+                                (Float) values.get(6)
+                        )))
+                .where(f -> f.bool().with(b -> {
+                    b.must(term == null || term.isBlank() ? f.matchAll() : textPredicate(f, term.trim()));
+                    if (category != null) {
+                        b.filter(f.match().field("category").matching(category));
+                    }
+                    if (difficultyLevel != null) {
+                        b.filter(f.match().field("difficultyLevel").matching(difficultyLevel));
+                    }
+                    if (status != null) {
+                        b.filter(f.match().field("courseStatus").matching(status));
+                    }
+                }))
+                .aggregation(CATEGORY_FACET, f -> f.terms().field("category", EntityCategory.class))
+                .aggregation(DIFFICULTY_FACET, f -> f.terms().field("difficultyLevel", DifficultyLevel.class))
+                .aggregation(STATUS_FACET, f -> f.terms().field("courseStatus", CourseStatus.class))
+                .fetch(page * size, size);
+
+        log.debug("Index search '{}' returned {} of {} hits in {}",
+                term, result.hits().size(), result.total().hitCount(), result.took());
+
+        return new CourseIndexSearchResult(
+                result.hits(),
+                result.total().hitCount(),
+                page,
+                size,
+                result.aggregation(CATEGORY_FACET),
+                result.aggregation(DIFFICULTY_FACET),
+                result.aggregation(STATUS_FACET)
+        );
+    }
+
+    // tocan pogodak (naslov najvise vrijedi) + fuzzy za tipfelere, fuzzy ima manji boost da ne nadjaca tocne
+    private PredicateFinalStep textPredicate(SearchPredicateFactory f, String term) {
+        int editDistance = editDistance(term);
+        return f.bool().with(b -> {
+            b.should(f.match()
+                    .field("title").boost(3.0f)
+                    .fields("description", "modules.title", "modules.description")
+                    .matching(term));
+            if (editDistance > 0) {
+                b.should(f.match()
+                        .fields(TEXT_FIELDS)
+                        .matching(term)
+                        .fuzzy(editDistance)
+                        .boost(0.5f));
+            }
+        });
+    }
+
+    /* kao "AUTO" u elasticsearchu: kratke rijeci bez tolerancije, inace 1 ili 2 izmjene
+     * fuzzy vrijedi za sve rijeci upita pa gledamo najkracu (rijeci krace od 3 znaka su veznici i sl., njih preskacemo)
+     */
+    private static int editDistance(String term) {
+        int shortestWord = Integer.MAX_VALUE;
+        for (String word : term.split("\\s+")) {
+            if (word.length() >= 3) {
+                shortestWord = Math.min(shortestWord, word.length());
+            }
+        }
+        if (shortestWord < 4 || shortestWord == Integer.MAX_VALUE) {
+            return 0;
+        }
+        return shortestWord < 8 ? 1 : 2;
+    }
+}
@@ -0,0 +1,56 @@
+package com.micro.learningplatform.search;
+
+import com.micro.learningplatform.models.BaseModel;
+import com.micro.learningplatform.models.Course;
+import com.micro.learningplatform.models.CourseModule;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.mapper.orm.mapping.HibernateOrmMappingConfigurationContext;
+import org.hibernate.search.mapper.orm.mapping.HibernateOrmSearchMappingConfigurer;
+import org.hibernate.search.mapper.pojo.mapping.definition.programmatic.ProgrammaticMappingConfigurationContext;
+import org.hibernate.search.mapper.pojo.mapping.definition.programmatic.TypeMappingStep;
+
+/* Programsko mapiranje entiteta na Lucene indeks "courses"
+ * -> jedan dokument po tecaju, moduli su ugradeni (modules.title, modules.description...) pa se tecaj
+ *    pronalazi i po sadrzaju modula bez joina u bazi
+ * -> category i difficultyLevel su u BaseModel (@MappedSuperclass), zato mapiranje nije anotacijama na entitetima
+ * -> aggregable polja sluze za facete, projectable da rezultat vratimo iz indeksa bez citanja iz baze
+ * Registrira se u application.yml (hibernate.search.mapping.configurer)
+ */
+public class CourseSearchMappingConfigurer implements HibernateOrmSearchMappingConfigurer {
+
+    public static final String INDEX_NAME = "courses";
+
+    @Override
+    public void configure(HibernateOrmMappingConfigurationContext context) {
+        ProgrammaticMappingConfigurationContext mapping = context.programmaticMapping();
+
+        TypeMappingStep base = mapping.type(BaseModel.class);
+        base.property("category")
+                .keywordField().aggregable(Aggregable.YES).projectable(Projectable.YES);
+        base.property("difficultyLevel")
+                .keywordField().aggregable(Aggregable.YES).projectable(Projectable.YES);
+
+        TypeMappingStep course = mapping.type(Course.class);
+        course.indexed().index(INDEX_NAME);
+        course.property("title")
+                .fullTextField().analyzer(CourseAnalysisConfigurer.ENGLISH).projectable(Projectable.YES)
+                .keywordField("title_sort").normalizer(CourseAnalysisConfigurer.SORT).sortable(Sortable.YES);
+        course.property("description")
+                .fullTextField().analyzer(CourseAnalysisConfigurer.ENGLISH).projectable(Projectable.YES);
+        course.property("courseStatus")
+                .keywordField().aggregable(Aggregable.YES).projectable(Projectable.YES);
+        course.property("modules")
+                .indexedEmbedded()
+                .includePaths("title", "description", "status");
+
+        TypeMappingStep module = mapping.type(CourseModule.class);
+        module.property("title")
+                .fullTextField().analyzer(CourseAnalysisConfigurer.ENGLISH);
+        module.property("description")
+                .fullTextField().analyzer(CourseAnalysisConfigurer.ENGLISH);
+        module.property("status")
+                .keywordField();
+    }
+}
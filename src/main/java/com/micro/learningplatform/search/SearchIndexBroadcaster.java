@@ -0,0 +1,126 @@
+package com.micro.learningplatform.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.micro.learningplatform.event.course.CourseEvent;
+import com.micro.learningplatform.event.course.CoursesImportedEvent;
+import com.micro.learningplatform.event.module.ModuleEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class SearchIndexBroadcaster implements MessageListener {
+
+    /* Lucene indeks je lokalan po nodu, a CourseIndexer ga puni samo iz dogadaja ovog noda
+     * 1. id-eve tecajeva i modula iz dogadaja ovog noda (AFTER_COMMIT) skupljamo i u intervalu flusha
+     *    objavimo u porukama od najvise indexing-batch-size id-eva; ostali nodovi ih reindeksiraju
+     * 2. nakon commita importa objavimo created_at importa, ostali nodovi reindeksiraju iste tecajeve
+     * 3. rebuild se moze pokrenuti na svim nodovima odjednom (mass indexer na svakom)
+     *  -> isti obrazac kao CacheInvalidationBroadcaster: redis pub/sub, posiljatelj ignorira svoju poruku
+     *  -> primljeni id-evi idu ravno u CourseIndexer, ne u ove skupove, pa se poruke ne prosljeduju dalje
+     */
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SearchIndexProperties properties;
+    private final CourseIndexer courseIndexer;
+    private final Counter published;
+    private final Counter received;
+
+    private final Set<UUID> changedCourses = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> changedModules = ConcurrentHashMap.newKeySet();
+
+    public SearchIndexBroadcaster(StringRedisTemplate redisTemplate,
+                                  ObjectMapper objectMapper,
+                                  SearchIndexProperties properties,
+                                  CourseIndexer courseIndexer,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.courseIndexer = courseIndexer;
+        this.published = meterRegistry.counter("search.index.broadcast", "direction", "published");
+        this.received = meterRegistry.counter("search.index.broadcast", "direction", "received");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseEvent(CourseEvent event) {
+        changedCourses.add(event.getCourseId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onModuleEvent(ModuleEvent event) {
+        changedModules.add(event.getModuleId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCoursesImported(CoursesImportedEvent event) {
+        publish(SearchIndexMessage.imported(nodeId, event.importedAt()));
+    }
+
+    public void broadcastRebuild() {
+        publish(SearchIndexMessage.rebuild(nodeId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.flush-interval-ms:1000}")
+    public void publishChanges() {
+        List<UUID> courseIds = new ArrayList<>(CourseIndexer.drain(changedCourses));
+        List<UUID> moduleIds = new ArrayList<>(CourseIndexer.drain(changedModules));
+        int batchSize = properties.getIndexingBatchSize();
+        for (int from = 0; from < Math.max(courseIds.size(), moduleIds.size()); from += batchSize) {
+            publish(SearchIndexMessage.changes(nodeId, chunk(courseIds, from, batchSize), chunk(moduleIds, from, batchSize)));
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            SearchIndexMessage indexMessage = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), SearchIndexMessage.class);
+            if (nodeId.equals(indexMessage.nodeId())) {
+                return;
+            }
+            switch (indexMessage.type()) {
+                case REBUILD -> courseIndexer.rebuild();
+                case IMPORT -> courseIndexer.queueImport(indexMessage.importedAt());
+                case CHANGES -> courseIndexer.queueChanges(indexMessage.courseIds(), indexMessage.moduleIds());
+            }
+            received.increment();
+            log.debug("Applied remote search index message: {}", indexMessage);
+        } catch (Exception e) {
+            log.error("Failed to apply search index message", e);
+        }
+    }
+
+    private void publish(SearchIndexMessage indexMessage) {
+        try {
+            redisTemplate.convertAndSend(properties.getBroadcastChannel(),
+                    objectMapper.writeValueAsString(indexMessage));
+            published.increment();
+        } catch (Exception e) {
+            // lokalni indeks je vec azuriran, ostali nodovi se usklade tek rebuildom
+            log.error("Failed to broadcast search index message {}", indexMessage, e);
+        }
+    }
+
+    private static Set<UUID> chunk(List<UUID> ids, int from, int size) {
+        return from >= ids.size() ? Set.of() : new HashSet<>(ids.subList(from, Math.min(from + size, ids.size())));
+    }
+}
@@ -0,0 +1,37 @@
+package com.micro.learningplatform.search;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/* Poruka koja se salje preko redis pub/sub kanala ostalim nodovima s lokalnim Lucene indeksom
+ * -> nodeId da posiljatelj ignorira vlastitu poruku
+ * -> REBUILD = puni rebuild indeksa, IMPORT = tecajevi importa s created_at == importedAt,
+ *    CHANGES = tecajevi i moduli promijenjeni na posiljatelju (tecaj modula razrjesava primatelj)
+ */
+public record SearchIndexMessage(
+        String nodeId,
+        Type type,
+        LocalDateTime importedAt,
+        Set<UUID> courseIds,
+        Set<UUID> moduleIds
+) {
+
+    public enum Type {
+        REBUILD,
+        IMPORT,
+        CHANGES
+    }
+
+    public static SearchIndexMessage rebuild(String nodeId) {
+        return new SearchIndexMessage(nodeId, Type.REBUILD, null, Set.of(), Set.of());
+    }
+
+    public static SearchIndexMessage imported(String nodeId, LocalDateTime importedAt) {
+        return new SearchIndexMessage(nodeId, Type.IMPORT, importedAt, Set.of(), Set.of());
+    }
+
+    public static SearchIndexMessage changes(String nodeId, Set<UUID> courseIds, Set<UUID> moduleIds) {
+        return new SearchIndexMessage(nodeId, Type.CHANGES, null, courseIds, moduleIds);
+    }
+}
@@ -0,0 +1,24 @@
+package com.micro.learningplatform.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.search")
+@Getter
+@Setter
+public class SearchIndexProperties {
+
+    // koliko cesto se skupljeni id-evi tecajeva reindeksiraju
+    private long flushIntervalMs = 1000;
+    // broj tecajeva ucitanih i indeksiranih u jednoj transakciji
+    private int indexingBatchSize = 500;
+    // pokreni mass indexer na startu ako je indeks prazan (npr. nova instanca ili obrisan direktorij)
+    private boolean massIndexOnEmptyIndex = true;
+    private int massIndexerThreads = 4;
+    private int maxPageSize = 100;
+    // redis kanal preko kojeg se importi i rebuild javljaju ostalim nodovima (SearchIndexBroadcaster)
+    private String broadcastChannel = "learning-platform:search-index";
+}
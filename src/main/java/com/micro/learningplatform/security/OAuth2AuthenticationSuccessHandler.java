@@ -7,10 +7,12 @@ import com.micro.learningplatform.repositories.UseRepository;
 import com.micro.learningplatform.repositories.UserTokenRepository;
 import com.micro.learningplatform.security.dto.AuthenticationResponse;
 import com.micro.learningplatform.security.jwt.JwtService;
+import com.micro.learningplatform.security.service.TokensRevokedEvent;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -37,6 +39,7 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     private final UserTokenRepository tokenRepository;
     private final UseRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     //todo primjetio sam da mogu napraviti centralizirani servis za createAndSaveTokens posoto imaom u autehServicu i ovdje
 
@@ -121,6 +124,8 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     private void saveUserTokens(User user, String accessToken, String refreshToken) {
         // Prvo opozivamo sve postojeće tokene
         tokenRepository.revokeAllUserTokens(user);
+        // bez eventa bi AuthenticationCache na ovom nodu i dalje prihvacao opozvane tokene do isteka ttl-a
+        eventPublisher.publishEvent(new TokensRevokedEvent(user.getUsername()));
 
         LocalDateTime now = LocalDateTime.now();
 
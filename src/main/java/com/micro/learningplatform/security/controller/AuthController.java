@@ -1,6 +1,5 @@
 package com.micro.learningplatform.security.controller;
 
-import com.micro.learningplatform.repositories.UserTokenRepository;
 import com.micro.learningplatform.security.service.AuthenticationServiceImpl;
 import com.micro.learningplatform.security.dto.AuthenticationRequest;
 import com.micro.learningplatform.security.dto.AuthenticationResponse;
@@ -34,7 +33,6 @@ import java.util.Optional;
 public class AuthController {
 
     private final AuthenticationServiceImpl authService;
-    private final UserTokenRepository tokenRepository;
 
 
     @PostMapping("/register")
@@ -70,13 +68,8 @@ public class AuthController {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
-            var storedToken = tokenRepository.findByToken(jwt)
-                    .orElse(null);
-            if (storedToken != null) {
-                storedToken.setRevoked(true);
-                tokenRepository.save(storedToken);
-                SecurityContextHolder.clearContext();
-            }
+            authService.revokeToken(jwt);
+            SecurityContextHolder.clearContext();
         }
         return ResponseEntity.ok().build();
     }
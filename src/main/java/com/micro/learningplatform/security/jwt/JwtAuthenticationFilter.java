@@ -1,19 +1,21 @@
 package com.micro.learningplatform.security.jwt;
 
 import com.micro.learningplatform.repositories.UserTokenRepository;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.security.SignatureException;
+import com.micro.learningplatform.security.service.AuthenticationCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -21,13 +23,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -40,13 +45,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final UserDetailsService userDetailsService;
     private final UserTokenRepository tokenRepository;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
-
-    // Thread pool za paralelno procesiranje tokena
-     // shudown() ExecutorService-a da ne bi doslo do curenja resursa - done
-    private final ExecutorService tokenValidationExecutor =
-            Executors.newVirtualThreadPerTaskExecutor();
-
-
+    private final AuthenticationCache authenticationCache;
+
+    // upravljani executor iz AsyncConfig (ogranicena konkurentnost, metrike, gasenje sa springom)
+    private final ExecutorService tokenValidationExecutorService;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   UserTokenRepository tokenRepository,
+                                   JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
+                                   AuthenticationCache authenticationCache,
+                                   @Qualifier("tokenValidationExecutorService") ExecutorService tokenValidationExecutorService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenRepository = tokenRepository;
+        this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
+        this.authenticationCache = authenticationCache;
+        this.tokenValidationExecutorService = tokenValidationExecutorService;
+    }
 
     // filter presrece svaki nas zahtijev koji nije public
     @Override
@@ -67,7 +83,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     /** ako zahtijev treba filtrirati korsiitmo virtual threads koji istovremenu provjerava 2 stvari za propust
      * je li jwt potpis valjan i jeli propusnica (findValidToken) jos uvijek aktivna
-     *
+     * token koji je vec prosao provjeru na ovom nodu citamo iz AuthenticationCache-a bez parsiranja i upita u bazu
      */
 
     @Override
@@ -88,37 +104,74 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
 
-        try {
-            // Koristimo CompletableFuture za asinkronu validaciju
-            CompletableFuture<String> userEmailFuture = CompletableFuture
-                    .supplyAsync(() -> jwtService.extractUsername(jwt), tokenValidationExecutor);
+        UserDetails cachedUser = authenticationCache.get(jwt);
+        if (cachedUser != null) {
+            authenticate(cachedUser, request);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            CompletableFuture<Boolean> tokenValidityFuture = CompletableFuture
-                    .supplyAsync(() -> tokenRepository.findValidToken(jwt, LocalDateTime.now())
-                                    .map(token -> !token.isRevoked())
-                                    .orElse(false),
-                            tokenValidationExecutor);
+        Future<Claims> claimsFuture = null;
+        Future<Boolean> tokenValidityFuture = null;
+        try {
+            // obje provjere idu paralelno, claims parsiramo jednom za subject i expiry
+            claimsFuture = tokenValidationExecutorService.submit(() -> jwtService.extractClaim(jwt, Function.identity()));
+            tokenValidityFuture = tokenValidationExecutorService.submit(() -> tokenRepository.findValidToken(jwt, LocalDateTime.now())
+                    .map(token -> !token.isRevoked())
+                    .orElse(false));
 
             // Čekamo rezultate validacije, no razmislit sbakako o dodavanju jwt-validations-timeout-ms za flekibilnost u propertis yaml
-            String userEmail = userEmailFuture.get(500, TimeUnit.MILLISECONDS);
+            Claims claims = claimsFuture.get(500, TimeUnit.MILLISECONDS);
             boolean isValidToken = tokenValidityFuture.get(500, TimeUnit.MILLISECONDS);
 
-            if (userEmail != null && isValidToken) {
-                processValidToken(userEmail, request);
+            if (claims.getSubject() != null && isValidToken) {
+                processValidToken(jwt, claims, request);
             }else {
                 throw new BadCredentialsException("Invalid or revoked token");
             }
-
-            filterChain.doFilter(request, response);
-        } catch (SignatureException | ExpiredJwtException e) {
-            jwtAuthenticationEntryPoint.commence(request, response, new BadCredentialsException(e.getMessage()));
+        } catch (RejectedExecutionException | TimeoutException | CancellationException e) {
+            /* executor je pun, provjera nije stigla na vrijeme ili je zadatak otkazan (gasenje)
+             * -> to nije neispravan token nego preopterecen servis, klijent treba ponoviti zahtjev (503, ne 401)
+             */
+            cancel(claimsFuture, tokenValidityFuture);
+            log.warn("Token validation unavailable for {}: {}", request.getServletPath(), e.toString());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Token validation temporarily unavailable");
+            return;
+        } catch (InterruptedException e) {
+            cancel(claimsFuture, tokenValidityFuture);
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Token validation interrupted");
+            return;
+        } catch (ExecutionException e) {
+            // greska iz same provjere (potpis, istek, baza) - entry point iz uzroka bira poruku
+            cancel(claimsFuture, tokenValidityFuture);
+            jwtAuthenticationEntryPoint.commence(request, response, new BadCredentialsException("Invalid token", e.getCause()));
+            return;
         } catch (Exception e) {
             jwtAuthenticationEntryPoint.commence(request, response, new AuthenticationException(e.getMessage()) {});
+            return;
         }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // zadatak koji jos ceka na permit ne treba zauzimati executor kad odgovor vec saljemo
+    private static void cancel(Future<?>... futures) {
+        for (Future<?> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void processValidToken(String jwt, Claims claims, HttpServletRequest request) {
+        var userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        authenticationCache.put(jwt, userDetails, claims.getExpiration().toInstant());
+        authenticate(userDetails, request);
     }
 
-    private void processValidToken(String userEmail, HttpServletRequest request) {
-        var userDetails = userDetailsService.loadUserByUsername(userEmail);
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
         var authToken = new UsernamePasswordAuthenticationToken(
                 userDetails,
                 null,
@@ -0,0 +1,99 @@
+package com.micro.learningplatform.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.micro.learningplatform.cache.CacheInvalidationBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+@Component
+@Slf4j
+public class AuthenticationCache {
+
+    /* Lokalni kes vec provjerenih JWT tokena
+     * 1. kljuc je SHA-256 hash tokena, sam token ne drzimo u memoriji
+     * 2. vrijednost je razrijeseni principal, pa pogodak ne parsira JWT i ne ide u bazu
+     *    (ni findValidToken ni loadUserByUsername)
+     * 3. zapis istjece kad istekne token, a najkasnije nakon ttl-a
+     *    -> ttl je samo granica ako poruka o opozivu ne stigne (redis nedostupan)
+     * 4. svaki opoziv (revokeAllUserTokens, revokeToken, OAuth2 prijava) objavi TokensRevokedEvent
+     *    -> nakon commita izbacujemo sve tokene korisnika lokalno i saljemo username na invalidacijski kanal
+     *       (CacheInvalidationBroadcaster), ostali nodovi izbace isto iz svog kesa
+     */
+
+    static final String CACHE_NAME = "authentication";
+
+    private final Cache<String, CachedAuthentication> cache;
+    private final Duration ttl;
+    private final CacheInvalidationBroadcaster invalidationBroadcaster;
+
+    public AuthenticationCache(@Value("${app.security.auth-cache.max-size:50000}") long maxSize,
+                               @Value("${app.security.auth-cache.ttl:60s}") Duration ttl,
+                               CacheInvalidationBroadcaster invalidationBroadcaster,
+                               MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.invalidationBroadcaster = invalidationBroadcaster;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, CachedAuthentication>creating((key, value) -> timeToLive(value)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        invalidationBroadcaster.registerEvictionHandler(CACHE_NAME, this::evictUser);
+    }
+
+    public UserDetails get(String token) {
+        CachedAuthentication cached = cache.getIfPresent(hash(token));
+        return cached != null ? cached.userDetails() : null;
+    }
+
+    public void put(String token, UserDetails userDetails, Instant tokenExpiresAt) {
+        cache.put(hash(token), new CachedAuthentication(userDetails, tokenExpiresAt));
+    }
+
+    // bez transakcije (fallbackExecution) odmah, inace tek nakon commita da ne vratimo token koji je jos valjan u bazi
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        evictUser(event.username());
+        invalidationBroadcaster.broadcastEvict(CACHE_NAME, event.username());
+    }
+
+    private void evictUser(String username) {
+        // revokacija je rijetka pa je prolaz kroz ograniceni kes jeftiniji od odrzavanja indeksa po korisniku
+        cache.asMap().values().removeIf(cached -> cached.userDetails().getUsername().equals(username));
+        log.debug("Evicted cached authentications for user {}", username);
+    }
+
+    private Duration timeToLive(CachedAuthentication value) {
+        Duration untilExpiry = Duration.between(Instant.now(), value.tokenExpiresAt());
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedAuthentication(UserDetails userDetails, Instant tokenExpiresAt) {
+    }
+}
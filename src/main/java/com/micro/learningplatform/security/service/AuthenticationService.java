@@ -31,6 +31,8 @@ public interface AuthenticationService {
 
     void logout(HttpServletRequest request, User currentUser);
 
+    void revokeToken(String token);
+
 
 
 }
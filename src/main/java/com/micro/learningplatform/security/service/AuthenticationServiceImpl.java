@@ -16,6 +16,7 @@ import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -44,6 +45,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final UserTokenRepository tokenRepository;
     private final TokenValidationService tokenValidationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     //TOdo dodati bolje respone odgovore za metdoe, malo bolje validaciju pogotov za admiin metode
 
@@ -305,6 +307,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private void saveUserTokens(User user, String accessToken, String refreshToken) {
         // Prvo opozivamo sve postojeće tokene
         tokenRepository.revokeAllUserTokens(user);
+        eventPublisher.publishEvent(new TokensRevokedEvent(user.getUsername()));
 
         LocalDateTime now = LocalDateTime.now();
 
@@ -376,6 +379,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
             // Opoziv svih tokena korisnika
             tokenRepository.revokeAllUserTokens(currentUser);
+            eventPublisher.publishEvent(new TokensRevokedEvent(currentUser.getUsername()));
 
             SecurityContextHolder.clearContext();
 
@@ -394,6 +398,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     }
 
+    // opoziv jednog tokena; TokensRevokedEvent izbacuje tokene korisnika iz AuthenticationCache nakon commita
+    @Override
+    @Transactional
+    public void revokeToken(String token) {
+        tokenRepository.findByToken(token).ifPresent(storedToken -> {
+            storedToken.setRevoked(true);
+            tokenRepository.save(storedToken);
+            eventPublisher.publishEvent(new TokensRevokedEvent(storedToken.getUser().getUsername()));
+        });
+    }
+
     private User findOrCreateOAuth2User(OAuth2User oauth2User, String provider, String providerId) {
         return userRepository.findByProviderAndProviderId(AuthProvider.valueOf(provider), providerId)
                 .orElseGet(() -> {
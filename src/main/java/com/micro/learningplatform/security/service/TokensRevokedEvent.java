@@ -0,0 +1,5 @@
+package com.micro.learningplatform.security.service;
+
+// objavljuje se nakon revokeAllUserTokens, AuthenticationCache na commit izbacuje tokene korisnika
+public record TokensRevokedEvent(String username) {
+}
@@ -17,11 +17,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.hibernate.StaleObjectStateException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @Service
 @RequiredArgsConstructor
@@ -32,6 +39,8 @@ public class BatchProcessorService {
 
     private final EntityManager entityManager;
     private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutorService batchProcessingExecutorService;
 
     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
     private int defaultBatchSize;
@@ -39,6 +48,12 @@ public class BatchProcessorService {
     @Value("${spring.task.execution.pool.queue-capacity}")
     private int queueCapacity;
 
+    @Value("${app.batch.parallelism:8}")
+    private int defaultParallelism;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
     private final Set<String> knownErrors = new HashSet<>();
 
 
@@ -67,7 +82,7 @@ public class BatchProcessorService {
                 clearEntityManagerIfNeeded(processingOptions);
             }
 
-            recordBatchMetrics(timer, items.size(), result);
+            recordBatchMetrics(timer, items.size(), result, "processBatch");
             result.complete();
             log.info("Batch processing completed successfully: {}", result);
 
@@ -81,6 +96,205 @@ public class BatchProcessorService {
 
     }
 
+    /* Paralelna obrada za velike importe
+     * 1. svaki chunk (Lists.partition) ide u svoju kratku REQUIRES_NEW transakciju na virtualnom threadu
+     * 2. backpressure: u letu je najvise `parallelism` chunkova, sljedeci se salje tek kad neki zavrsi
+     *    -> parallelism drzimo ispod velicine hikari poola jer svaki chunk drzi jednu konekciju
+     * 3. RetryPolicy se postuje po chunku, svaki pokusaj dobije novu transakciju
+     * 4. rezultat i progres azurira samo pozivajuci thread pa BatchProcessingResult ne mora biti thread-safe
+     *  -> nema queue-capacity ogranicenja jer se chunkovi ne skupljaju u redu
+     */
+    public <T> BatchProcessingResult processBatchParallel(List<T> items, BatchProcessor<T> processor, BatchProcessingOptions processingOptions) throws BatchProcessingException {
+
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Items list cannot be null or empty");
+        }
+        Timer.Sample timer = Timer.start(meterRegistry);
+        BatchProcessingResult result = new BatchProcessingResult();
+
+        int parallelism = resolveParallelism(processingOptions.getParallelism());
+        List<List<T>> chunks = partitionItems(items, processingOptions);
+        log.info("Processing {} chunks with parallelism {}", chunks.size(), parallelism);
+
+        BatchProgressTracker batchProgressTracker = new BatchProgressTracker(
+                items.size(),
+                processingOptions.getProgressInterval()
+        );
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        CompletionService<ChunkOutcome> completionService =
+                new ExecutorCompletionService<>(batchProcessingExecutorService);
+        List<Future<ChunkOutcome>> submitted = new ArrayList<>(chunks.size());
+        int inFlight = 0;
+
+        try {
+            for (List<T> chunk : chunks) {
+                if (inFlight == parallelism) {
+                    mergeChunkOutcome(completionService.take().get(), result, batchProgressTracker);
+                    inFlight--;
+                }
+                submitted.add(completionService.submit(
+                        () -> processChunk(chunk, processor, processingOptions, chunkTransaction)));
+                inFlight++;
+            }
+            while (inFlight > 0) {
+                mergeChunkOutcome(completionService.take().get(), result, batchProgressTracker);
+                inFlight--;
+            }
+
+            recordBatchMetrics(timer, items.size(), result, "processBatchParallel");
+            result.complete();
+            log.info("Parallel batch processing completed: {}", result.getSummary());
+            return result;
+
+        } catch (Exception e) {
+            submitted.forEach(future -> future.cancel(true));
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            handleBatchError(e, result);
+            throw new BatchProcessingException("Parallel batch processing failed", e);
+        }
+    }
+
+    /* parallelism dolazi i iz tijela zahtjeva
+     * -> manje od 1 bi razbilo backpressure petlju (inFlight nikad ne dostigne parallelism)
+     * -> gornja granica je hikari pool minus jedna konekcija za pozivatelja i ostatak aplikacije
+     */
+    private int resolveParallelism(Integer requested) {
+        int parallelism = requested != null ? requested : defaultParallelism;
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        int limit = Math.max(1, connectionPoolSize - 1);
+        if (parallelism > limit) {
+            log.warn("Requested parallelism {} exceeds connection pool limit, using {}", parallelism, limit);
+            return limit;
+        }
+        return parallelism;
+    }
+
+    // izvrsava se na worker threadu, ne dira zajednicko stanje
+    private <T> ChunkOutcome processChunk(
+            List<T> chunk,
+            BatchProcessor<T> processor,
+            BatchProcessingOptions options,
+            TransactionTemplate chunkTransaction) {
+
+        Timer.Sample chunkTimer = Timer.start(meterRegistry);
+        int attempts = 0;
+
+        while (true) {
+            attempts++;
+            try {
+                runInTransaction(chunk, processor, options, chunkTransaction);
+                chunkTimer.stop(Timer.builder("batch.chunk")
+                        .tag("status", "success")
+                        .register(meterRegistry));
+                return ChunkOutcome.success(chunk.size());
+
+            } catch (Exception e) {
+                Exception cause = unwrapChunkFailure(e);
+
+                if (isRetryable(options.getRetryPolicy(), cause, attempts)) {
+                    log.warn("Retrying chunk of {} items (attempt {}): {}", chunk.size(), attempts, cause.getMessage());
+                    meterRegistry.counter("batch.retry", "type", cause.getClass().getSimpleName()).increment();
+                    if (!sleep(options.getRetryPolicy().getDelay())) {
+                        return ChunkOutcome.failure(chunk, cause);
+                    }
+                    continue;
+                }
+
+                chunkTimer.stop(Timer.builder("batch.chunk")
+                        .tag("status", "failure")
+                        .register(meterRegistry));
+
+                if (shouldProcessIndividually(cause) && chunk.size() > 1) {
+                    return processItemsIndividuallyInTransactions(chunk, processor, options, chunkTransaction);
+                }
+                log.error("Chunk of {} items failed after {} attempts: {}", chunk.size(), attempts, cause.getMessage(), cause);
+                return ChunkOutcome.failure(chunk, cause);
+            }
+        }
+    }
+
+    private <T> ChunkOutcome processItemsIndividuallyInTransactions(
+            List<T> chunk,
+            BatchProcessor<T> processor,
+            BatchProcessingOptions options,
+            TransactionTemplate chunkTransaction) {
+
+        int success = 0;
+        List<BatchItemError> errors = new ArrayList<>();
+        for (T item : chunk) {
+            try {
+                runInTransaction(Collections.singletonList(item), processor, options, chunkTransaction);
+                success++;
+            } catch (Exception e) {
+                Exception cause = unwrapChunkFailure(e);
+                log.error("Failed to process individual item: {}", item, cause);
+                errors.add(new BatchItemError(item, cause));
+            }
+        }
+        return new ChunkOutcome(success, errors.size(), errors);
+    }
+
+    private <T> void runInTransaction(
+            List<T> chunk,
+            BatchProcessor<T> processor,
+            BatchProcessingOptions options,
+            TransactionTemplate chunkTransaction) {
+
+        chunkTransaction.executeWithoutResult(status -> {
+            try {
+                processor.process(chunk);
+                clearEntityManagerIfNeeded(options);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ChunkFailure(e);
+            }
+        });
+    }
+
+    private void mergeChunkOutcome(ChunkOutcome outcome, BatchProcessingResult result, BatchProgressTracker batchProgressTracker) {
+        result.incrementSuccessCount(outcome.successCount());
+        result.incrementFailureCount(outcome.failureCount());
+        outcome.errors().forEach(result::addError);
+        batchProgressTracker.updateProgress(outcome.successCount() + outcome.failureCount());
+    }
+
+    // spring omata JPA iznimke (npr. ObjectOptimisticLockingFailureException) pa provjeravamo cijeli lanac uzroka
+    private boolean isRetryable(RetryPolicy retryPolicy, Exception e, int attempts) {
+        if (retryPolicy == null) {
+            return false;
+        }
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current instanceof Exception exception && retryPolicy.shouldRetry(exception, attempts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Exception unwrapChunkFailure(Exception e) {
+        return e instanceof ChunkFailure failure ? (Exception) failure.getCause() : e;
+    }
+
+    private boolean sleep(Duration delay) {
+        if (delay == null || delay.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     /**
      * Optimalno particionira items za batch processing
      */
@@ -138,27 +352,28 @@ public class BatchProcessorService {
     private void recordBatchMetrics(
             Timer.Sample timer,
             int totalItems,
-            BatchProcessingResult result) {
+            BatchProcessingResult result,
+            String operation) {
 
        // Završavamo mjerenje vremena
         timer.stop(Timer.builder("batch.processing")
                 .tag("status", result.isSuccessful() ? "success" : "partial_failure")
-                .tag("operation", "processBatch")
+                .tag("operation", operation)
                 .register(meterRegistry));
 
         meterRegistry.gauge("batch.success_rate",
-                Tags.of("operation", "processBatch"),
+                Tags.of("operation", operation),
                 result.getSuccessRate());
 
         // Brojači za uspješne i neuspješne unose
         meterRegistry.counter("batch.items",
                         "status", "success",
-                        "operation", "processBatch")
+                        "operation", operation)
                 .increment(result.getSuccessCount());
 
         meterRegistry.counter("batch.items",
                         "status", "failure",
-                        "operation", "processBatch")
+                        "operation", operation)
                 .increment(result.getFailureCount());
     }
 
@@ -272,6 +487,7 @@ public class BatchProcessorService {
     @Builder
     public static class BatchProcessingOptions {
         private final Integer batchSize;
+        private final Integer parallelism;
         private final boolean clearEntityManagerAfterBatch;
         private final int progressInterval;
         private final RetryPolicy retryPolicy;
@@ -309,6 +525,24 @@ public class BatchProcessorService {
         }
     }
 
+    private record ChunkOutcome(int successCount, int failureCount, List<BatchItemError> errors) {
+
+        static ChunkOutcome success(int size) {
+            return new ChunkOutcome(size, 0, List.of());
+        }
+
+        static ChunkOutcome failure(List<?> chunk, Exception e) {
+            return new ChunkOutcome(0, chunk.size(), List.of(new BatchItemError(chunk, e)));
+        }
+    }
+
+    // prenosi checked iznimku procesora kroz TransactionCallback
+    private static class ChunkFailure extends RuntimeException {
+        ChunkFailure(Exception cause) {
+            super(cause);
+        }
+    }
+
     /**
      * Prati napredak batch processinga
      */
@@ -1,6 +1,8 @@
 package com.micro.learningplatform.services;
 
 import com.micro.learningplatform.cache.CacheEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import lombok.RequiredArgsConstructor;
@@ -9,7 +11,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 @Service
@@ -23,12 +25,13 @@ public class CacheMetricsService {
      * 1. nije uvjek nuzno potrebno razdvajati sve klase ali posto vec imam slozenijji kesiranje ima smisla
      * 2 . zelim bolju modulranost
      * 3. znam da ce jos rast slozenost i kod pa ima smisla razdoviti
-     * 4.
+     * 4. hit/miss put je vruc (svako citanje iz kesa) pa meter handle-ove razrjesavamo jednom po kesu
+     *    -> CacheMeters drzi countere i LongAdder-e, hit rate gauge je funkcijski i registrira se samo jednom
+     *    -> na hit/miss nema lookup-a countera po imenu, nema boxinga ni CacheEvent objekta
      */
 
     private final MeterRegistry meterRegistry;
-    private final Map<String, AtomicLong> cacheHits = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> cacheMisses = new ConcurrentHashMap<>();
+    private final Map<String, CacheMeters> cacheMeters = new ConcurrentHashMap<>();
 
     public void recordMetrics(String metricName, String cacheName, Map<String, String> tags) {
         Tags micrometerTags = Tags.of(
@@ -41,6 +44,11 @@ public class CacheMetricsService {
         meterRegistry.counter(metricName, micrometerTags).increment();
     }
 
+    // Handle za jedan kes, pozivatelj (MonitoredCache) ga drzi u polju i koristi na svakom citanju
+    public CacheMeters metersFor(String cacheName) {
+        return cacheMeters.computeIfAbsent(cacheName, name -> new CacheMeters(name, meterRegistry));
+    }
+
 
     public void recordCacheEvent(CacheEvent event) {
         switch (event.type()) {
@@ -57,19 +65,15 @@ public class CacheMetricsService {
 
 
     public void recordCacheHit(String cacheName) {
-        cacheHits.computeIfAbsent(cacheName, key -> new AtomicLong(0)).incrementAndGet();
-        updateHitRateMetric(cacheName);
-        meterRegistry.counter("cache.hit", "cache", cacheName).increment();
+        metersFor(cacheName).hit();
     }
 
     public void recordCacheMiss(String cacheName) {
-        cacheMisses.computeIfAbsent(cacheName, key -> new AtomicLong(0)).incrementAndGet();
-        updateHitRateMetric(cacheName);
-        meterRegistry.counter("cache.miss", "cache", cacheName).increment();
+        metersFor(cacheName).miss();
     }
 
     public void recordCachePut(String cacheName, Object key) {
-        meterRegistry.counter("cache.put", "cache", cacheName).increment();
+        metersFor(cacheName).put();
         log.debug("Cache put: cache={}, key={}", cacheName, key);
     }
 
@@ -78,15 +82,43 @@ public class CacheMetricsService {
         log.warn("Cache eviction: cache={}, key={}, reason={}", cacheName, key, reason);
     }
 
+    public static final class CacheMeters {
+
+        private final Counter hitCounter;
+        private final Counter missCounter;
+        private final Counter putCounter;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private CacheMeters(String cacheName, MeterRegistry meterRegistry) {
+            this.hitCounter = meterRegistry.counter("cache.hit", "cache", cacheName);
+            this.missCounter = meterRegistry.counter("cache.miss", "cache", cacheName);
+            this.putCounter = meterRegistry.counter("cache.put", "cache", cacheName);
+            // gauge cita stanje tek kad se metrike scrapeaju, ne na svakom hit-u
+            Gauge.builder("cache.hit.rate", this, CacheMeters::hitRate)
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+        }
+
+        public void hit() {
+            hits.increment();
+            hitCounter.increment();
+        }
 
+        public void miss() {
+            misses.increment();
+            missCounter.increment();
+        }
 
-    private void updateHitRateMetric(String cacheName) {
-        long hits = cacheHits.getOrDefault(cacheName, new AtomicLong(0)).longValue();
-        long misses = cacheMisses.getOrDefault(cacheName, new AtomicLong(0)).longValue();
-        double hitRate = (hits + misses == 0) ? 0.0 : (double) hits / (hits + misses);
+        public void put() {
+            putCounter.increment();
+        }
 
-        meterRegistry.gauge("cache.hit.rate", Tags.of("cache", cacheName), hitRate);
-        log.debug("Cache '{}' hit rate updated: {}", cacheName, hitRate);
+        public double hitRate() {
+            long hitCount = hits.sum();
+            long total = hitCount + misses.sum();
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
     }
 
 }
@@ -0,0 +1,482 @@
+package com.micro.learningplatform.services;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.micro.learningplatform.event.course.CourseCreatedEvent;
+import com.micro.learningplatform.event.course.CoursesImportedEvent;
+import com.micro.learningplatform.event.codec.EncodedEvent;
+import com.micro.learningplatform.event.codec.EventCodecs;
+import com.micro.learningplatform.models.dto.DifficultyLevel;
+import com.micro.learningplatform.models.dto.courses.CourseImportResult;
+import com.micro.learningplatform.models.dto.courses.CourseImportRow;
+import com.micro.learningplatform.models.dto.module.CreateModuleRequest;
+import com.micro.learningplatform.shared.exceptions.RepositoryException;
+import com.micro.learningplatform.shared.utils.CsvRecordReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseImportService {
+
+    /* Streaming bulk import tecajeva (NDJSON ili CSV) kroz PostgreSQL COPY
+     * 1. ulaz parsiramo zapis po zapis, u memoriji je samo jedan chunk od CHUNK_SIZE redova
+     * 2. svaki chunk ide COPY-jem u privremene staging tablice (ON COMMIT DROP)
+     *    -> jedna COPY operacija po chunku umjesto persist/flush po entitetu
+     * 3. duplikati naslova (unutar datoteke i prema postojecim tecajevima) brisu se set-based iz staginga
+     *    -> umjesto existsByTitleInIgnoreCase s ogromnom IN listom
+     * 4. na kraju po jedan INSERT ... SELECT u courses, course_statistics, course_modules i event_outbox
+     *  -> sve je jedna transakcija, import uspije cijeli ili nista
+     *  -> za svaki tecaj u outbox ide CourseCreatedEvent kao i kod Course.create
+     */
+
+    private static final int CHUNK_SIZE = 5_000;
+    private static final int DUPLICATE_SAMPLE_SIZE = 100;
+    private static final int MAX_TITLE_LENGTH = 200;
+    private static final Duration MINIMUM_MODULE_DURATION = Duration.ofMinutes(5);
+    private static final Set<String> DIFFICULTY_LEVELS = Set.of("BEGINNER", "INTERMEDIATE", "ADVANCED");
+
+    private static final String REMOVE_DUPLICATES_IN_FILE_SQL = """
+            DELETE FROM import_courses s
+            USING import_courses d
+            WHERE lower(s.title) = lower(d.title)
+            AND s.line_no > d.line_no
+            RETURNING s.title
+            """;
+
+    private static final String REMOVE_EXISTING_TITLES_SQL = """
+            DELETE FROM import_courses s
+            USING courses c
+            WHERE lower(c.title) = lower(s.title)
+            RETURNING s.title
+            """;
+
+    private static final String INSERT_COURSES_SQL = """
+            INSERT INTO courses (id, title, description, course_status, created_at, updated_at, version,
+                                 category, difficulty_level, max_students, total_modules, total_duration)
+            SELECT id, title, description, 'DRAFT', LOCALTIMESTAMP, LOCALTIMESTAMP, 0,
+                   'COURSE', difficulty_level, 100, total_modules, total_duration
+            FROM import_courses
+            """;
+
+    // isti izracun kao CourseStatistics.recalculate, svi moduli su DRAFT pa je completion rate 0
+    private static final String INSERT_STATISTICS_SQL = """
+            INSERT INTO course_statistics (course_id, average_module_duration, completion_rate,
+                                           difficulty_score, last_calculated, module_count,
+                                           total_module_duration, completed_modules, difficulty_score_sum)
+            SELECT c.id,
+                   COALESCE(AVG(m.duration), INTERVAL '0'),
+                   0,
+                   COALESCE(ROUND(AVG(m.difficulty_score), 2), 0),
+                   LOCALTIMESTAMP,
+                   COUNT(m.id),
+                   COALESCE(SUM(m.duration), INTERVAL '0'),
+                   0,
+                   COALESCE(SUM(m.difficulty_score), 0)
+            FROM import_courses c
+            LEFT JOIN import_modules m ON m.course_id = c.id
+            GROUP BY c.id
+            """;
+
+    private static final String INSERT_MODULES_SQL = """
+            INSERT INTO course_modules (id, course_id, title, description, sequence_number, duration, status,
+                                        created_at, updated_at, version, category, difficulty_level, max_students)
+            SELECT m.id, m.course_id, m.title, m.description, m.sequence_number, m.duration, 'DRAFT',
+                   LOCALTIMESTAMP, LOCALTIMESTAMP, 0, 'MODULE', m.difficulty_level, 100
+            FROM import_modules m
+            JOIN import_courses c ON c.id = m.course_id
+            """;
+
+    private static final String INSERT_OUTBOX_SQL = """
+            INSERT INTO event_outbox (id, aggregate_type, aggregate_id, event_type, payload, content_type,
+                                      schema_version, created_at)
+            SELECT o.id, 'Course', o.aggregate_id, 'CourseCreatedEvent', o.payload, o.content_type,
+                   o.schema_version, o.created_at
+            FROM import_outbox o
+            JOIN import_courses c ON c.id = o.aggregate_id
+            """;
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public enum ImportFormat {
+        NDJSON,
+        CSV
+    }
+
+    // RepositoryException je checked pa rollback moramo eksplicitno traziti
+    @Transactional(rollbackFor = RepositoryException.class)
+    public CourseImportResult importCourses(InputStream input, ImportFormat format) throws RepositoryException {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        try {
+            CourseImportResult result = entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> runImport(connection, openSource(input, format), startedAt));
+            // slusatelji (indeks pretrage) dobivaju ga tek nakon commita
+            if (result.imported() > 0) {
+                eventPublisher.publishEvent(new CoursesImportedEvent(transactionTimestamp(), result.imported()));
+            }
+
+            timer.stop(Timer.builder("course.import")
+                    .tag("format", format.name())
+                    .register(meterRegistry));
+            meterRegistry.counter("course.import.rows", "status", "imported").increment(result.imported());
+            meterRegistry.counter("course.import.rows", "status", "duplicate").increment(result.duplicates());
+            meterRegistry.counter("course.import.rows", "status", "invalid").increment(result.invalid());
+            log.info("Course import finished: {}", result);
+            return result;
+
+        } catch (UncheckedIOException e) {
+            throw new IllegalArgumentException("Invalid " + format + " import payload: " + e.getCause().getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Course import failed", e);
+            throw new RepositoryException("Failed to import courses", e);
+        }
+    }
+
+    private CourseImportResult runImport(Connection connection, RowSource source, LocalDateTime startedAt)
+            throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        createStagingTables(connection);
+
+        List<StagedCourse> chunk = new ArrayList<>(CHUNK_SIZE);
+        long received = 0;
+        long invalid = 0;
+        CourseImportRow row;
+
+        while ((row = nextRow(source)) != null) {
+            received++;
+            String error = validate(row);
+            if (error != null) {
+                invalid++;
+                log.debug("Skipping import record {}: {}", received, error);
+                continue;
+            }
+            chunk.add(new StagedCourse(UUID.randomUUID(), received, row));
+            if (chunk.size() == CHUNK_SIZE) {
+                copyChunk(copyManager, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            copyChunk(copyManager, chunk);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            // temp tablice autovacuum ne analizira, bez statistike planer krivo procjenjuje joinove
+            statement.execute("ANALYZE import_courses");
+            statement.execute("ANALYZE import_modules");
+
+            List<String> duplicateSample = new ArrayList<>();
+            long duplicates = collectTitles(statement.executeQuery(REMOVE_DUPLICATES_IN_FILE_SQL), duplicateSample)
+                    + collectTitles(statement.executeQuery(REMOVE_EXISTING_TITLES_SQL), duplicateSample);
+
+            long imported = statement.executeUpdate(INSERT_COURSES_SQL);
+            statement.executeUpdate(INSERT_STATISTICS_SQL);
+            long importedModules = statement.executeUpdate(INSERT_MODULES_SQL);
+            statement.executeUpdate(INSERT_OUTBOX_SQL);
+
+            return new CourseImportResult(
+                    received,
+                    imported,
+                    importedModules,
+                    duplicates,
+                    invalid,
+                    duplicateSample,
+                    Duration.between(startedAt, LocalDateTime.now())
+            );
+        }
+    }
+
+    // LOCALTIMESTAMP je pocetak transakcije, ista vrijednost koju INSERT_COURSES_SQL upisuje u created_at
+    private LocalDateTime transactionTimestamp() {
+        return (LocalDateTime) entityManager.createNativeQuery("SELECT LOCALTIMESTAMP", LocalDateTime.class)
+                .getSingleResult();
+    }
+
+    private void createStagingTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TEMP TABLE import_courses (
+                        line_no BIGINT NOT NULL,
+                        id UUID NOT NULL,
+                        title VARCHAR(200) NOT NULL,
+                        description TEXT,
+                        difficulty_level VARCHAR(50) NOT NULL,
+                        total_modules INTEGER NOT NULL,
+                        total_duration INTERVAL NOT NULL
+                    ) ON COMMIT DROP
+                    """);
+            statement.execute("""
+                    CREATE TEMP TABLE import_modules (
+                        id UUID NOT NULL,
+                        course_id UUID NOT NULL,
+                        title VARCHAR(255) NOT NULL,
+                        description TEXT,
+                        sequence_number INTEGER NOT NULL,
+                        duration INTERVAL NOT NULL,
+                        difficulty_level VARCHAR(50) NOT NULL,
+                        difficulty_score INTEGER NOT NULL
+                    ) ON COMMIT DROP
+                    """);
+            statement.execute("""
+                    CREATE TEMP TABLE import_outbox (
+                        id UUID NOT NULL,
+                        aggregate_id UUID NOT NULL,
+                        payload BYTEA NOT NULL,
+                        content_type VARCHAR(100) NOT NULL,
+                        schema_version INTEGER NOT NULL,
+                        created_at TIMESTAMP NOT NULL
+                    ) ON COMMIT DROP
+                    """);
+        }
+    }
+
+    private void copyChunk(CopyManager copyManager, List<StagedCourse> chunk) throws SQLException {
+        StringBuilder courses = new StringBuilder(chunk.size() * 128);
+        StringBuilder modules = new StringBuilder();
+        StringBuilder outbox = new StringBuilder(chunk.size() * 96);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (StagedCourse staged : chunk) {
+            CourseImportRow row = staged.row();
+            DifficultyLevel courseLevel = DifficultyLevel.valueOf(row.difficultyLevel().toUpperCase(Locale.ROOT));
+            List<CreateModuleRequest> moduleRequests = modulesOf(row);
+            boolean assignSequence = moduleRequests.stream().anyMatch(module -> module.sequenceNumber() == null);
+            Duration totalDuration = Duration.ZERO;
+
+            for (int i = 0; i < moduleRequests.size(); i++) {
+                CreateModuleRequest module = moduleRequests.get(i);
+                DifficultyLevel moduleLevel = module.difficultyLevel() != null ? module.difficultyLevel() : courseLevel;
+                totalDuration = totalDuration.plus(module.getDuration());
+                appendCsvRecord(modules,
+                        UUID.randomUUID(),
+                        staged.id(),
+                        module.title().trim(),
+                        module.description(),
+                        assignSequence ? i + 1 : module.sequenceNumber(),
+                        module.getDuration(),
+                        moduleLevel.name(),
+                        moduleLevel.getScore());
+            }
+
+            appendCsvRecord(courses,
+                    staged.lineNo(),
+                    staged.id(),
+                    row.title().trim(),
+                    row.description(),
+                    courseLevel.name(),
+                    moduleRequests.size(),
+                    totalDuration);
+            // id outbox zapisa je eventId dogadaja, kao i kod EventHanlder-a
+            CourseCreatedEvent created = new CourseCreatedEvent(UUID.randomUUID(), staged.id(), now);
+            EncodedEvent event = encode(created);
+            appendCsvRecord(outbox,
+                    created.eventId(),
+                    staged.id(),
+                    "\\x" + HexFormat.of().formatHex(event.payload()),
+                    event.contentType(),
+                    event.schemaVersion(),
+                    now);
+        }
+
+        copy(copyManager, "COPY import_courses (line_no, id, title, description, difficulty_level, total_modules, total_duration) FROM STDIN WITH (FORMAT csv)", courses);
+        if (!modules.isEmpty()) {
+            copy(copyManager, "COPY import_modules (id, course_id, title, description, sequence_number, duration, difficulty_level, difficulty_score) FROM STDIN WITH (FORMAT csv)", modules);
+        }
+        copy(copyManager, "COPY import_outbox (id, aggregate_id, payload, content_type, schema_version, created_at) FROM STDIN WITH (FORMAT csv)", outbox);
+    }
+
+    private void copy(CopyManager copyManager, String sql, StringBuilder data) throws SQLException {
+        try {
+            copyManager.copyIn(sql, new StringReader(data.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // NULL je prazno polje bez navodnika, stringovi su uvijek u navodnicima pa "" ostaje prazan string
+    private static void appendCsvRecord(StringBuilder target, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                target.append(',');
+            }
+            Object value = values[i];
+            if (value instanceof String text) {
+                target.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value != null) {
+                // Duration.toString() je ISO 8601 (PT1H30M) koji PostgreSQL interval prihvaca
+                target.append(value);
+            }
+        }
+        target.append('\n');
+    }
+
+    private long collectTitles(ResultSet titles, List<String> sample) throws SQLException {
+        long count = 0;
+        try (titles) {
+            while (titles.next()) {
+                count++;
+                if (sample.size() < DUPLICATE_SAMPLE_SIZE) {
+                    sample.add(titles.getString(1));
+                }
+            }
+        }
+        return count;
+    }
+
+    private String validate(CourseImportRow row) {
+        if (row.title() == null || row.title().isBlank()) {
+            return "title is required";
+        }
+        if (row.title().trim().length() > MAX_TITLE_LENGTH) {
+            return "title exceeds " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (row.difficultyLevel() == null
+                || !DIFFICULTY_LEVELS.contains(row.difficultyLevel().toUpperCase(Locale.ROOT))) {
+            return "difficulty level must be BEGINNER, INTERMEDIATE, or ADVANCED";
+        }
+
+        Set<Integer> sequenceNumbers = new HashSet<>();
+        for (CreateModuleRequest module : modulesOf(row)) {
+            if (module == null || module.title() == null || module.title().isBlank()) {
+                return "module title is required";
+            }
+            if (module.durationInMinutes() == null || module.getDuration().compareTo(MINIMUM_MODULE_DURATION) < 0) {
+                return "module duration must be at least " + MINIMUM_MODULE_DURATION.toMinutes() + " min";
+            }
+            if (module.sequenceNumber() != null && !sequenceNumbers.add(module.sequenceNumber())) {
+                return "duplicate module sequence number " + module.sequenceNumber();
+            }
+        }
+        return null;
+    }
+
+    private List<CreateModuleRequest> modulesOf(CourseImportRow row) {
+        return row.modules() != null ? row.modules() : List.of();
+    }
+
+    // bytea u CSV-u ide kao hex string (\x...), isti codec kao EventHanlder pa su importirani dogadaji u istom formatu
+    private EncodedEvent encode(CourseCreatedEvent event) {
+        try {
+            return eventCodecs.encode(event);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize event " + event, e);
+        }
+    }
+
+    private CourseImportRow nextRow(RowSource source) {
+        try {
+            return source.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RowSource openSource(InputStream input, ImportFormat format) {
+        try {
+            return switch (format) {
+                case NDJSON -> ndjsonSource(input);
+                case CSV -> csvSource(input);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // MappingIterator cita root vrijednosti jednu po jednu, sto je upravo NDJSON
+    private RowSource ndjsonSource(InputStream input) throws IOException {
+        MappingIterator<CourseImportRow> iterator = objectMapper.readerFor(CourseImportRow.class).readValues(input);
+        return () -> {
+            try {
+                return iterator.hasNextValue() ? iterator.nextValue() : null;
+            } catch (IOException e) {
+                throw new IOException("near line " + iterator.getCurrentLocation().getLineNr() + ": " + e.getMessage(), e);
+            }
+        };
+    }
+
+    // prvi red je zaglavlje (title, description, difficultyLevel), CSV ne nosi module
+    private RowSource csvSource(InputStream input) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IOException("CSV header is missing");
+        }
+        Map<String, Integer> columns = IntStream.range(0, header.size())
+                .boxed()
+                .collect(Collectors.toMap(i -> header.get(i).trim().toLowerCase(Locale.ROOT), Function.identity(), (a, b) -> a));
+        if (!columns.containsKey("title") || !columns.containsKey("difficultylevel")) {
+            throw new IOException("CSV header must contain title and difficultyLevel columns");
+        }
+
+        return () -> {
+            List<String> record;
+            do {
+                record = reader.next();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+
+            if (record == null) {
+                return null;
+            }
+            return new CourseImportRow(
+                    field(record, columns.get("title")),
+                    field(record, columns.get("description")),
+                    field(record, columns.get("difficultylevel")),
+                    List.of()
+            );
+        };
+    }
+
+    private static String field(List<String> record, Integer index) {
+        return index != null && index < record.size() ? record.get(index) : null;
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        CourseImportRow next() throws IOException;
+    }
+
+    private record StagedCourse(UUID id, long lineNo, CourseImportRow row) {
+    }
+}
@@ -2,6 +2,9 @@ package com.micro.learningplatform.services;
 
 import com.micro.learningplatform.models.CourseStatisticHistory;
 import com.micro.learningplatform.models.CourseStatus;
+import com.micro.learningplatform.models.StatisticsResolution;
+import com.micro.learningplatform.models.dto.CursorPage;
+import com.micro.learningplatform.models.dto.coursestatistic.StatisticsSeries;
 import com.micro.learningplatform.models.dto.courses.*;
 import com.micro.learningplatform.models.dto.module.CreateModuleRequest;
 import com.micro.learningplatform.models.dto.module.ModuleDetailResponse;
@@ -33,6 +36,14 @@ public interface CourseService {
 
     Page<CourseResponse> findByStatus(CourseStatus status, Pageable pageable);
 
+    // keyset (cursor) paginacija bez COUNT upita, cursor null ili prazan znaci prva stranica
+    CursorPage<CourseResponse> findByStatusAfter(CourseStatus status, String cursor, int size);
+
+    CursorPage<CourseResponse> searchAfter(CourseSearchCriteria searchCriteria, String cursor, int size) throws RepositoryException;
+
+    // rangirana full-text pretraga nad search_vector, keyset po (rank, id)
+    CursorPage<CourseSearchResult> fullTextSearch(String searchTerm, String cursor, int size) throws RepositoryException;
+
     CourseResponseWithModules getCourseWithModules(UUID id);
 
    void batchSaveCourses(List<CreateCourseRequest> requests) throws RepositoryException;
@@ -51,6 +62,9 @@ public interface CourseService {
 
     List<CourseStatisticHistory> getCourseHistory(UUID courseId, LocalDateTime startDate, LocalDateTime endDate);
 
+    // vremenska serija statistike; bez rezolucije se bira prema rasponu (sirovi snapshoti ili satni/dnevni agregati)
+    StatisticsSeries getStatisticsSeries(UUID courseId, LocalDateTime from, LocalDateTime to, StatisticsResolution resolution);
+
     ModuleDetailResponse getModuleDetails(UUID moduleId);
 
     List<CourseResponse> getRecentCoursesByStatus(CourseStatus status); // S @QueryHints za caching
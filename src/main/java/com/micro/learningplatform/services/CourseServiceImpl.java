@@ -1,23 +1,29 @@
 package com.micro.learningplatform.services;
 
 import com.micro.learningplatform.models.*;
+import com.micro.learningplatform.models.dto.CursorPage;
 import com.micro.learningplatform.models.dto.DifficultyLevel;
+import com.micro.learningplatform.models.dto.coursestatistic.StatisticsSeries;
+import com.micro.learningplatform.models.dto.coursestatistic.StatisticsSeriesPoint;
 import com.micro.learningplatform.models.dto.courses.*;
 import com.micro.learningplatform.models.dto.module.CreateModuleRequest;
 import com.micro.learningplatform.models.dto.module.ModuleDetailResponse;
 import com.micro.learningplatform.repositories.*;
 import com.micro.learningplatform.shared.CourseMapper;
 import com.micro.learningplatform.shared.exceptions.*;
+import com.micro.learningplatform.shared.utils.LikePatterns;
 import com.micro.learningplatform.shared.validation.CourseValidator;
 import jakarta.persistence.NoResultException;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -25,6 +31,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
@@ -38,11 +45,16 @@ import java.util.stream.Collectors;
 public class CourseServiceImpl implements CourseService {
 
     private static final Logger log = LogManager.getLogger(CourseServiceImpl.class);
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
     private final CourseRepository courseRepository;
     private final CustomCourseRepoImpl customCourseRepo;
     private final ModuleRepositroy moduleRepository;
     private final CourseValidator courseValidator;
     private final CourseStatisticsHistoryRepository historyRepository;
+    private final CourseStatisticsRollupRepository rollupRepository;
+
+    @Value("${app.query.substring-min-length:3}")
+    private int substringMinLength;
 
     // TODO dodati update i delete metode, te provjeriti jos jednom svaku metodu i validacije
 
@@ -80,6 +92,8 @@ public class CourseServiceImpl implements CourseService {
 
         // Poslovna logika unutar domenskog modela
         course.publish();
+        // save objavljuje CourseStatusChangedEvent u outbox
+        courseRepository.save(course);
 
         log.info("Successfully published course with ID: {}", courseId);
 
@@ -96,30 +110,12 @@ public class CourseServiceImpl implements CourseService {
         log.debug("Izvršavam pretragu s kriterijima: {}", searchCriteria);
         log.debug("Search term: '{}'", searchCriteria.getSearchTerm());
 
+        // full-text ima vlastiti poredak po relevantnosti i uvijek ide keysetom (fullTextSearch)
         if (CourseSearchCriteria.SearchType.FULL_TEXT.equals(searchCriteria.getSearchType())) {
-            log.debug("Izvršavam full-text pretragu.");
-            List<CourseSearchResult> results = customCourseRepo.fullTextSearch(searchCriteria.getSearchTerm());
-
-            if (results.isEmpty()) {
-                log.warn("Nema rezultata za pretragu: '{}'", searchCriteria.getSearchTerm());
-                throw new NoResultException("No results found for the given search criteria.");
-            }
-
-            List<CourseSearchResult> dtos = results.stream()
-                    .map(result -> new CourseSearchResult(
-                            result.courseId(),
-                            result.title(),
-                            result.description(),
-                            result.difficultyLevel(),
-                            result.rank()
-                    ))
-                    .toList();
-
-            return new PageImpl<>(dtos, pageable, dtos.size());
+            throw new IllegalArgumentException("FULL_TEXT search is cursor paginated, use fullTextSearch");
         }
 
-        Page<CourseResponse> result = courseRepository
-                .searchCoursesWithOther(searchCriteria.getSearchTerm(), pageable)
+        Page<CourseResponse> result = substringSearch(searchCriteria.getSearchTerm(), pageable)
                 .map(this::mapToCourseResponse);
 
         if (result.isEmpty()) {
@@ -199,6 +195,48 @@ public class CourseServiceImpl implements CourseService {
     }
 
 
+    @Override
+    public CursorPage<CourseResponse> findByStatusAfter(CourseStatus status, String cursor, int size) {
+        validateCursorPageSize(size);
+        CourseCursor position = CourseCursor.decode(cursor);
+        // dohvacamo jedan red vise da znamo postoji li sljedeca stranica, bez COUNT upita
+        Limit limit = Limit.of(size + 1);
+
+        List<CourseListView> rows = position == null
+                ? courseRepository.findByStatusFromStart(status, limit)
+                : courseRepository.findByStatusKeyset(status, position.createdAt(), position.id(), limit);
+
+        return CursorPage.of(rows, size, CourseMapper::toDTO,
+                view -> new CourseCursor(view.createdAt(), view.id()).encode());
+    }
+
+    @Override
+    public CursorPage<CourseResponse> searchAfter(CourseSearchCriteria searchCriteria, String cursor, int size) throws RepositoryException {
+        if (CourseSearchCriteria.SearchType.FULL_TEXT.equals(searchCriteria.getSearchType())) {
+            throw new IllegalArgumentException("FULL_TEXT search is ordered by relevance, use fullTextSearch");
+        }
+        validateCursorPageSize(size);
+        if (searchCriteria.getSearchTerm() != null && !searchCriteria.getSearchTerm().isBlank()) {
+            validateSubstringTerm(searchCriteria.getSearchTerm());
+        }
+        log.debug("Izvršavam keyset pretragu s kriterijima: {}, cursor: {}", searchCriteria, cursor);
+
+        List<Course> rows = customCourseRepo.searchCoursesAfter(searchCriteria, CourseCursor.decode(cursor), size + 1);
+        return toCursorPage(rows, size);
+    }
+
+    @Override
+    public CursorPage<CourseSearchResult> fullTextSearch(String searchTerm, String cursor, int size) throws RepositoryException {
+        if (searchTerm == null || searchTerm.isBlank()) {
+            throw new IllegalArgumentException("Search term is required for FULL_TEXT search");
+        }
+        validateCursorPageSize(size);
+        log.debug("Izvršavam full-text pretragu: '{}', cursor: {}", searchTerm, cursor);
+
+        List<CourseSearchResult> rows = customCourseRepo.fullTextSearch(searchTerm, FullTextCursor.decode(cursor), size + 1);
+        return CursorPage.of(rows, size, Function.identity(), result -> FullTextCursor.of(result).encode());
+    }
+
     @Override
     @Cacheable(
             cacheNames = "coursesWithModules",
@@ -270,9 +308,7 @@ public class CourseServiceImpl implements CourseService {
         Course course = courseRepository.findWithModulesById(courseId)
                 .orElseThrow(() -> new CourseNotFoundException(courseId));
 
-        // Osiguravamo da su statistike ažurne
-        course.getCourseStatistics().recalculate(course.getModules());
-
+        // statistika se odrzava inkrementalno pri svakoj promjeni modula, citanje je ne racuna ponovno
         return CourseMapper.toCourseWithModulesResponse(course);
     }
 
@@ -357,8 +393,7 @@ public class CourseServiceImpl implements CourseService {
                     return module;
                 }).toList();
 
-        log.debug("Modules in course after saving: {}", course.getModules().size());
-        moduleRepository.saveAll(modules);
+        // moduli se spremaju kaskadom, a njihove dogadaje (ModuleCreatedEvent) objavljuje tecaj
         modules.forEach(course::addModule);
         courseRepository.save(course);
         log.info("Successfully created course with {} modules", request.modules().size());
@@ -370,8 +405,28 @@ public class CourseServiceImpl implements CourseService {
     public List<CourseStatisticHistory> getCourseHistory(UUID courseId, LocalDateTime startDate, LocalDateTime endDate) {
         log.debug("Fetching course history for course: {} between {} and {}",
                 courseId, startDate, endDate);
-        Course course = findCourseById(courseId);
-        return course.getStatisticHistory(startDate, endDate);
+        // raspon ide u SQL (partition pruning + indeks) umjesto ucitavanja cijele povijesti u memoriju
+        findCourseById(courseId);
+        return historyRepository.findByDateRange(courseId, startDate, endDate);
+    }
+
+    @Override
+    public StatisticsSeries getStatisticsSeries(UUID courseId, LocalDateTime from, LocalDateTime to,
+                                                StatisticsResolution resolution) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Statistics range requires from before to");
+        }
+        findCourseById(courseId);
+
+        StatisticsResolution effective = resolution != null
+                ? resolution
+                : StatisticsResolution.forRange(Duration.between(from, to));
+        List<StatisticsSeriesPoint> points = effective == StatisticsResolution.RAW
+                ? historyRepository.findSeries(courseId, from, to)
+                : rollupRepository.findSeries(courseId, effective, from, to);
+
+        log.debug("Statistics series for course {} at {} resolution has {} points", courseId, effective, points.size());
+        return new StatisticsSeries(courseId, effective, from, to, points);
     }
 
     // todo dodati controller za ovo
@@ -428,7 +483,10 @@ public class CourseServiceImpl implements CourseService {
     // pretraga po kategoriji i težini koristeći kompozitni indeks
     @Override
     public List<CourseResponse> findByCategoryAndDifficultyLevel(String category, String level) {
-        return courseRepository.findByCategoryAndDifficultyLevel(category, level)
+        // nepoznata vrijednost -> IllegalArgumentException -> 400
+        return courseRepository.findByCategoryAndDifficultyLevel(
+                        EntityCategory.valueOf(category.toUpperCase(Locale.ROOT)),
+                        DifficultyLevel.valueOf(level.toUpperCase(Locale.ROOT)))
                 .stream()
                 .map(CourseMapper::toDTO)
                 .toList();
@@ -485,6 +543,36 @@ public class CourseServiceImpl implements CourseService {
         }
     }
 
+    /* Substring pretraga (pg_trgm GIN indeksi na lower(title)/lower(description))
+     * -> bez pojma vracamo obicnu stranicu tecajeva, kao i prije s LIKE '%%'
+     * -> rezultati su poredani po slicnosti pa se sort iz Pageable ignorira
+     */
+    private Page<Course> substringSearch(String term, Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (term == null || term.isBlank()) {
+            return courseRepository.findAll(pageable);
+        }
+        validateSubstringTerm(term);
+        return courseRepository.searchBySubstring(LikePatterns.normalize(term), LikePatterns.contains(term), unsorted);
+    }
+
+    // trigram indeks pomaze tek od 3 znaka, kraci pojam bi bio full scan tablice
+    private void validateSubstringTerm(String term) {
+        if (term.trim().length() < substringMinLength) {
+            throw new IllegalArgumentException("Search term must have at least " + substringMinLength + " characters");
+        }
+    }
+
+    private void validateCursorPageSize(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+    }
+
+    private CursorPage<CourseResponse> toCursorPage(List<Course> rows, int size) {
+        return CursorPage.of(rows, size, CourseMapper::toDTO, course -> CourseCursor.of(course).encode());
+    }
+
     private CourseResponse mapToCourseResponse(Course course) {
         return new CourseResponse(
                 course.getId(),
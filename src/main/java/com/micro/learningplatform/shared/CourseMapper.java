@@ -38,6 +38,27 @@ public class CourseMapper {
     }
 
 
+    // projekcija za liste, statistika je vec u redu pa nema dodatnog upita po tecaju
+    public static CourseResponse toDTO(CourseListView view) {
+        return new CourseResponse(
+                view.id(),
+                view.title(),
+                view.description(),
+                view.status(),
+                view.category(),
+                view.difficultyLevel(),
+                new CourseStatisticsDTO(
+                        view.totalModules(),
+                        view.totalDuration(),
+                        view.averageModuleDuration(),
+                        view.completionRate(),
+                        view.difficultyScore(),
+                        view.lastCalculated()
+                ),
+                view.createdAt(),
+                view.updatedAt()
+        );
+    }
 
     public static CourseResponseWithModules toCourseWithModulesResponse(Course course) {
         List<ModuleBasicInfo> moduleInfos = course.getModules().stream()
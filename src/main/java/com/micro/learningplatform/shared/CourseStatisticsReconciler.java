@@ -0,0 +1,216 @@
+package com.micro.learningplatform.shared;
+
+import com.micro.learningplatform.models.dto.DifficultyLevel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class CourseStatisticsReconciler {
+
+    /* Periodicka provjera inkrementalnih agregata u course_statistics
+     * -> agregati se u aplikaciji mijenjaju O(1) po promjeni modula, ali rucne izmjene u bazi,
+     *    bulk SQL ili bug mogu ih razmaknuti od stvarnog stanja u course_modules
+     * -> provjera ide po batchevima tecajeva (keyset po course_id), svaki batch je jedna UPDATE ... FROM naredba
+     *    koja ispravlja samo redove koji odstupaju i vraca njihove id-eve
+     * -> ispravljeni tecajevi se izbacuju iz kesa jer nose statistiku u odgovoru; rezultati pretrage su kesirani
+     *    po kriterijima, ne po tecaju, pa se courseSearches cisti cijeli (samo ako je nesto ispravljeno)
+     * -> cron okida na svim nodovima, prolaz radi samo node koji dobije advisory lock
+     *    -> session lock na zasebnoj konekciji jer batchevi idu u svojim transakcijama, a lock mora trajati cijeli prolaz
+     */
+
+    private static final UUID START = new UUID(0L, 0L);
+    // proizvoljan kljuc advisory locka, isti na svim instancama
+    private static final long RECONCILE_LOCK_KEY = 0x73746174735fL;
+
+    private final EntityManager entityManager;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final String reconcileSql;
+
+    public CourseStatisticsReconciler(EntityManager entityManager,
+                                      DataSource dataSource,
+                                      PlatformTransactionManager transactionManager,
+                                      CacheManager cacheManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.statistics.reconcile-batch-size:1000}") int batchSize) {
+        this.entityManager = entityManager;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.reconcileSql = buildReconcileSql();
+    }
+
+    @Scheduled(cron = "${app.statistics.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!advisoryLock(lockConnection, "pg_try_advisory_lock")) {
+                meterRegistry.counter("course.statistics.reconcile.lock.skipped").increment();
+                log.info("Statistics reconciliation is running on another node, skipping");
+                return;
+            }
+            try {
+                reconcileAll();
+            } finally {
+                // konekcija se vraca u pool, lock ne smije ostati na njoj
+                advisoryLock(lockConnection, "pg_advisory_unlock");
+            }
+        } catch (SQLException e) {
+            log.error("Statistics reconciliation lock failed", e);
+        }
+    }
+
+    private void reconcileAll() {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        UUID after = START;
+        long checked = 0;
+        long corrected = 0;
+
+        while (after != null) {
+            UUID lower = after;
+            BatchOutcome outcome = transactionTemplate.execute(status -> reconcileBatch(lower));
+            checked += outcome.checked();
+            corrected += outcome.corrected().size();
+            outcome.corrected().forEach(this::evictCourse);
+            after = outcome.upperBound();
+        }
+
+        timer.stop(Timer.builder("course.statistics.reconcile").register(meterRegistry));
+        meterRegistry.counter("course.statistics.reconciled", "result", "corrected").increment(corrected);
+        if (corrected > 0) {
+            clearSearchCache();
+            log.warn("Statistics reconciliation corrected {} of {} courses", corrected, checked);
+        } else {
+            log.info("Statistics reconciliation checked {} courses, no drift", checked);
+        }
+    }
+
+    private BatchOutcome reconcileBatch(UUID after) {
+        // gornja granica batcha; null znaci da je ovo zadnji batch
+        List<UUID> boundary = entityManager.createNativeQuery(
+                        """
+                        SELECT course_id FROM course_statistics
+                        WHERE course_id > :after
+                        ORDER BY course_id
+                        OFFSET :offset LIMIT 1
+                        """, UUID.class)
+                .setParameter("after", after)
+                .setParameter("offset", batchSize - 1)
+                .getResultList();
+        UUID upper = boundary.isEmpty() ? null : boundary.get(0);
+
+        List<UUID> corrected = entityManager.createNativeQuery(reconcileSql, UUID.class)
+                .setParameter("after", after)
+                .setParameter("upper", upper == null ? null : upper.toString())
+                .getResultList();
+
+        long checked = upper == null ? countRemaining(after) : batchSize;
+        return new BatchOutcome(upper, checked, corrected);
+    }
+
+    private long countRemaining(UUID after) {
+        return ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM course_statistics WHERE course_id > :after")
+                .setParameter("after", after)
+                .getSingleResult()).longValue();
+    }
+
+    private void evictCourse(UUID courseId) {
+        for (String cacheName : List.of("courses", "coursesWithModules")) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(courseId);
+            }
+        }
+    }
+
+    private void clearSearchCache() {
+        Cache cache = cacheManager.getCache("courseSearches");
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    // hikari ima auto-commit false; commit da konekcija ne stoji "idle in transaction" dok traje prolaz,
+    // session lock commit ne otpusta
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, RECONCILE_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                boolean result = resultSet.next() && resultSet.getBoolean(1);
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                return result;
+            }
+        }
+    }
+
+    // bodovi tezine dolaze iz DifficultyLevel enuma da SQL i CourseStatistics ne mogu razici
+    private static String buildReconcileSql() {
+        String difficultyScore = Arrays.stream(DifficultyLevel.values())
+                .map(level -> "WHEN '%s' THEN %d".formatted(level.name(), level.getScore()))
+                .collect(Collectors.joining(" ", "CASE m.difficulty_level ", " ELSE 0 END"));
+
+        return """
+                WITH actual AS (
+                    SELECT s.course_id,
+                           COUNT(m.id) AS module_count,
+                           COALESCE(SUM(m.duration), INTERVAL '0') AS total_duration,
+                           COUNT(m.id) FILTER (WHERE m.status = 'COMPLETED') AS completed_modules,
+                           COALESCE(SUM(%s), 0) AS difficulty_score_sum
+                    FROM course_statistics s
+                    LEFT JOIN course_modules m ON m.course_id = s.course_id
+                    WHERE s.course_id > :after
+                    AND (CAST(:upper AS uuid) IS NULL OR s.course_id <= CAST(:upper AS uuid))
+                    GROUP BY s.course_id
+                )
+                UPDATE course_statistics s
+                SET module_count = a.module_count,
+                    total_module_duration = a.total_duration,
+                    completed_modules = a.completed_modules,
+                    difficulty_score_sum = a.difficulty_score_sum,
+                    average_module_duration = CASE WHEN a.module_count = 0 THEN INTERVAL '0'
+                                                   ELSE a.total_duration / a.module_count END,
+                    completion_rate = CASE WHEN a.module_count = 0 THEN 0
+                                           ELSE ROUND(CAST(a.completed_modules AS numeric) / a.module_count, 2) * 100 END,
+                    difficulty_score = CASE WHEN a.module_count = 0 THEN 0
+                                            ELSE ROUND(CAST(a.difficulty_score_sum AS numeric) / a.module_count, 2) END,
+                    last_calculated = LOCALTIMESTAMP
+                FROM actual a
+                WHERE s.course_id = a.course_id
+                AND (s.module_count <> a.module_count
+                     OR s.total_module_duration <> a.total_duration
+                     OR s.completed_modules <> a.completed_modules
+                     OR s.difficulty_score_sum <> a.difficulty_score_sum)
+                RETURNING s.course_id
+                """.formatted(difficultyScore);
+    }
+
+    private record BatchOutcome(UUID upperBound, long checked, List<UUID> corrected) {
+    }
+}
@@ -1,45 +1,67 @@
 package com.micro.learningplatform.shared;
 
+import com.micro.learningplatform.shared.ratelimit.RateLimitBackend;
+import com.micro.learningplatform.shared.ratelimit.RateLimitProperties;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class RateLimiterManager {
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
-
     /**
      * Implemetacije rate limitera korsiteci bucket4j algoritam
      * omogucava nam preciznu kontrolu nad brojem ahtijeva, koje pojedini klijenot moze napraviti u odredeno vrijeme
+     * -> stanje bucketa drzi RateLimitBackend (ograniceni Caffeine ili redis), ne neograniceni map
+     * -> limiti dolaze iz app.rate-limit politika po putanji i roli, konfiguraciju bucketa gradimo jednom po politici
      */
 
-    public Bucket resolveBucket(String clientId) {
-        return buckets.computeIfAbsent(clientId, this::createNewBucket);
+    private final RateLimitBackend backend;
+    private final RateLimitProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, BucketConfiguration> configurations = new HashMap<>();
+
+    public RateLimiterManager(RateLimitBackend backend, RateLimitProperties properties) {
+        this.backend = backend;
+        this.properties = properties;
+        configurations.put(properties.getDefaultPolicy().getName(), createConfiguration(properties.getDefaultPolicy()));
+        properties.getPolicies().forEach(policy -> configurations.put(policy.getName(), createConfiguration(policy)));
     }
 
-    public Bucket createNewBucket (String clientId){
-        // početno vrijeme poravnanja na početak sljedeće minute
-        Instant align = Instant.now()
-                .plus(1, ChronoUnit.MINUTES)
-                .truncatedTo(ChronoUnit.MINUTES);
+    public RateLimitProperties.Policy resolvePolicy(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            boolean pathMatches = policy.getPathPattern() == null || pathMatcher.match(policy.getPathPattern(), path);
+            boolean roleMatches = policy.getRole() == null || request.isUserInRole(policy.getRole());
+            if (pathMatches && roleMatches) {
+                return policy;
+            }
+        }
+        return properties.getDefaultPolicy();
+    }
 
-        // strategija punjenja s poravnanjem
+    // kljuc ukljucuje politiku pa isti klijent ima odvojene buckete za razlicite rute
+    public Bucket resolveBucket(String clientId, RateLimitProperties.Policy policy) {
+        return backend.resolveBucket(policy.getName() + ":" + clientId, configurations.get(policy.getName()));
+    }
 
+    private BucketConfiguration createConfiguration(RateLimitProperties.Policy policy) {
+        // intervalno punjenje kao i prije (cijeli kapacitet jednom po periodu), ali bez poravnanja na
+        // trenutak stvaranja bucketa jer konfiguracija mora biti ista na svim nodovima
         Bandwidth limit = Bandwidth.builder()
-                .capacity(100)
-                .refillIntervallyAligned(100, Duration.ofMinutes(1), align)
+                .capacity(policy.getCapacity())
+                .refillIntervally(policy.getCapacity(), policy.getRefillPeriod())
                 .build();
 
-        return Bucket.builder()
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
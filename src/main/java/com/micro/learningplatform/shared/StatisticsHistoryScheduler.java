@@ -1,21 +1,162 @@
 package com.micro.learningplatform.shared;
 
-import com.micro.learningplatform.repositories.CourseRepository;
-import lombok.RequiredArgsConstructor;
+import com.micro.learningplatform.models.StatisticsResolution;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class StatisticsHistoryScheduler {
 
-    private final CourseRepository courseRepository;
-/*
-    @Scheduled(cron = "0 0 0 * * *") // Svaki dan u ponoc
-    public void statisticsHistory() {
-        courseRepository.findAll().forEach(course ->
-                statisticsService.createSnapShot(course.getId()));
+    /* Downsampling povijesti statistike u course_statistics_rollup
+     * -> sirovi snapshoti se sazimaju u satne buckete, satni u dnevne (tezinski prosjek po samples)
+     * -> watermark je zadnji postojeci bucket; taj bucket se uvijek ponovno racuna (ON CONFLICT DO UPDATE)
+     *    pa zakasnjeli snapshoti iz zadnjeg sata nisu izgubljeni
+     * -> prozor se obraduje po danima, svaki dan u svojoj transakciji, da prvi prolaz nad starom povijescu
+     *    ne drzi jednu ogromnu transakciju
+     * -> satni agregati stariji od retencije se brisu, dnevni ostaju (njih cita StatisticsResolution.DAY)
+     */
+
+    private static final String HOURLY_ROLLUP_SQL = """
+            INSERT INTO course_statistics_rollup (course_id, granularity, bucket_start, samples,
+                                                  avg_total_modules, max_total_modules, avg_total_duration,
+                                                  avg_completion_rate, max_completion_rate, avg_difficulty_score)
+            SELECT course_id, 'HOUR', date_trunc('hour', snapshot_timestamp), COUNT(*),
+                   AVG(total_modules), MAX(total_modules), AVG(total_duration),
+                   ROUND(AVG(completion_rate), 2), MAX(completion_rate), ROUND(AVG(difficulty_score), 2)
+            FROM course_statistics_history
+            WHERE snapshot_timestamp >= :from AND snapshot_timestamp < :to
+            GROUP BY course_id, date_trunc('hour', snapshot_timestamp)
+            ON CONFLICT (course_id, granularity, bucket_start) DO UPDATE
+            SET samples = EXCLUDED.samples,
+                avg_total_modules = EXCLUDED.avg_total_modules,
+                max_total_modules = EXCLUDED.max_total_modules,
+                avg_total_duration = EXCLUDED.avg_total_duration,
+                avg_completion_rate = EXCLUDED.avg_completion_rate,
+                max_completion_rate = EXCLUDED.max_completion_rate,
+                avg_difficulty_score = EXCLUDED.avg_difficulty_score
+            """;
+
+    private static final String DAILY_ROLLUP_SQL = """
+            INSERT INTO course_statistics_rollup (course_id, granularity, bucket_start, samples,
+                                                  avg_total_modules, max_total_modules, avg_total_duration,
+                                                  avg_completion_rate, max_completion_rate, avg_difficulty_score)
+            SELECT course_id, 'DAY', date_trunc('day', bucket_start), SUM(samples),
+                   SUM(avg_total_modules * samples) / SUM(samples),
+                   MAX(max_total_modules),
+                   SUM(avg_total_duration * samples) / CAST(SUM(samples) AS double precision),
+                   ROUND(SUM(avg_completion_rate * samples) / SUM(samples), 2),
+                   MAX(max_completion_rate),
+                   ROUND(SUM(avg_difficulty_score * samples) / SUM(samples), 2)
+            FROM course_statistics_rollup
+            WHERE granularity = 'HOUR'
+            AND bucket_start >= :from AND bucket_start < :to
+            GROUP BY course_id, date_trunc('day', bucket_start)
+            ON CONFLICT (course_id, granularity, bucket_start) DO UPDATE
+            SET samples = EXCLUDED.samples,
+                avg_total_modules = EXCLUDED.avg_total_modules,
+                max_total_modules = EXCLUDED.max_total_modules,
+                avg_total_duration = EXCLUDED.avg_total_duration,
+                avg_completion_rate = EXCLUDED.avg_completion_rate,
+                max_completion_rate = EXCLUDED.max_completion_rate,
+                avg_difficulty_score = EXCLUDED.avg_difficulty_score
+            """;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int hourlyRetentionDays;
+
+    public StatisticsHistoryScheduler(EntityManager entityManager,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.statistics.history.hourly-retention-days:90}") int hourlyRetentionDays) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.hourlyRetentionDays = hourlyRetentionDays;
     }
 
- */
+    @Scheduled(cron = "${app.statistics.history.rollup-cron:0 5 * * * *}")
+    public void rollup() {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        LocalDateTime now = LocalDateTime.now();
+
+        int hourly = rollupHourly(now.truncatedTo(ChronoUnit.HOURS));
+        int daily = rollupDaily(now.truncatedTo(ChronoUnit.DAYS));
+        int purged = purgeHourly(now.minusDays(hourlyRetentionDays));
+
+        timer.stop(Timer.builder("course.statistics.rollup").register(meterRegistry));
+        meterRegistry.counter("course.statistics.rollup.buckets", "granularity", "hour").increment(hourly);
+        meterRegistry.counter("course.statistics.rollup.buckets", "granularity", "day").increment(daily);
+        log.info("Statistics rollup wrote {} hourly and {} daily buckets, purged {} hourly buckets",
+                hourly, daily, purged);
+    }
+
+    private int rollupHourly(LocalDateTime until) {
+        LocalDateTime from = watermark(StatisticsResolution.HOUR);
+        if (from == null) {
+            from = singleTimestamp("SELECT MIN(snapshot_timestamp) FROM course_statistics_history");
+        }
+        return from == null ? 0 : rollupWindow(HOURLY_ROLLUP_SQL, from.truncatedTo(ChronoUnit.HOURS), until);
+    }
 
+    private int rollupDaily(LocalDateTime until) {
+        LocalDateTime from = watermark(StatisticsResolution.DAY);
+        if (from == null) {
+            from = singleTimestamp(
+                    "SELECT MIN(bucket_start) FROM course_statistics_rollup WHERE granularity = 'HOUR'");
+        }
+        return from == null ? 0 : rollupWindow(DAILY_ROLLUP_SQL, from.truncatedTo(ChronoUnit.DAYS), until);
+    }
+
+    private int rollupWindow(String sql, LocalDateTime from, LocalDateTime until) {
+        int written = 0;
+        for (LocalDateTime start = from; start.isBefore(until); start = start.plusDays(1)) {
+            LocalDateTime lower = start;
+            LocalDateTime upper = start.plusDays(1).isBefore(until) ? start.plusDays(1) : until;
+            written += transactionTemplate.execute(status -> entityManager.createNativeQuery(sql)
+                    .setParameter("from", lower)
+                    .setParameter("to", upper)
+                    .executeUpdate());
+        }
+        return written;
+    }
+
+    // satne buckete brisemo tek kad su vec sazeti u dnevne
+    private int purgeHourly(LocalDateTime before) {
+        LocalDateTime dailyWatermark = watermark(StatisticsResolution.DAY);
+        if (dailyWatermark == null) {
+            return 0;
+        }
+        LocalDateTime cutoff = before.isBefore(dailyWatermark) ? before : dailyWatermark;
+        return transactionTemplate.execute(status -> entityManager.createNativeQuery(
+                        "DELETE FROM course_statistics_rollup WHERE granularity = 'HOUR' AND bucket_start < :cutoff")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate());
+    }
+
+    // MAX nad praznom tablicom vraca jedan red s NULL, pa getSingleResult daje null (nema jos bucketa)
+    private LocalDateTime watermark(StatisticsResolution granularity) {
+        return transactionTemplate.execute(status -> (LocalDateTime) entityManager.createNativeQuery(
+                        "SELECT MAX(bucket_start) FROM course_statistics_rollup WHERE granularity = :granularity",
+                        LocalDateTime.class)
+                .setParameter("granularity", granularity.name())
+                .getSingleResult());
+    }
+
+    private LocalDateTime singleTimestamp(String sql) {
+        return transactionTemplate.execute(status -> (LocalDateTime) entityManager.createNativeQuery(sql, LocalDateTime.class)
+                .getSingleResult());
+    }
 }
@@ -0,0 +1,25 @@
+package com.micro.learningplatform.shared;
+
+import com.micro.learningplatform.models.CourseStatistics;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/* JPA listener na CourseStatistics, hibernate ga dohvaca kao spring bean (SpringBeanContainer)
+ * -> okida se jednom po INSERT/UPDATE reda statistike, ne za svaki dodani modul
+ * -> writer dohvacamo lijeno jer listener nastaje dok se gradi EntityManagerFactory
+ */
+@Component
+@RequiredArgsConstructor
+public class StatisticsSnapshotListener {
+
+    private final ObjectProvider<StatisticsSnapshotWriter> snapshotWriter;
+
+    @PostPersist
+    @PostUpdate
+    public void statisticsChanged(CourseStatistics statistics) {
+        snapshotWriter.getObject().capture(statistics);
+    }
+}
@@ -0,0 +1,205 @@
+package com.micro.learningplatform.shared;
+
+import com.micro.learningplatform.models.Course;
+import com.micro.learningplatform.models.CourseStatisticHistory;
+import com.micro.learningplatform.models.CourseStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class StatisticsSnapshotWriter {
+
+    /* Asinkrono pisanje povijesti statistike (course_statistics_history)
+     * -> prije je svaki addModule/removeModule dodavao snapshot u kolekciju tecaja,
+     *    pa je tecaj s 50 modula u jednoj transakciji zapisao 50 redova povijesti
+     * -> sada StatisticsSnapshotListener javlja promjenu course_statistics reda (jednom po flushu),
+     *    a snapshot ulazi u red tek nakon commita, rollback ne ostavlja povijest
+     * -> red je mapa po tecaju: unutar prozora (flush-interval-ms) ostaje samo zadnji snapshot tecaja
+     * -> flush ide na scheduler threadu u batch insertima (hibernate jdbc batch_size), request ga ne ceka
+     * -> batch koji padne dijeli se na pola dok neispravan red (npr. FK na obrisan tecaj) ne ostane sam;
+     *    ostali redovi se zapisu, a neispravni se ponavlja najvise max-attempts flusheva pa odbacuje
+     * -> nedostupna baza nije greska reda: sve nezapisano se vraca u red bez trosenja pokusaja
+     */
+
+    private final Map<UUID, PendingSnapshot> pending = new ConcurrentHashMap<>();
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public StatisticsSnapshotWriter(EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.statistics.snapshot.batch-size:500}") int batchSize,
+                                    @Value("${app.statistics.snapshot.max-attempts:5}") int maxAttempts) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        meterRegistry.gauge("course.statistics.snapshots.pending", pending, Map::size);
+    }
+
+    // vrijednosti uzimamo odmah (entitet se moze dalje mijenjati), u red ide tek nakon commita
+    public void capture(CourseStatistics statistics) {
+        PendingSnapshot snapshot = PendingSnapshot.of(statistics);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(snapshot);
+                }
+            });
+        } else {
+            offer(snapshot);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.statistics.snapshot.flush-interval-ms:1000}")
+    public void flush() {
+        List<PendingSnapshot> snapshots = drain();
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample timer = Timer.start(meterRegistry);
+        int written = 0;
+        int from = 0;
+        try {
+            for (; from < snapshots.size(); from += batchSize) {
+                written += write(snapshots.subList(from, Math.min(from + batchSize, snapshots.size())));
+            }
+        } catch (TransientDataAccessException | CannotCreateTransactionException e) {
+            // baza nije dostupna -> bisekcija ne pomaze, nezapisane vracamo u red bez trosenja pokusaja;
+            // noviji snapshot istog tecaja (ako je u medjuvremenu stigao) ima prednost
+            List<PendingSnapshot> failed = snapshots.subList(from, snapshots.size());
+            failed.forEach(snapshot -> pending.putIfAbsent(snapshot.courseId(), snapshot));
+            meterRegistry.counter("course.statistics.snapshots", "result", "error").increment();
+            log.error("Writing {} statistics snapshots failed, will retry: {}", failed.size(), e.getMessage());
+        } finally {
+            meterRegistry.counter("course.statistics.snapshots", "result", "written").increment(written);
+            timer.stop(Timer.builder("course.statistics.snapshots.flush").register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // batch u jednoj transakciji; ako padne, polovice idu zasebno dok neispravan red ne ostane sam
+    private int write(List<PendingSnapshot> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            return batch.size();
+        } catch (TransientDataAccessException | CannotCreateTransactionException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                retryOrDrop(batch.get(0), e);
+                return 0;
+            }
+            int middle = batch.size() / 2;
+            return write(batch.subList(0, middle)) + write(batch.subList(middle, batch.size()));
+        }
+    }
+
+    private void retryOrDrop(PendingSnapshot snapshot, RuntimeException e) {
+        PendingSnapshot retry = snapshot.nextAttempt();
+        if (retry.attempts() >= maxAttempts) {
+            meterRegistry.counter("course.statistics.snapshots", "result", "dropped").increment();
+            log.error("Dropping statistics snapshot of course {} after {} attempts: {}",
+                    snapshot.courseId(), retry.attempts(), e.getMessage());
+            return;
+        }
+        pending.putIfAbsent(snapshot.courseId(), retry);
+        meterRegistry.counter("course.statistics.snapshots", "result", "error").increment();
+        log.warn("Statistics snapshot of course {} failed (attempt {} of {}), will retry: {}",
+                snapshot.courseId(), retry.attempts(), maxAttempts, e.getMessage());
+    }
+
+    private void offer(PendingSnapshot snapshot) {
+        if (pending.put(snapshot.courseId(), snapshot) != null) {
+            meterRegistry.counter("course.statistics.snapshots", "result", "coalesced").increment();
+        }
+    }
+
+    private List<PendingSnapshot> drain() {
+        List<PendingSnapshot> drained = new ArrayList<>();
+        for (UUID courseId : pending.keySet()) {
+            PendingSnapshot snapshot = pending.remove(courseId);
+            if (snapshot != null) {
+                drained.add(snapshot);
+            }
+        }
+        return drained;
+    }
+
+    // getReference ne ucitava tecaj, treba nam samo course_id; flush/clear drzi persistence context malim
+    private void insert(List<PendingSnapshot> batch) {
+        for (PendingSnapshot snapshot : batch) {
+            entityManager.persist(snapshot.toHistory(entityManager.getReference(Course.class, snapshot.courseId())));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private record PendingSnapshot(
+            UUID courseId,
+            int totalModules,
+            Duration totalDuration,
+            Duration averageModuleDuration,
+            BigDecimal completionRate,
+            BigDecimal difficultyScore,
+            LocalDateTime takenAt,
+            int attempts
+    ) {
+
+        static PendingSnapshot of(CourseStatistics statistics) {
+            return new PendingSnapshot(
+                    statistics.getCourseId(),
+                    statistics.getModuleCount(),
+                    statistics.getTotalModuleDuration(),
+                    statistics.getAverageModuleDuration(),
+                    statistics.getCompletionRate(),
+                    statistics.getDifficultyScore(),
+                    LocalDateTime.now(),
+                    0
+            );
+        }
+
+        PendingSnapshot nextAttempt() {
+            return new PendingSnapshot(courseId, totalModules, totalDuration, averageModuleDuration,
+                    completionRate, difficultyScore, takenAt, attempts + 1);
+        }
+
+        CourseStatisticHistory toHistory(Course course) {
+            return new CourseStatisticHistory(UUID.randomUUID(), course, totalModules, totalDuration, averageModuleDuration,
+                    completionRate, difficultyScore, takenAt);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.cache.CacheManager;
 import org.springframework.lang.Nullable;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Wrapper za CacheManager koji dodaje monitoring
 
@@ -15,11 +17,19 @@ import java.util.Collection;
 public class MonitoredCacheManager implements CacheManager {
     private final CacheManager delegate;
     private final CacheMetricsService metricsService;
+    // wrapper kreiramo jednom po kesu, getCache se zove na svakom @Cacheable pozivu
+    private final Map<String, Cache> monitoredCaches = new ConcurrentHashMap<>();
 
     @Override
     public Cache getCache(String name) {
-        Cache cache = delegate.getCache(name);
-        return cache != null ? new MonitoredCache(cache, name, metricsService) : null;
+        Cache cache = monitoredCaches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache delegateCache = delegate.getCache(name);
+        return delegateCache != null
+                ? monitoredCaches.computeIfAbsent(name, cacheName -> new MonitoredCache(delegateCache, cacheName, metricsService))
+                : null;
     }
 
     @Override
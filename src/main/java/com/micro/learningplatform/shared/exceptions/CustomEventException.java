@@ -4,4 +4,8 @@ public final class CustomEventException extends DomainException{
     private CustomEventException(String message) {
        super(message, "COURSE_ERROR");
     }
+
+    public CustomEventException(String message, Throwable cause) {
+        super(message, "EVENT_ERROR", cause);
+    }
 }
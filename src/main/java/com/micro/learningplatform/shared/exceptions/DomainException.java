@@ -11,5 +11,10 @@ public sealed abstract class DomainException extends RuntimeException permits Co
         super(message);
         this.code = code;
     }
+
+    protected DomainException(String message, String code, Throwable cause) {
+        super(message, cause);
+        this.code = code;
+    }
 }
 
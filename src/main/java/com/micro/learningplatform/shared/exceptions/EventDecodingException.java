@@ -0,0 +1,8 @@
+package com.micro.learningplatform.shared.exceptions;
+
+// payload dogadaja se ne moze procitati; ponovni pokusaj ne pomaze pa zapis ide ravno na DLQ
+public class EventDecodingException extends RuntimeException {
+    public EventDecodingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -21,7 +21,6 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Slf4j
@@ -40,6 +39,7 @@ public class CentralizedQueryAnalyzer {
     private final MeterRegistry meterRegistry;
     private final CacheManager cacheManager;
     private final QueryMetricsService metricsService;
+    private final QueryLatencyTracker latencyTracker;
 
 
     @Value("${app.query.slow-query-threshold-ms:1000}")
@@ -49,7 +49,6 @@ public class CentralizedQueryAnalyzer {
     private long cacheMaxRows;
 
     private static final String QUERY_STATS_CACHE = "queryResults";
-    private final Map<String, List<Long>> historicalExecutionTimesCache = new ConcurrentHashMap<>();
 
     /*
     * -> ovo je glavni entry point za analizu upita za analizu upita
@@ -181,13 +180,17 @@ public class CentralizedQueryAnalyzer {
         log.debug("Query returned {} results", results.size());
         log.debug("Execution time: {} ms", executionTime / 1_000_000.0);
 
+        // spor je prema vlastitom baselineu upita (QueryLatencyTracker), fiksni prag samo dok baseline ne postoji
+        SlowQueryVerdict verdict = latencyTracker.record(request.getQuery(), executionTime);
+
         return new QueryExecutionResult(
                 results,
                 executionTime / 1_000_000, // Pretvori u milisekunde
                 queryPlan,
                 generateQueryId(request.getQuery()),
                 LocalDateTime.now(),
-                Collections.emptyList()
+                Collections.emptyList(),
+                verdict.slow()
         );
     }
 
@@ -0,0 +1,91 @@
+package com.micro.learningplatform.shared.performace;
+
+import lombok.Getter;
+import org.HdrHistogram.IntCountsHistogram;
+
+/* Klizni prozori latencije jednog fingerprinta
+ * -> prstenasti niz histograma, slot = epoha prozora % broj prozora; slot iz stare epohe se resetira i ponovno koristi
+ * -> histogram se alocira tek kad u slot stigne prvo mjerenje, pa rijetki upiti ne zauzimaju punu memoriju
+ * -> baseline (spoj zavrsenih prozora) se mijenja samo kad se epoha promijeni, pa se racuna jednom po epohi
+ * -> int brojaci i rezolucija od 10 us: histogram do 60 s s 2 znamenke je reda velicine 8 KB
+ */
+class FingerprintLatency {
+
+    private static final long LOWEST_DISCERNIBLE_MICROS = 10;
+
+    @Getter
+    private final String fingerprint;
+    @Getter
+    private final String sql;
+
+    private final IntCountsHistogram[] slots;
+    private final long[] slotEpochs;
+    private final long highestTrackable;
+    private final int significantDigits;
+
+    private long baselineEpoch = -1;
+    private IntCountsHistogram baseline;
+
+    FingerprintLatency(String fingerprint, String sql, int windowCount, long highestTrackable, int significantDigits) {
+        this.fingerprint = fingerprint;
+        this.sql = sql;
+        this.slots = new IntCountsHistogram[windowCount];
+        this.slotEpochs = new long[windowCount];
+        this.highestTrackable = highestTrackable;
+        this.significantDigits = significantDigits;
+    }
+
+    synchronized void record(long epoch, long micros) {
+        slot(epoch).recordValue(Math.max(LOWEST_DISCERNIBLE_MICROS, Math.min(micros, highestTrackable)));
+    }
+
+    // baseline = zavrseni prozori unutar prstena, bez tekuceg
+    synchronized IntCountsHistogram baseline(long epoch) {
+        if (baselineEpoch != epoch) {
+            IntCountsHistogram merged = newHistogram();
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null && slotEpochs[i] < epoch && slotEpochs[i] > epoch - slots.length) {
+                    merged.add(slots[i]);
+                }
+            }
+            baseline = merged;
+            baselineEpoch = epoch;
+        }
+        return baseline;
+    }
+
+    synchronized IntCountsHistogram current(long epoch) {
+        int index = index(epoch);
+        return slots[index] != null && slotEpochs[index] == epoch ? slots[index].copy() : newHistogram();
+    }
+
+    synchronized long estimatedFootprintInBytes() {
+        long bytes = baseline == null ? 0 : baseline.getEstimatedFootprintInBytes();
+        for (IntCountsHistogram slot : slots) {
+            if (slot != null) {
+                bytes += slot.getEstimatedFootprintInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private IntCountsHistogram slot(long epoch) {
+        int index = index(epoch);
+        if (slots[index] == null) {
+            slots[index] = newHistogram();
+            slotEpochs[index] = epoch;
+        } else if (slotEpochs[index] != epoch) {
+            slots[index].reset();
+            slotEpochs[index] = epoch;
+        }
+        return slots[index];
+    }
+
+    private int index(long epoch) {
+        return (int) (epoch % slots.length);
+    }
+
+    private IntCountsHistogram newHistogram() {
+        return new IntCountsHistogram(LOWEST_DISCERNIBLE_MICROS, highestTrackable, significantDigits);
+    }
+}
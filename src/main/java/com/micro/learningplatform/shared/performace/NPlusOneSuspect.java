@@ -0,0 +1,11 @@
+package com.micro.learningplatform.shared.performace;
+
+// endpoint koji isti SELECT izvrsava u petlji; occurrences je broj zahtjeva u kojima je prag prijeden
+public record NPlusOneSuspect(
+        String endpoint,
+        String fingerprint,
+        String sql,
+        long occurrences,
+        long maxExecutionsPerRequest
+) {
+}
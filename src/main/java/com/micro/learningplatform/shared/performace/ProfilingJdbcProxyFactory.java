@@ -0,0 +1,52 @@
+package com.micro.learningplatform.shared.performace;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.jdk.JdkJdbcProxyFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+
+/* ResultSet proxy samo za naredbe koje je StatementProfilingListener odabrao u samplingu
+ * -> neprofilirane naredbe dobivaju originalni ResultSet, getteri idu direktno na driver
+ * -> profilirani ResultSet presrece samo next() za brojanje redova, bez method listenera
+ */
+public class ProfilingJdbcProxyFactory extends JdkJdbcProxyFactory {
+
+    private final StatementProfilingListener listener;
+    private final StatementProfiler profiler;
+
+    public ProfilingJdbcProxyFactory(StatementProfilingListener listener, StatementProfiler profiler) {
+        this.listener = listener;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public ResultSet createResultSet(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        if (resultSet == null || !listener.isProfiling()) {
+            return resultSet;
+        }
+        return (ResultSet) Proxy.newProxyInstance(ProfilingJdbcProxyFactory.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new RowCountingHandler(resultSet, profiler));
+    }
+
+    private record RowCountingHandler(ResultSet target, StatementProfiler profiler) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                profiler.resultRow();
+            }
+            return result;
+        }
+    }
+}
@@ -10,8 +10,10 @@ public record QueryExecutionResult(
         QueryPlan queryPlan,
         String queryId,
         LocalDateTime timestamp,
-        List<OptimizationRecommendation> recommendations
+        List<OptimizationRecommendation> recommendations,
+        boolean slowQuery
 ) {
+    // samo za rezultate bez ocjene QueryLatencyTracker-a
     private static final long SLOW_QUERY_THRESHOLD = 100;
 
 
@@ -27,11 +29,11 @@ public record QueryExecutionResult(
 
 
     public QueryExecutionResult(List<?> results, long executionTime, QueryPlan queryPlan) {
-        this(results, executionTime, queryPlan, null, LocalDateTime.now(), List.of());
+        this(results, executionTime, queryPlan, null, LocalDateTime.now(), List.of(), executionTime > SLOW_QUERY_THRESHOLD);
     }
 
     public boolean isSlowQuery() {
-        return executionTime > SLOW_QUERY_THRESHOLD;
+        return slowQuery;
     }
 
 
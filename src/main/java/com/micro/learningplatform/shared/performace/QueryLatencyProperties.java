@@ -0,0 +1,36 @@
+package com.micro.learningplatform.shared.performace;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.query.latency")
+@Getter
+@Setter
+public class QueryLatencyProperties {
+
+    // duljina jednog prozora i broj prozora; baseline su svi zavrseni prozori (window-length * (window-count - 1))
+    private Duration windowLength = Duration.ofMinutes(5);
+    private int windowCount = 12;
+
+    // gornja granica memorije: broj pracenih fingerprinta, najdulje nekoristeni se izbacuju
+    // najgori slucaj je max-fingerprints * (window-count + 1) histograma
+    private int maxFingerprints = 200;
+
+    // vrijednosti iznad ove granice biljeze se kao granica (histogram ima fiksni raspon)
+    private Duration highestTrackable = Duration.ofSeconds(60);
+    private int significantDigits = 2;
+
+    // upit je spor kad je iznad ovog percentila vlastitog baselinea
+    private double slowPercentile = 99.0;
+    // dok baseline nema dovoljno uzoraka vrijedi fiksni prag app.query.slow-query-threshold-ms
+    private long minBaselineSamples = 100;
+
+    // regresija: p95 tekuceg prozora je regression-factor puta veci od p95 baselinea
+    private double regressionFactor = 2.0;
+    private long minWindowSamples = 20;
+}
@@ -0,0 +1,18 @@
+package com.micro.learningplatform.shared.performace;
+
+// percentili u milisekundama; baseline su zavrseni prozori, current je prozor koji je u tijeku
+public record QueryLatencyStats(
+        String fingerprint,
+        String sql,
+        long baselineSamples,
+        double baselineP50,
+        double baselineP95,
+        double baselineP99,
+        long currentSamples,
+        double currentP95,
+        double currentP99,
+        double max,
+        boolean regressed,
+        PerformanceDistribution distribution
+) {
+}
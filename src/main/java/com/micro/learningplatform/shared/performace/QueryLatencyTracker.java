@@ -0,0 +1,159 @@
+package com.micro.learningplatform.shared.performace;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micro.learningplatform.shared.utils.SqlFingerprints;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.IntCountsHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class QueryLatencyTracker {
+
+    /* Detekcija sporih upita prema vlastitoj povijesti svakog upita
+     * -> svaki fingerprint (SqlFingerprints) ima HdrHistogram po kliznom prozoru (FingerprintLatency)
+     * -> izvrsavanje je sporo kad je iznad p99 (slow-percentile) baselinea tog upita;
+     *    upit od 5 ms koji inace traje 1 ms je sumnjiv, izvjestaj od 800 ms koji uvijek traje toliko nije
+     * -> dok baseline nema dovoljno uzoraka vrijedi fiksni prag app.query.slow-query-threshold-ms
+     * -> memorija je ogranicena: max-fingerprints u caffeine kesu (LRU), histogrami fiksnog raspona i preciznosti
+     */
+
+    private final QueryLatencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final long fixedThresholdMicros;
+    private final long windowMillis;
+    private final long highestTrackableMicros;
+    private final Cache<String, FingerprintLatency> fingerprints;
+
+    public QueryLatencyTracker(QueryLatencyProperties properties,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.query.slow-query-threshold-ms:1000}") long slowQueryThresholdMs) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.fixedThresholdMicros = TimeUnit.MILLISECONDS.toMicros(slowQueryThresholdMs);
+        this.windowMillis = properties.getWindowLength().toMillis();
+        this.highestTrackableMicros = properties.getHighestTrackable().toNanos() / 1_000;
+        this.fingerprints = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxFingerprints())
+                .expireAfterAccess(properties.getWindowLength().multipliedBy(properties.getWindowCount()))
+                .build();
+
+        meterRegistry.gauge("query.latency.fingerprints", fingerprints, cache -> cache.estimatedSize());
+        meterRegistry.gauge("query.latency.footprint.bytes", fingerprints, cache -> cache.asMap().values().stream()
+                .mapToLong(FingerprintLatency::estimatedFootprintInBytes)
+                .sum());
+    }
+
+    public SlowQueryVerdict record(String sql, long durationNanos) {
+        String normalized = SqlFingerprints.normalize(sql);
+        return recordNormalized(SqlFingerprints.fingerprint(normalized), normalized, durationNanos);
+    }
+
+    // za pozivatelje koji su SQL vec normalizirali (npr. profiler naredbi)
+    public SlowQueryVerdict recordNormalized(String fingerprint, String normalizedSql, long durationNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        long epoch = currentEpoch();
+        FingerprintLatency latency = fingerprints.get(fingerprint, key -> new FingerprintLatency(
+                key, normalizedSql, properties.getWindowCount(), highestTrackableMicros, properties.getSignificantDigits()));
+
+        // prag gledamo prije biljezenja, da mjerenje ne utjece na vlastitu ocjenu
+        IntCountsHistogram baseline = latency.baseline(epoch);
+        latency.record(epoch, micros);
+
+        SlowQueryVerdict verdict;
+        if (baseline.getTotalCount() >= properties.getMinBaselineSamples()) {
+            long threshold = baseline.getValueAtPercentile(properties.getSlowPercentile());
+            verdict = new SlowQueryVerdict(fingerprint, micros > threshold, "baseline", threshold);
+        } else {
+            verdict = new SlowQueryVerdict(fingerprint, micros > fixedThresholdMicros, "threshold", fixedThresholdMicros);
+        }
+
+        if (verdict.slow()) {
+            meterRegistry.counter("query.slow.detected", "reason", verdict.reason()).increment();
+            log.debug("Slow query {} took {} us (threshold {} us, {}): {}",
+                    fingerprint, micros, verdict.thresholdMicros(), verdict.reason(), normalizedSql);
+        }
+        return verdict;
+    }
+
+    public Optional<QueryLatencyStats> stats(String fingerprint) {
+        return Optional.ofNullable(fingerprints.getIfPresent(fingerprint)).map(latency -> toStats(latency, currentEpoch()));
+    }
+
+    // najsporiji upiti po p99 baselinea i tekuceg prozora
+    public List<QueryLatencyStats> top(int limit) {
+        long epoch = currentEpoch();
+        return fingerprints.asMap().values().stream()
+                .map(latency -> toStats(latency, epoch))
+                .sorted(Comparator.comparingDouble((QueryLatencyStats stats) ->
+                        Math.max(stats.baselineP99(), stats.currentP99())).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    // upiti ciji je tekuci prozor znacajno sporiji od vlastitog baselinea
+    public List<QueryLatencyStats> regressions() {
+        long epoch = currentEpoch();
+        return fingerprints.asMap().values().stream()
+                .map(latency -> toStats(latency, epoch))
+                .filter(QueryLatencyStats::regressed)
+                .sorted(Comparator.comparingDouble(QueryLatencyStats::currentP95).reversed())
+                .toList();
+    }
+
+    private QueryLatencyStats toStats(FingerprintLatency latency, long epoch) {
+        IntCountsHistogram baseline = latency.baseline(epoch);
+        IntCountsHistogram current = latency.current(epoch);
+
+        boolean regressed = baseline.getTotalCount() >= properties.getMinBaselineSamples()
+                && current.getTotalCount() >= properties.getMinWindowSamples()
+                && current.getValueAtPercentile(95.0) > baseline.getValueAtPercentile(95.0) * properties.getRegressionFactor();
+
+        IntCountsHistogram all = baseline.copy();
+        all.add(current);
+
+        return new QueryLatencyStats(
+                latency.getFingerprint(),
+                latency.getSql(),
+                baseline.getTotalCount(),
+                millis(baseline.getValueAtPercentile(50.0)),
+                millis(baseline.getValueAtPercentile(95.0)),
+                millis(baseline.getValueAtPercentile(99.0)),
+                current.getTotalCount(),
+                millis(current.getValueAtPercentile(95.0)),
+                millis(current.getValueAtPercentile(99.0)),
+                millis(all.getMaxValue()),
+                regressed,
+                distribution(all)
+        );
+    }
+
+    private static PerformanceDistribution distribution(IntCountsHistogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return PerformanceDistribution.empty();
+        }
+        return PerformanceDistribution.builder()
+                .min(millis(histogram.getMinValue()))
+                .max(millis(histogram.getMaxValue()))
+                .mean(histogram.getMean() / 1_000.0)
+                .standardDeviation(histogram.getStdDeviation() / 1_000.0)
+                .count(histogram.getTotalCount())
+                .build();
+    }
+
+    private long currentEpoch() {
+        return System.currentTimeMillis() / windowMillis;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
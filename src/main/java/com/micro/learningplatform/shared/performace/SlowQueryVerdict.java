@@ -0,0 +1,10 @@
+package com.micro.learningplatform.shared.performace;
+
+// ishod provjere jednog izvrsavanja; reason je "baseline" (percentil vlastite povijesti), "threshold" (fiksni prag) ili "none"
+public record SlowQueryVerdict(
+        String fingerprint,
+        boolean slow,
+        String reason,
+        long thresholdMicros
+) {
+}
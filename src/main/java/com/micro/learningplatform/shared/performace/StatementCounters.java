@@ -0,0 +1,54 @@
+package com.micro.learningplatform.shared.performace;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// brojaci jednog kljuca profila (fingerprint, endpoint + fingerprint ili tablica), sigurni za vise threadova
+class StatementCounters {
+
+    private final String key;
+    private final String sql;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    StatementCounters(String key, String sql) {
+        this.key = key;
+        this.sql = sql;
+    }
+
+    void record(long nanos, long rowCount, boolean success) {
+        calls.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        rows.add(rowCount);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void addRow() {
+        rows.increment();
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    StatementProfileStats snapshot() {
+        long callCount = calls.sum();
+        long total = totalNanos.sum();
+        return new StatementProfileStats(
+                key,
+                sql,
+                callCount,
+                errors.sum(),
+                rows.sum(),
+                total / 1_000_000.0,
+                callCount == 0 ? 0 : total / 1_000_000.0 / callCount,
+                maxNanos.get() / 1_000_000.0
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package com.micro.learningplatform.shared.performace;
+
+// agregat profila; key je fingerprint, "endpoint fingerprint" ili ime tablice, vremena su u milisekundama
+public record StatementProfileStats(
+        String key,
+        String sql,
+        long calls,
+        long errors,
+        long rows,
+        double totalMs,
+        double avgMs,
+        double maxMs
+) {
+}
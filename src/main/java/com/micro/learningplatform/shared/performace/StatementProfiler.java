@@ -0,0 +1,230 @@
+package com.micro.learningplatform.shared.performace;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micro.learningplatform.shared.utils.SqlFingerprints;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class StatementProfiler {
+
+    /* Stalno ukljuceni profiler SQL naredbi
+     * -> StatementProfilingListener (datasource-proxy) javlja svaku izvrsenu naredbu s trajanjem i brojem redova
+     * -> agregira se po fingerprintu, po endpointu + fingerprintu i po tablici, u ogranicenim caffeine kesevima
+     * -> sampling je po HTTP zahtjevu (StatementProfileInterceptor), pa su sve naredbe jednog zahtjeva ili
+     *    profilirane ili nisu -> N+1 detekcija vidi cijeli zahtjev; naredbe izvan zahtjeva samplira se pojedinacno
+     * -> trajanja idu i u QueryLatencyTracker, pa se spori upiti prepoznaju na stvarnom prometu
+     */
+
+    static final String NON_REQUEST = "non-request";
+
+    private static final Pattern TABLE_REFERENCE =
+            Pattern.compile("\\b(?:from|join|update|into)\\s+([a-z_][a-z0-9_]*(?:\\.[a-z_][a-z0-9_]*)?)");
+
+    private static final ThreadLocal<RequestProfile> CURRENT_REQUEST = new ThreadLocal<>();
+    // brojaci naredbe ciji se ResultSet upravo cita, ResultSet.next() dodaje redove
+    private static final ThreadLocal<List<StatementCounters>> OPEN_RESULT = new ThreadLocal<>();
+
+    private final StatementProfilerProperties properties;
+    private final QueryLatencyTracker latencyTracker;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, NormalizedStatement> normalized;
+    private final Cache<String, StatementCounters> byFingerprint;
+    private final Cache<String, StatementCounters> byEndpoint;
+    private final Cache<String, StatementCounters> byTable;
+    private final Cache<String, SuspectCounters> nPlusOne;
+
+    public StatementProfiler(StatementProfilerProperties properties,
+                             QueryLatencyTracker latencyTracker,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.latencyTracker = latencyTracker;
+        this.meterRegistry = meterRegistry;
+        this.normalized = Caffeine.newBuilder().maximumSize(properties.getMaxNormalizedStatements()).build();
+        this.byFingerprint = Caffeine.newBuilder().maximumSize(properties.getMaxFingerprints()).build();
+        this.byEndpoint = Caffeine.newBuilder().maximumSize(properties.getMaxEndpointEntries()).build();
+        this.byTable = Caffeine.newBuilder().maximumSize(properties.getMaxTables()).build();
+        this.nPlusOne = Caffeine.newBuilder().maximumSize(properties.getMaxEndpointEntries()).build();
+    }
+
+    public void beginRequest(String endpoint) {
+        CURRENT_REQUEST.set(sampled() ? new RequestProfile(endpoint) : RequestProfile.UNSAMPLED);
+    }
+
+    public void endRequest() {
+        RequestProfile profile = CURRENT_REQUEST.get();
+        CURRENT_REQUEST.remove();
+        OPEN_RESULT.remove();
+        if (profile != null && profile != RequestProfile.UNSAMPLED) {
+            detectNPlusOne(profile);
+        }
+    }
+
+    // poziva se prije izvrsavanja; false znaci da se naredba ne mjeri
+    boolean shouldProfile() {
+        // nova naredba zatvara brojanje redova prethodne
+        OPEN_RESULT.remove();
+        RequestProfile profile = CURRENT_REQUEST.get();
+        if (profile != null) {
+            return profile != RequestProfile.UNSAMPLED;
+        }
+        return sampled();
+    }
+
+    void record(String sql, long nanos, long rows, boolean success, boolean readsResultSet) {
+        NormalizedStatement statement = normalized.get(sql, NormalizedStatement::of);
+        RequestProfile profile = CURRENT_REQUEST.get();
+        String endpoint = profile == null ? NON_REQUEST : profile.endpoint;
+
+        StatementCounters fingerprintCounters = counters(byFingerprint, statement.fingerprint(), statement);
+        StatementCounters endpointCounters = counters(byEndpoint, endpoint + " " + statement.fingerprint(), statement);
+        fingerprintCounters.record(nanos, rows, success);
+        endpointCounters.record(nanos, rows, success);
+        for (String table : statement.tables()) {
+            byTable.get(table, key -> new StatementCounters(key, null)).record(nanos, rows, success);
+        }
+
+        if (readsResultSet) {
+            OPEN_RESULT.set(List.of(fingerprintCounters, endpointCounters));
+        }
+        if (profile != null && statement.select()) {
+            profile.executed(statement.fingerprint());
+        }
+        latencyTracker.recordNormalized(statement.fingerprint(), statement.sql(), nanos);
+    }
+
+    void resultRow() {
+        List<StatementCounters> open = OPEN_RESULT.get();
+        if (open != null) {
+            open.forEach(StatementCounters::addRow);
+        }
+    }
+
+    public List<StatementProfileStats> topStatements(int limit) {
+        return top(byFingerprint, limit);
+    }
+
+    public List<StatementProfileStats> topTables(int limit) {
+        return top(byTable, limit);
+    }
+
+    // naredbe po endpointu; endpoint null vraca sve endpointe
+    public List<StatementProfileStats> endpointStatements(String endpoint, int limit) {
+        return byEndpoint.asMap().values().stream()
+                .map(StatementCounters::snapshot)
+                .filter(stats -> endpoint == null || stats.key().startsWith(endpoint + " "))
+                .sorted(Comparator.comparingDouble(StatementProfileStats::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public List<NPlusOneSuspect> nPlusOneSuspects() {
+        return nPlusOne.asMap().values().stream()
+                .map(SuspectCounters::snapshot)
+                .sorted(Comparator.comparingLong(NPlusOneSuspect::occurrences).reversed())
+                .toList();
+    }
+
+    private void detectNPlusOne(RequestProfile profile) {
+        profile.selectCounts.forEach((fingerprint, executions) -> {
+            if (executions < properties.getRepeatedSelectThreshold()) {
+                return;
+            }
+            StatementCounters counters = byFingerprint.getIfPresent(fingerprint);
+            String sql = counters == null ? null : counters.snapshot().sql();
+            nPlusOne.get(profile.endpoint + " " + fingerprint,
+                            key -> new SuspectCounters(profile.endpoint, fingerprint, sql))
+                    .record(executions);
+            meterRegistry.counter("sql.n_plus_one", "endpoint", profile.endpoint).increment();
+            log.warn("Possible N+1 on {}: statement {} executed {} times in one request: {}",
+                    profile.endpoint, fingerprint, executions, sql);
+        });
+    }
+
+    private StatementCounters counters(Cache<String, StatementCounters> cache, String key, NormalizedStatement statement) {
+        return cache.get(key, k -> new StatementCounters(k, statement.sql()));
+    }
+
+    private boolean sampled() {
+        return ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+
+    private static List<StatementProfileStats> top(Cache<String, StatementCounters> cache, int limit) {
+        return cache.asMap().values().stream()
+                .sorted(Comparator.comparingLong(StatementCounters::totalNanos).reversed())
+                .limit(limit)
+                .map(StatementCounters::snapshot)
+                .toList();
+    }
+
+    // profil jednog HTTP zahtjeva, koristi ga samo thread zahtjeva pa obicna mapa dostaje
+    private static final class RequestProfile {
+
+        private static final RequestProfile UNSAMPLED = new RequestProfile(null);
+
+        private final String endpoint;
+        private final Map<String, Integer> selectCounts = new HashMap<>();
+
+        private RequestProfile(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void executed(String fingerprint) {
+            selectCounts.merge(fingerprint, 1, Integer::sum);
+        }
+    }
+
+    private record NormalizedStatement(String sql, String fingerprint, Set<String> tables, boolean select) {
+
+        static NormalizedStatement of(String rawSql) {
+            String sql = SqlFingerprints.normalize(rawSql);
+            Set<String> tables = new LinkedHashSet<>();
+            Matcher matcher = TABLE_REFERENCE.matcher(sql);
+            while (matcher.find()) {
+                tables.add(matcher.group(1));
+            }
+            return new NormalizedStatement(sql, SqlFingerprints.fingerprint(sql), Set.copyOf(tables),
+                    sql.startsWith("select") || sql.startsWith("with"));
+        }
+    }
+
+    private static final class SuspectCounters {
+
+        private final String endpoint;
+        private final String fingerprint;
+        private final String sql;
+        private final LongAdder occurrences = new LongAdder();
+        private final LongAccumulator maxExecutions = new LongAccumulator(Math::max, 0);
+
+        private SuspectCounters(String endpoint, String fingerprint, String sql) {
+            this.endpoint = endpoint;
+            this.fingerprint = fingerprint;
+            this.sql = sql;
+        }
+
+        private void record(int executions) {
+            occurrences.increment();
+            maxExecutions.accumulate(executions);
+        }
+
+        private NPlusOneSuspect snapshot() {
+            return new NPlusOneSuspect(endpoint, fingerprint, sql, occurrences.sum(), maxExecutions.get());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.micro.learningplatform.shared.performace;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.profiler")
+@Getter
+@Setter
+public class StatementProfilerProperties {
+
+    // false -> DataSource se ne omata, nema nikakvog troska
+    private boolean enabled = true;
+    // udio HTTP zahtjeva (i naredbi izvan zahtjeva) koji se profiliraju
+    private double sampleRate = 0.1;
+    // isti SELECT fingerprint toliko puta u jednom zahtjevu = sumnja na N+1
+    private int repeatedSelectThreshold = 10;
+
+    // granice memorije
+    private int maxFingerprints = 1_000;
+    private int maxEndpointEntries = 2_000;
+    private int maxTables = 200;
+    // cache normalizacije po sirovom SQL-u, hibernate generira stabilan SQL s ? parametrima
+    private int maxNormalizedStatements = 2_000;
+}
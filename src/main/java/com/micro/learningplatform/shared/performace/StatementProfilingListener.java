@@ -0,0 +1,78 @@
+package com.micro.learningplatform.shared.performace;
+
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/* Most izmedu datasource-proxy i StatementProfiler-a
+ * -> beforeQuery odlucuje o samplingu; neprofilirana naredba ne dobiva ni mjerenje vremena
+ * -> redovi: update count za DML, za SELECT se broje ResultSet.next() pozivi
+ *    (ProfilingJdbcProxyFactory omata ResultSet samo kad je naredba profilirana)
+ * -> batch s vise razlicitih naredbi dijeli vrijeme jednako medu njima
+ */
+@RequiredArgsConstructor
+public class StatementProfilingListener implements QueryExecutionListener {
+
+    private static final String START_NANOS = "profiler.startNanos";
+
+    private final StatementProfiler profiler;
+    // odluka o samplingu tekuce naredbe, ProfilingJdbcProxyFactory je cita kad stvara ResultSet
+    private final ThreadLocal<Boolean> profiling = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        boolean sampled = profiler.shouldProfile();
+        profiling.set(sampled);
+        if (sampled) {
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+    }
+
+    boolean isProfiling() {
+        return profiling.get();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long nanos = (System.nanoTime() - start) / queryInfoList.size();
+        Object result = execInfo.getResult();
+        boolean readsResultSet = result instanceof ResultSet;
+        long rows = readsResultSet ? 0 : updateCount(result);
+
+        for (QueryInfo queryInfo : queryInfoList) {
+            profiler.record(queryInfo.getQuery(), nanos, rows / queryInfoList.size(), execInfo.isSuccess(), readsResultSet);
+        }
+    }
+
+    private static long updateCount(Object result) {
+        return switch (result) {
+            case Integer count -> Math.max(count, 0);
+            case Long count -> Math.max(count, 0);
+            case int[] counts -> sum(counts);
+            case long[] counts -> {
+                long total = 0;
+                for (long count : counts) {
+                    total += Math.max(count, 0);
+                }
+                yield total;
+            }
+            case null, default -> 0;
+        };
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+}
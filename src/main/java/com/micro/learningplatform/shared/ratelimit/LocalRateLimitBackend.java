@@ -0,0 +1,37 @@
+package com.micro.learningplatform.shared.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+
+import java.time.Duration;
+
+/* Ograniceno lokalno spremiste bucketa
+ * -> maximumSize sprjecava rast memorije sa svakom novom IP adresom
+ * -> expireAfterAccess izbacuje neaktivne klijente, novi bucket je pun kao i onaj koji bi se u medjuvremenu napunio
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalRateLimitBackend(long maxClients, Duration expireAfterAccess) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    @Override
+    public Bucket resolveBucket(String key, BucketConfiguration configuration) {
+        return buckets.get(key, k -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : configuration.getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        });
+    }
+}
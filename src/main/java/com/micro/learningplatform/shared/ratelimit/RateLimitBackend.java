@@ -0,0 +1,10 @@
+package com.micro.learningplatform.shared.ratelimit;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+// spremiste bucket stanja, lokalno (Caffeine) ili distribuirano (Redis)
+public interface RateLimitBackend {
+
+    Bucket resolveBucket(String key, BucketConfiguration configuration);
+}
@@ -0,0 +1,44 @@
+package com.micro.learningplatform.shared.ratelimit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+
+@Configuration
+public class RateLimitConfiguration {
+
+    // backend se bira iz RateLimitProperties, pa se pogresna vrijednost app.rate-limit.backend javi pri bindanju
+    @Bean
+    public RateLimitBackend rateLimitBackend(RateLimitProperties properties,
+                                             ObjectProvider<RedisConnectionFactory> connectionFactory) {
+        return switch (properties.getBackend()) {
+            case LOCAL -> localRateLimitBackend(properties);
+            case REDIS -> redisRateLimitBackend(connectionFactory.getObject(), properties);
+        };
+    }
+
+    private static RateLimitBackend localRateLimitBackend(RateLimitProperties properties) {
+        // lokalni bucket ne smije isteci prije nego bi se sam napunio, inace bi klijent dobio tokene ranije
+        Duration expireAfterAccess = properties.getPolicies().stream()
+                .map(RateLimitProperties.Policy::getRefillPeriod)
+                .reduce(properties.getDefaultPolicy().getRefillPeriod(), (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        if (properties.getLocalExpireAfterAccess().compareTo(expireAfterAccess) > 0) {
+            expireAfterAccess = properties.getLocalExpireAfterAccess();
+        }
+        return new LocalRateLimitBackend(properties.getLocalMaxClients(), expireAfterAccess);
+    }
+
+    // koristimo isti lettuce klijent (standalone ili cluster) kao i spring data redis, samo s byte[] codecom
+    private static RateLimitBackend redisRateLimitBackend(RedisConnectionFactory connectionFactory,
+                                                          RateLimitProperties properties) {
+        if (!(connectionFactory instanceof LettuceConnectionFactory lettuceConnectionFactory)) {
+            throw new IllegalStateException("app.rate-limit.backend=redis requires a Lettuce connection factory, got "
+                    + connectionFactory.getClass().getName());
+        }
+        return new RedisRateLimitBackend(lettuceConnectionFactory.getNativeClient(), properties.getRedisKeyPrefix());
+    }
+}
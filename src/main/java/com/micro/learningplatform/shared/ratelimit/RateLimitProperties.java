@@ -0,0 +1,42 @@
+package com.micro.learningplatform.shared.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    // local -> Caffeine po nodu, redis -> globalni limit preko Bucket4j proxy managera
+    private Backend backend = Backend.LOCAL;
+    private long localMaxClients = 100_000;
+    // bucket koji miruje dulje od refill perioda je ionako pun, pa ga smijemo izbaciti
+    private Duration localExpireAfterAccess = Duration.ofMinutes(10);
+    private String redisKeyPrefix = "learning-platform:rate-limit:";
+    private Policy defaultPolicy = new Policy();
+    // prva politika koja odgovara putanji i roli se primjenjuje, inace defaultPolicy
+    private List<Policy> policies = new ArrayList<>();
+
+    public enum Backend {
+        LOCAL,
+        REDIS
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private String name = "default";
+        private String pathPattern; // ant pattern, null = sve putanje
+        private String role;        // npr ADMIN, null = sve role
+        private long capacity = 100;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.micro.learningplatform.shared.ratelimit;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+
+import java.time.Duration;
+
+/* Distribuirani bucketi u redisu
+ * -> stanje bucketa se mijenja compare-and-swap operacijom pa svi nodovi dijele isti limit
+ * -> BucketProxy je lagan objekt, redis se zove tek kod tryConsume
+ * -> kljuc istjece kad se bucket napuni (+ mala rezerva) pa redis ne raste s brojem klijenata
+ * -> radi sa standalone i cluster lettuce klijentom, ovisno o tome sto je spring data redis stvorio
+ */
+public class RedisRateLimitBackend implements RateLimitBackend, AutoCloseable {
+
+    private static final Duration KEY_EXPIRATION_MARGIN = Duration.ofSeconds(10);
+    private static final RedisCodec<String, byte[]> CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+    private final StatefulConnection<String, byte[]> connection;
+    private final LettuceBasedProxyManager<String> proxyManager;
+    private final String keyPrefix;
+
+    public RedisRateLimitBackend(AbstractRedisClient redisClient, String keyPrefix) {
+        ExpirationAfterWriteStrategy expiration = ExpirationAfterWriteStrategy
+                .basedOnTimeForRefillingBucketUpToMax(KEY_EXPIRATION_MARGIN);
+        if (redisClient instanceof RedisClusterClient clusterClient) {
+            StatefulRedisClusterConnection<String, byte[]> clusterConnection = clusterClient.connect(CODEC);
+            this.connection = clusterConnection;
+            this.proxyManager = LettuceBasedProxyManager.builderFor(clusterConnection)
+                    .withExpirationStrategy(expiration)
+                    .build();
+        } else if (redisClient instanceof RedisClient standaloneClient) {
+            StatefulRedisConnection<String, byte[]> standaloneConnection = standaloneClient.connect(CODEC);
+            this.connection = standaloneConnection;
+            this.proxyManager = LettuceBasedProxyManager.builderFor(standaloneConnection)
+                    .withExpirationStrategy(expiration)
+                    .build();
+        } else {
+            throw new IllegalStateException("Unsupported redis client for rate limiting: " + redisClient.getClass().getName());
+        }
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Bucket resolveBucket(String key, BucketConfiguration configuration) {
+        return proxyManager.builder().build(keyPrefix + key, () -> configuration);
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.micro.learningplatform.shared.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Minimalni RFC 4180 CSV citac koji cita zapis po zapis
+ * -> polja u navodnicima mogu sadrzavati zarez, novi red i "" (escapean navodnik)
+ * -> u memoriji je uvijek samo trenutni zapis, pa je pogodan za streaming importe
+ */
+public class CsvRecordReader {
+
+    private final BufferedReader reader;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    // vraca null kad vise nema zapisa
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean readAny = false;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+            readAny = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (!readAny) {
+            return null;
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field in CSV input");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,35 @@
+package com.micro.learningplatform.shared.utils;
+
+import java.util.Locale;
+
+/* Pomocne metode za LIKE upite nad trigram indeksima
+ * -> % i _ iz korisnickog unosa escapeamo da ne postanu wildcardi (i ne pretvore upit u full scan)
+ * -> sve je lowercase jer su indeksi na lower(kolona)
+ */
+public final class LikePatterns {
+
+    public static final char ESCAPE = '\\';
+
+    private LikePatterns() {
+    }
+
+    // '%term%' za lower(kolona) LIKE pattern, s ESCAPE kao escape znakom (postgres default)
+    public static String contains(String term) {
+        return "%" + escape(normalize(term)) + "%";
+    }
+
+    public static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escape(String term) {
+        StringBuilder escaped = new StringBuilder(term.length() + 8);
+        for (char c : term.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.micro.learningplatform.shared.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/* Normalizacija SQL-a u oblik upita (fingerprint)
+ * -> literali i parametri postaju ?, IN liste se sazimaju, razmaci se spajaju, sve je lowercase
+ *    -> "WHERE id = 5" i "WHERE id = :id" su isti upit s istim fingerprintom
+ * -> fingerprint je kratki hex hash normaliziranog SQL-a, siguran za url i tag metrike
+ */
+public final class SqlFingerprints {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):[a-zA-Z_]\\w*");
+    private static final Pattern POSITIONAL_PARAMETER = Pattern.compile("\\?\\d+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int FINGERPRINT_BYTES = 8;
+
+    private SqlFingerprints() {
+    }
+
+    public static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NAMED_PARAMETER.matcher(normalized).replaceAll("?");
+        normalized = POSITIONAL_PARAMETER.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        return normalized.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String fingerprint(String normalizedSql) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(normalizedSql.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, FINGERPRINT_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 je obavezan u svakom JRE-u, ovo se ne bi smjelo dogoditi
+            return Integer.toHexString(normalizedSql.hashCode());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- full-text stupac i indeks iz V4 migracije za shemu koju gradi Hibernate (ddl-auto: create, flyway iskljucen)
+-- generirani stupac umjesto triggera: isti sadrzaj kao courses_search_vector_trigger, a skripta nema $$ blokova
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+        setweight(to_tsvector('english', COALESCE(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS courses_search_idx ON courses USING gin (search_vector);
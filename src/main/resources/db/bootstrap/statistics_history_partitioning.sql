@@ -0,0 +1,46 @@
+-- particioniranje course_statistics_history iz V8 migracije za shemu koju gradi Hibernate (ddl-auto: create)
+-- Hibernate stvara obicnu tablicu; dok je prazna zamjenjuje se particioniranom s istim stupcima (LIKE),
+-- primarni kljuc (id, snapshot_timestamp) sadrzi kljuc particije kao i @IdClass entiteta
+DO
+$$
+    BEGIN
+        IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('course_statistics_history')) = 'r'
+            AND NOT EXISTS (SELECT 1 FROM course_statistics_history) THEN
+            ALTER TABLE course_statistics_history RENAME TO course_statistics_history_plain;
+            CREATE TABLE course_statistics_history
+                (LIKE course_statistics_history_plain INCLUDING DEFAULTS INCLUDING INDEXES)
+                PARTITION BY RANGE (snapshot_timestamp);
+            DROP TABLE course_statistics_history_plain;
+            ALTER TABLE course_statistics_history
+                ADD CONSTRAINT fk_csh_course FOREIGN KEY (course_id) REFERENCES courses (id);
+        END IF;
+    END
+$$;
+
+-- sigurnosna mreza ako particija za mjesec jos nije stvorena (StatisticsHistoryPartitionManager)
+CREATE TABLE IF NOT EXISTS course_statistics_history_default PARTITION OF course_statistics_history DEFAULT;
+
+-- tekuci i dva sljedeca mjeseca, inace bi snapshoti do nocnog posla zavrsili u default particiji
+-- i blokirali stvaranje particije za tekuci mjesec
+DO
+$$
+    DECLARE
+        month_start DATE := date_trunc('month', now())::date;
+    BEGIN
+        FOR i IN 0..2
+            LOOP
+                EXECUTE format(
+                        'CREATE TABLE IF NOT EXISTS %I PARTITION OF course_statistics_history FOR VALUES FROM (%L) TO (%L)',
+                        'course_statistics_history_' || to_char(month_start + make_interval(months => i), 'YYYY_MM'),
+                        month_start + make_interval(months => i),
+                        month_start + make_interval(months => i + 1));
+            END LOOP;
+    END
+$$;
+
+-- BRIN: snapshoti se samo dodaju pa je vrijeme fizicki poredano, indeks je par stranica po particiji
+CREATE INDEX IF NOT EXISTS idx_csh_snapshot_brin ON course_statistics_history USING brin (snapshot_timestamp) WITH (pages_per_range = 32);
+-- upiti za jedan tecaj u vremenskom rasponu
+CREATE INDEX IF NOT EXISTS idx_csh_course_snapshot ON course_statistics_history (course_id, snapshot_timestamp DESC);
+-- watermark rollup posla (MAX(bucket_start) po granularnosti) i brisanje starih satnih agregata
+CREATE INDEX IF NOT EXISTS idx_csr_granularity_bucket ON course_statistics_rollup (granularity, bucket_start);
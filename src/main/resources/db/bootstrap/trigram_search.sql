@@ -0,0 +1,6 @@
+-- pg_trgm i trigram indeksi iz V6 migracije za shemu koju gradi Hibernate
+-- searchBySubstring rangira s word_similarity, bez ekstenzije zadani /search pada
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_courses_title_trgm ON courses USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_description_trgm ON courses USING gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,7 @@
+-- monoton redoslijed outbox zapisa, created_at nije jedinstven pa relay nije imao tiebreaker
+-- postojeci zapisi dobivaju brojeve redom kojim ih bigserial popuni (tablica je obicno gotovo prazna)
+ALTER TABLE event_outbox
+    ADD COLUMN sequence_number BIGSERIAL;
+
+DROP INDEX IF EXISTS idx_event_outbox_created;
+CREATE INDEX idx_event_outbox_sequence ON event_outbox (sequence_number);
@@ -0,0 +1,13 @@
+-- transactional outbox za domenske dogadaje, pise se u istoj transakciji kao i agregat
+create table if not exists event_outbox
+(
+    id             UUID primary key,
+    aggregate_type VARCHAR(100) NOT NULL,
+    aggregate_id   UUID,
+    event_type     VARCHAR(200) NOT NULL,
+    payload        TEXT         NOT NULL,
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- relay cita najstarije zapise (ORDER BY created_at ... FOR UPDATE SKIP LOCKED)
+CREATE INDEX idx_event_outbox_created ON event_outbox (created_at);
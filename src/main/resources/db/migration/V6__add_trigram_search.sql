@@ -0,0 +1,6 @@
+-- trigram indeksi za substring pretragu (LIKE '%term%'), btree indeksi tu ne pomazu
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- indeks je na lower(...) jer upiti usporeduju lower(kolona) LIKE lower(pattern)
+CREATE INDEX IF NOT EXISTS idx_courses_title_trgm ON courses USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_description_trgm ON courses USING gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,27 @@
+-- tekuci agregati statistike, odrzavaju se inkrementalno iz aplikacije (CourseStatistics)
+ALTER TABLE course_statistics
+    ADD COLUMN IF NOT EXISTS module_count          INTEGER  NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS total_module_duration INTERVAL NOT NULL DEFAULT INTERVAL '0',
+    ADD COLUMN IF NOT EXISTS completed_modules     INTEGER  NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS difficulty_score_sum  INTEGER  NOT NULL DEFAULT 0;
+
+-- pocetno punjenje iz postojecih modula, bodovi tezine kao u DifficultyLevel enumu
+UPDATE course_statistics s
+SET module_count          = a.module_count,
+    total_module_duration = a.total_duration,
+    completed_modules     = a.completed_modules,
+    difficulty_score_sum  = a.difficulty_score_sum
+FROM (SELECT course_id,
+             COUNT(*)                                        AS module_count,
+             COALESCE(SUM(duration), INTERVAL '0')           AS total_duration,
+             COUNT(*) FILTER (WHERE status = 'COMPLETED')    AS completed_modules,
+             COALESCE(SUM(CASE difficulty_level
+                               WHEN 'BEGINNER' THEN 1
+                               WHEN 'INTERMEDIATE' THEN 2
+                               WHEN 'ADVANCED' THEN 3
+                               WHEN 'EXPERT' THEN 4
+                               ELSE 0 END), 0)               AS difficulty_score_sum
+      FROM course_modules
+      WHERE course_id IS NOT NULL
+      GROUP BY course_id) a
+WHERE a.course_id = s.course_id;
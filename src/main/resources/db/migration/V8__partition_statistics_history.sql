@@ -0,0 +1,74 @@
+-- povijest statistike kao vremenska serija: particije po mjesecu snapshot_timestamp-a
+-- stare particije se nakon rollupa mogu odbaciti cijele (DROP umjesto DELETE)
+ALTER TABLE IF EXISTS course_statistics_history RENAME TO course_statistics_history_legacy;
+
+CREATE TABLE course_statistics_history
+(
+    id                      UUID          NOT NULL,
+    course_id               UUID          NOT NULL REFERENCES courses (id),
+    total_modules           INTEGER       NOT NULL,
+    total_duration          INTERVAL      NOT NULL,
+    average_module_duration INTERVAL      NOT NULL,
+    completion_rate         NUMERIC(5, 2) NOT NULL,
+    difficulty_score        NUMERIC(5, 2) NOT NULL,
+    snapshot_timestamp      TIMESTAMP     NOT NULL,
+    -- kljuc particije mora biti dio primarnog kljuca
+    PRIMARY KEY (id, snapshot_timestamp)
+) PARTITION BY RANGE (snapshot_timestamp);
+
+-- sigurnosna mreza ako particija za mjesec jos nije stvorena (StatisticsHistoryPartitionManager)
+CREATE TABLE course_statistics_history_default PARTITION OF course_statistics_history DEFAULT;
+
+DO
+$$
+    DECLARE
+        month_start DATE := date_trunc('month', now())::date;
+    BEGIN
+        FOR i IN 0..2
+            LOOP
+                EXECUTE format(
+                        'CREATE TABLE IF NOT EXISTS %I PARTITION OF course_statistics_history FOR VALUES FROM (%L) TO (%L)',
+                        'course_statistics_history_' || to_char(month_start + make_interval(months => i), 'YYYY_MM'),
+                        month_start + make_interval(months => i),
+                        month_start + make_interval(months => i + 1));
+            END LOOP;
+    END
+$$;
+
+-- BRIN: snapshoti se samo dodaju pa je vrijeme fizicki poredano, indeks je par stranica po particiji
+CREATE INDEX idx_csh_snapshot_brin ON course_statistics_history USING brin (snapshot_timestamp) WITH (pages_per_range = 32);
+-- upiti za jedan tecaj u vremenskom rasponu
+CREATE INDEX idx_csh_course_snapshot ON course_statistics_history (course_id, snapshot_timestamp DESC);
+
+DO
+$$
+    BEGIN
+        IF to_regclass('course_statistics_history_legacy') IS NOT NULL THEN
+            INSERT INTO course_statistics_history (id, course_id, total_modules, total_duration, average_module_duration,
+                                                   completion_rate, difficulty_score, snapshot_timestamp)
+            SELECT id, course_id, total_modules, total_duration, average_module_duration,
+                   completion_rate, difficulty_score, snapshot_timestamp
+            FROM course_statistics_history_legacy;
+            DROP TABLE course_statistics_history_legacy;
+        END IF;
+    END
+$$;
+
+-- agregati po satu i danu, upiti preko vise mjeseci citaju njih umjesto svakog snapshota
+CREATE TABLE course_statistics_rollup
+(
+    course_id            UUID             NOT NULL,
+    granularity          VARCHAR(10)      NOT NULL,
+    bucket_start         TIMESTAMP        NOT NULL,
+    samples              INTEGER          NOT NULL,
+    avg_total_modules    DOUBLE PRECISION NOT NULL,
+    max_total_modules    INTEGER          NOT NULL,
+    avg_total_duration   INTERVAL         NOT NULL,
+    avg_completion_rate  NUMERIC(5, 2)    NOT NULL,
+    max_completion_rate  NUMERIC(5, 2)    NOT NULL,
+    avg_difficulty_score NUMERIC(5, 2)    NOT NULL,
+    PRIMARY KEY (course_id, granularity, bucket_start)
+);
+
+-- watermark rollup posla (MAX(bucket_start) po granularnosti) i brisanje starih satnih agregata
+CREATE INDEX idx_csr_granularity_bucket ON course_statistics_rollup (granularity, bucket_start);
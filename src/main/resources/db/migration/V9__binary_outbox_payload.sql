@@ -0,0 +1,8 @@
+-- outbox payload je binaran (Smile ili JSON bajtovi), format i verzija sheme idu uz zapis u kafka headere
+-- postojeci zapisi su JSON tekst, pa ih pretvaramo u UTF-8 bajtove i oznacavamo kao application/json
+ALTER TABLE event_outbox
+    ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+
+ALTER TABLE event_outbox
+    ADD COLUMN content_type VARCHAR(100) NOT NULL DEFAULT 'application/json',
+    ADD COLUMN schema_version INTEGER NOT NULL DEFAULT 1;
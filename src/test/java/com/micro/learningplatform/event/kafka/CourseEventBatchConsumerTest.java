@@ -0,0 +1,126 @@
+package com.micro.learningplatform.event.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CourseEventBatchConsumerTest {
+
+    private final CourseEventDispatcher dispatcher = mock(CourseEventDispatcher.class);
+    private final FailedRecordRouter failedRecordRouter = mock(FailedRecordRouter.class);
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // offseti svih batcheva koje je dispatcher primio, redom
+    private final List<List<Long>> dispatched = new ArrayList<>();
+
+    @Test
+    void healthyBatchIsDispatchedOnceAndAcknowledged() throws Exception {
+        failOn(Set.of());
+        List<ConsumerRecord<String, byte[]>> records = records(8);
+
+        consumer().consume(records, acknowledgment);
+
+        assertThat(dispatched).containsExactly(offsets(0, 8));
+        verifyNoInteractions(failedRecordRouter);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void bisectionIsolatesSinglePoisonRecord() throws Exception {
+        failOn(Set.of(5L));
+        List<ConsumerRecord<String, byte[]>> records = records(8);
+        when(failedRecordRouter.route(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer().consume(records, acknowledgment);
+
+        verify(failedRecordRouter).route(same(records.get(5)), any(IllegalStateException.class));
+        // svaki zdravi zapis je uspjesno obraden tocno jednom
+        List<Long> processed = dispatched.stream().filter(batch -> !batch.contains(5L)).flatMap(List::stream).toList();
+        assertThat(processed).containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L, 6L, 7L);
+        // 8 -> 4 -> 2 -> 1: log2(8) razina, po dva poziva na svakoj
+        assertThat(dispatched).hasSize(1 + 2 * 3);
+        assertThat(meterRegistry.counter("kafka.consumer.bisections", "topic", CourseEventDispatcher.TOPIC_TAG).count())
+                .isEqualTo(3);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void everyPoisonRecordIsRoutedSeparately() throws Exception {
+        failOn(Set.of(0L, 6L));
+        List<ConsumerRecord<String, byte[]>> records = records(7);
+        when(failedRecordRouter.route(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer().consume(records, acknowledgment);
+
+        verify(failedRecordRouter).route(same(records.get(0)), any());
+        verify(failedRecordRouter).route(same(records.get(6)), any());
+        verify(failedRecordRouter, times(2)).route(any(), any());
+        List<Long> processed = dispatched.stream()
+                .filter(batch -> !batch.contains(0L) && !batch.contains(6L))
+                .flatMap(List::stream)
+                .toList();
+        assertThat(processed).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void batchIsNotAcknowledgedWhenRoutingFails() throws Exception {
+        failOn(Set.of(1L));
+        when(failedRecordRouter.route(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThatIllegalStateException().isThrownBy(() -> consumer().consume(records(4), acknowledgment));
+
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private CourseEventBatchConsumer consumer() {
+        CourseEventConsumerProperties properties = new CourseEventConsumerProperties();
+        properties.setDeadLetterTimeout(Duration.ofSeconds(1));
+        return new CourseEventBatchConsumer(dispatcher, failedRecordRouter, properties, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void failOn(Set<Long> poisonOffsets) throws Exception {
+        doAnswer(invocation -> {
+            List<ConsumerRecord<String, byte[]>> batch = invocation.getArgument(0);
+            List<Long> batchOffsets = batch.stream().map(ConsumerRecord::offset).toList();
+            dispatched.add(batchOffsets);
+            if (batchOffsets.stream().anyMatch(poisonOffsets::contains)) {
+                throw new IllegalStateException("poison record in batch");
+            }
+            return null;
+        }).when(dispatcher).dispatch(any(List.class));
+    }
+
+    private static List<ConsumerRecord<String, byte[]>> records(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(offset -> new ConsumerRecord<>("course-events", 0, (long) offset, "course-" + offset, new byte[]{(byte) offset}))
+                .toList();
+    }
+
+    private static List<Long> offsets(long from, long to) {
+        return LongStream.range(from, to).boxed().toList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.micro.learningplatform.event.kafka;
+
+import com.micro.learningplatform.shared.exceptions.EventDecodingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class FailedRecordRouterTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+    private final DeadLetterPublisher deadLetterPublisher = mock(DeadLetterPublisher.class);
+    private final KafkaTopicProperties topicProperties = new KafkaTopicProperties();
+    private FailedRecordRouter router;
+
+    @BeforeEach
+    void setUp() {
+        topicProperties.setRetryDelays(List.of(Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofMinutes(5)));
+        router = new FailedRecordRouter(kafkaTemplate, topicProperties, deadLetterPublisher, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void firstFailureGoesToFirstRetryTier() {
+        ConsumerRecord<String, byte[]> record = record(null);
+        long before = System.currentTimeMillis();
+
+        router.route(record, new IllegalStateException("boom"));
+
+        ProducerRecord<String, byte[]> retry = sentRecord();
+        assertThat(retry.topic()).isEqualTo("course-events-retry-1s");
+        assertThat(retry.key()).isEqualTo("course-1");
+        assertThat(retry.value()).isEqualTo(record.value());
+        assertThat(header(retry, FailedRecordRouter.ATTEMPT_HEADER)).isEqualTo("1");
+        assertThat(Long.parseLong(header(retry, FailedRecordRouter.DUE_AT_HEADER))).isGreaterThanOrEqualTo(before + 1000);
+        verifyNoInteractions(deadLetterPublisher);
+    }
+
+    @Test
+    void retriedRecordMovesToNextTierWithSingleAttemptHeader() {
+        router.route(record("1"), new IllegalStateException("boom"));
+
+        ProducerRecord<String, byte[]> retry = sentRecord();
+        assertThat(retry.topic()).isEqualTo("course-events-retry-10s");
+        assertThat(retry.headers().headers(FailedRecordRouter.ATTEMPT_HEADER)).hasSize(1);
+        assertThat(header(retry, FailedRecordRouter.ATTEMPT_HEADER)).isEqualTo("2");
+    }
+
+    @Test
+    void minuteTierIsNamedInMinutes() {
+        router.route(record("2"), new IllegalStateException("boom"));
+
+        assertThat(sentRecord().topic()).isEqualTo("course-events-retry-5m");
+    }
+
+    @Test
+    void exhaustedRecordGoesToDeadLetter() {
+        ConsumerRecord<String, byte[]> record = record("3");
+        IllegalStateException exception = new IllegalStateException("boom");
+
+        router.route(record, exception);
+
+        verify(deadLetterPublisher).publish(same(record), same(exception));
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void decodingFailureSkipsRetryTiers() {
+        ConsumerRecord<String, byte[]> record = record(null);
+        EventDecodingException exception = new EventDecodingException("bad payload", null);
+
+        router.route(record, exception);
+
+        verify(deadLetterPublisher).publish(same(record), same(exception));
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String attempt) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("course-events", 0, 42L, "course-1", new byte[]{1, 2, 3});
+        if (attempt != null) {
+            record.headers().add(FailedRecordRouter.ATTEMPT_HEADER, EventHeaders.bytes(attempt));
+        }
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, byte[]> sentRecord() {
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        return captor.getValue();
+    }
+
+    private static String header(ProducerRecord<String, byte[]> record, String name) {
+        return new String(record.headers().lastHeader(name).value());
+    }
+}
@@ -0,0 +1,73 @@
+package com.micro.learningplatform.event.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionOffsetsTest {
+
+    @Test
+    void lowWaterMarkIsUnsetBeforeFirstRecord() {
+        PartitionOffsets offsets = new PartitionOffsets();
+
+        assertThat(offsets.lowWaterMark()).isEqualTo(-1);
+        assertThat(offsets.pendingCommit()).isEqualTo(-1);
+    }
+
+    @Test
+    void lowWaterMarkStaysOnOldestUnfinishedOffset() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        offsets.track(10);
+        offsets.track(11);
+        offsets.track(12);
+
+        offsets.complete(11);
+        offsets.complete(12);
+
+        assertThat(offsets.lowWaterMark()).isEqualTo(10);
+        assertThat(offsets.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void lowWaterMarkMovesPastLastOffsetWhenEverythingCompleted() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        offsets.track(10);
+        offsets.track(11);
+
+        offsets.complete(10);
+        assertThat(offsets.lowWaterMark()).isEqualTo(11);
+
+        offsets.complete(11);
+        assertThat(offsets.lowWaterMark()).isEqualTo(12);
+        assertThat(offsets.inFlight()).isZero();
+    }
+
+    @Test
+    void pendingCommitOnlyWhenLowWaterMarkAdvanced() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        offsets.track(5);
+        offsets.track(6);
+
+        assertThat(offsets.pendingCommit()).isEqualTo(5);
+        offsets.committed(5);
+        assertThat(offsets.pendingCommit()).isEqualTo(-1);
+
+        offsets.complete(6);
+        assertThat(offsets.pendingCommit()).isEqualTo(-1);
+
+        offsets.complete(5);
+        assertThat(offsets.pendingCommit()).isEqualTo(7);
+    }
+
+    @Test
+    void completingUnknownOffsetDoesNotChangeInFlightCount() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        offsets.track(1);
+
+        offsets.complete(1);
+        offsets.complete(1);
+        offsets.complete(42);
+
+        assertThat(offsets.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,47 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CourseCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        CourseCursor cursor = new CourseCursor(LocalDateTime.of(2024, 3, 15, 10, 30, 5, 123_456_000), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(CourseCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripKeepsWholeSecondTimestamps() {
+        CourseCursor cursor = new CourseCursor(LocalDateTime.of(2024, 1, 1, 0, 0), UUID.randomUUID());
+
+        assertThat(CourseCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertThat(CourseCursor.decode(null)).isNull();
+        assertThat(CourseCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2024-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+        String badUuid = Base64.getUrlEncoder().encodeToString("2024-01-01T00:00|nope".getBytes(StandardCharsets.UTF_8));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> CourseCursor.decode("not base64!"));
+        assertThatIllegalArgumentException().isThrownBy(() -> CourseCursor.decode(noSeparator));
+        assertThatIllegalArgumentException().isThrownBy(() -> CourseCursor.decode(badUuid));
+    }
+}
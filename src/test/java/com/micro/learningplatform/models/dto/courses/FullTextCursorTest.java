@@ -0,0 +1,44 @@
+package com.micro.learningplatform.models.dto.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class FullTextCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsExactRank() {
+        FullTextCursor cursor = new FullTextCursor(0.060792707f, UUID.randomUUID());
+
+        FullTextCursor decoded = FullTextCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(Float.floatToIntBits(decoded.rank())).isEqualTo(Float.floatToIntBits(cursor.rank()));
+    }
+
+    @Test
+    void roundTripKeepsTinyRanks() {
+        FullTextCursor cursor = new FullTextCursor(1.0E-20f, UUID.randomUUID());
+
+        assertThat(FullTextCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertThat(FullTextCursor.decode(null)).isNull();
+        assertThat(FullTextCursor.decode("")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String badRank = Base64.getUrlEncoder().encodeToString(("high|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> FullTextCursor.decode("%%%"));
+        assertThatIllegalArgumentException().isThrownBy(() -> FullTextCursor.decode(badRank));
+    }
+}
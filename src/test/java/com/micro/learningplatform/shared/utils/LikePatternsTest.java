@@ -0,0 +1,29 @@
+package com.micro.learningplatform.shared.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikePatternsTest {
+
+    @Test
+    void wrapsNormalizedTermInWildcards() {
+        assertThat(LikePatterns.contains("  Java Basics ")).isEqualTo("%java basics%");
+    }
+
+    @Test
+    void escapesWildcardsFromUserInput() {
+        assertThat(LikePatterns.contains("100%")).isEqualTo("%100\\%%");
+        assertThat(LikePatterns.contains("snake_case")).isEqualTo("%snake\\_case%");
+    }
+
+    @Test
+    void escapesEscapeCharacterItself() {
+        assertThat(LikePatterns.contains("c:\\temp")).isEqualTo("%c:\\\\temp%");
+    }
+
+    @Test
+    void normalizeTrimsAndLowercases() {
+        assertThat(LikePatterns.normalize("\tSQL_Server ")).isEqualTo("sql_server");
+    }
+}
@@ -0,0 +1,40 @@
+package com.micro.learningplatform.shared.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlFingerprintsTest {
+
+    @Test
+    void replacesLiteralsAndParametersWithPlaceholders() {
+        assertThat(SqlFingerprints.normalize("SELECT * FROM courses WHERE id = 5 AND title = 'it''s'"))
+                .isEqualTo("select * from courses where id = ? and title = ?");
+        assertThat(SqlFingerprints.normalize("select * from courses where id = :id and status = ?1"))
+                .isEqualTo("select * from courses where id = ? and status = ?");
+    }
+
+    @Test
+    void collapsesInListsAndWhitespace() {
+        assertThat(SqlFingerprints.normalize("select id\n  from courses\twhere id in (1, 2, 3)"))
+                .isEqualTo("select id from courses where id in (?...)");
+        assertThat(SqlFingerprints.normalize("select id from courses where id in (?, ?)"))
+                .isEqualTo(SqlFingerprints.normalize("select id from courses where id in (?, ?, ?, ?)"));
+    }
+
+    @Test
+    void keepsIdentifiersWithDigitsAndCasts() {
+        assertThat(SqlFingerprints.normalize("select c1_0.id, c1_0.title::text from courses c1_0 limit 20"))
+                .isEqualTo("select c1_0.id, c1_0.title::text from courses c1_0 limit ?");
+    }
+
+    @Test
+    void sameQueryShapeHasSameFingerprint() {
+        String literal = SqlFingerprints.fingerprint(SqlFingerprints.normalize("SELECT * FROM courses WHERE id = 5"));
+        String named = SqlFingerprints.fingerprint(SqlFingerprints.normalize("select * from courses where id = :id"));
+        String other = SqlFingerprints.fingerprint(SqlFingerprints.normalize("select * from course_modules where id = :id"));
+
+        assertThat(literal).isEqualTo(named).hasSize(16).matches("[0-9a-f]+");
+        assertThat(other).isNotEqualTo(literal);
+    }
+}